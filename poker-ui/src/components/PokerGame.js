@@ -207,7 +207,7 @@ async function getWinnerFromBackend(players, community) {
     })
   });
   const data = await response.json();
-  return data.winner; // index
+  return data.winners; // indexes of the players splitting the pot
 }
 
 function nextTurn(newPlayers, prevIdx) {
@@ -255,14 +255,23 @@ function nextTurn(newPlayers, prevIdx) {
       setShowdown(true);
       const inHandIdxs = newPlayers.map((p, i) => p.inHand ? i : null).filter(i => i !== null);
       const inHandPlayers = inHandIdxs.map(i => newPlayers[i]);
-      getWinnerFromBackend(inHandPlayers, community).then(winnerIdx => {
-        const globalWinnerIdx = inHandIdxs[winnerIdx];
+      getWinnerFromBackend(inHandPlayers, community).then(winnerIdxs => {
+        const globalWinnerIdxs = winnerIdxs.map(i => inHandIdxs[i]);
+        const globalWinnerIdx = globalWinnerIdxs[0];
+        // Tied hands split the pot; odd chips go to the first winner
+        const share = Math.floor(pot / globalWinnerIdxs.length);
         setPlayers(prevPlayers => {
           const updatedPlayers = [...prevPlayers];
-          updatedPlayers[globalWinnerIdx].bank += pot;
+          globalWinnerIdxs.forEach((idx, k) => {
+            updatedPlayers[idx].bank += share + (k === 0 ? pot - share * globalWinnerIdxs.length : 0);
+          });
           // Set winnerIdx and message here to use the updated bank value
           setWinnerIdx(globalWinnerIdx);
-          setMessage(`${updatedPlayers[globalWinnerIdx].name} wins the pot of $${pot}! New bank: $${updatedPlayers[globalWinnerIdx].bank}`);
+          if (globalWinnerIdxs.length > 1) {
+            setMessage(`${globalWinnerIdxs.map(idx => updatedPlayers[idx].name).join(' and ')} split the pot of $${pot}!`);
+          } else {
+            setMessage(`${updatedPlayers[globalWinnerIdx].name} wins the pot of $${pot}! New bank: $${updatedPlayers[globalWinnerIdx].bank}`);
+          }
           setGameOver(true);
           dealingRef.current = false;
           return updatedPlayers;
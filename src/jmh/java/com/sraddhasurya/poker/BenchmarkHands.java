@@ -0,0 +1,48 @@
+package com.sraddhasurya.poker;
+
+import java.util.*;
+
+/**
+ * Reproducible random hands and spots shared by the benchmarks
+ */
+public final class BenchmarkHands {
+    // Hands per benchmark input array, a power of two so the next index is a mask
+    static final int COUNT = 1024;
+
+    /**
+     * Board cards already dealt on each street
+     */
+    public enum Street {
+        PREFLOP(0), FLOP(3), TURN(4), RIVER(5);
+
+        final int boardSize;
+
+        Street(int boardSize) {
+            this.boardSize = boardSize;
+        }
+    }
+
+    private BenchmarkHands() {
+    }
+
+    /**
+     * COUNT random card sets of the given size
+     */
+    static long[] randomSets(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] sets = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            Deck deck = new Deck(0L);
+            long set = 0L;
+            for (int k = 0; k < size; k++) {
+                set |= CardSet.bit(deck.draw(random));
+            }
+            sets[i] = set;
+        }
+        return sets;
+    }
+
+    static List<Card> toCards(long set) {
+        return CardSet.toCards(set);
+    }
+}
@@ -0,0 +1,54 @@
+package com.sraddhasurya.poker;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * CardParser.parse over a shuffled stream of every card code, and a 7-card bulk parse into a reused array
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CardParserBenchmark {
+    private static final String[] NUMBERS = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
+    private static final String SUITS = "HDCS";
+
+    private String[] codes;
+    private int next;
+    private List<String> seven;
+    private final Card[] cards = new Card[7];
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(1);
+        codes = new String[1024];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = NUMBERS[random.nextInt(13)] + SUITS.charAt(random.nextInt(4));
+        }
+        seven = List.of("AH", "KD", "10H", "JH", "QH", "2C", "7S");
+    }
+
+    @Benchmark
+    public Card parse() {
+        next = (next + 1) & (codes.length - 1);
+        return CardParser.parse(codes[next]);
+    }
+
+    @Benchmark
+    public int parseIndex() {
+        next = (next + 1) & (codes.length - 1);
+        return CardParser.parseIndex(codes[next]);
+    }
+
+    @Benchmark
+    public Card[] parseInto() {
+        CardParser.parseInto(seven, cards, 0);
+        return cards;
+    }
+}
@@ -0,0 +1,66 @@
+package com.sraddhasurya.poker;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Hand evaluation: the List-based classifyHand and bestOf entry points, and the bitmask evaluator they wrap
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluatorBenchmark {
+
+    // Hole cards plus the board on the flop, turn and river
+    @Param({"5", "6", "7"})
+    public int cards;
+
+    private long[] sets;
+    private List<List<Card>> hands;
+    private long[] sevenCardSets;
+    private List<List<Card>> sevenCardHands;
+    private int next;
+
+    @Setup
+    public void setup() {
+        sets = BenchmarkHands.randomSets(cards, 2);
+        sevenCardSets = BenchmarkHands.randomSets(7, 3);
+        hands = new ArrayList<>();
+        sevenCardHands = new ArrayList<>();
+        for (int i = 0; i < BenchmarkHands.COUNT; i++) {
+            hands.add(BenchmarkHands.toCards(sets[i]));
+            sevenCardHands.add(BenchmarkHands.toCards(sevenCardSets[i]));
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (BenchmarkHands.COUNT - 1);
+        return next;
+    }
+
+    @Benchmark
+    public String classifyHand() {
+        return PokerHandEvaluator.classifyHand(hands.get(nextIndex()));
+    }
+
+    @Benchmark
+    public int evaluate() {
+        return SevenCardEvaluator.evaluate(sets[nextIndex()]);
+    }
+
+    // bestOf only takes seven cards, so it ignores the card count parameter
+    @Benchmark
+    public List<Card> bestOf() {
+        return BestFiveCards.bestOf(sevenCardHands.get(nextIndex()));
+    }
+
+    @Benchmark
+    public long bestOfSet() {
+        return BestFiveCards.bestOf(sevenCardSets[nextIndex()]);
+    }
+}
@@ -0,0 +1,58 @@
+package com.sraddhasurya.poker;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Ranking a batch of random 7-card hands: one SevenCardEvaluator call per hand, the same through
+ * HandBatch's scalar loop, and the SIMD lanes of VectorBatchEvaluator (per-hand time is the score
+ * divided by the batch size)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandBatchBenchmark {
+
+    // Hands per batch: the simulator's pass size and a larger one
+    @Param({"128", "1024"})
+    public int hands;
+
+    private long[] sets;
+    private HandBatch batch;
+    private HandBatch.Evaluator vector;
+
+    @Setup
+    public void setup() {
+        sets = BenchmarkHands.randomSets(7, 5);
+        batch = new HandBatch(hands);
+        for (int i = 0; i < hands; i++) {
+            batch.add(sets[i]);
+        }
+        vector = new VectorBatchEvaluator();
+    }
+
+    @Benchmark
+    public int perHand() {
+        int sum = 0;
+        for (int i = 0; i < hands; i++) {
+            sum += SevenCardEvaluator.evaluate(sets[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public HandBatch scalar() {
+        batch.evaluate(HandBatch.SCALAR);
+        return batch;
+    }
+
+    @Benchmark
+    public HandBatch vector() {
+        batch.evaluate(vector);
+        return batch;
+    }
+}
@@ -0,0 +1,104 @@
+package com.sraddhasurya.poker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * HandHistoryLog appends (a batch of 100,000 per measurement, so the log stays small; divide by the
+ * batch for the cost of one record) and a summary scan over 1,000,000 records
+ */
+@Fork(1)
+public class HandHistoryBenchmark {
+
+    static final int BATCH = 100_000;
+    static final int SCANNED = 1_000_000;
+
+    private static PokerRequest request() {
+        PokerRequest request = new PokerRequest();
+        request.setNumPlayers(6);
+        request.setPotSize(100);
+        request.setCallAmount(20);
+        return request;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class AppendState {
+        final long hole = CardParser.parseSet(List.of("AH", "KH"));
+        final long board = CardParser.parseSet(List.of("2H", "7S", "QD"));
+        final PokerRequest request = request();
+        final SpotResult spot = new SpotResult(Map.of(), new PokerEVResult(0.4, 0.02, 12.5, PokerEVResult.MONTE_CARLO, 10000, 0.005));
+        Path directory;
+        HandHistoryLog log;
+
+        @Setup(Level.Iteration)
+        public void open() throws IOException {
+            directory = Files.createTempDirectory("hand-history-bench");
+            log = new HandHistoryLog(true, directory, 1 << 20);
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() throws IOException {
+            log.close();
+            delete(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ScanState {
+        Path directory;
+        HandHistoryLog log;
+
+        @Setup(Level.Trial)
+        public void fill() throws IOException {
+            directory = Files.createTempDirectory("hand-history-bench");
+            log = new HandHistoryLog(true, directory, 1 << 20);
+            long hole = CardParser.parseSet(List.of("AH", "KH"));
+            PokerRequest request = request();
+            for (int i = 0; i < SCANNED; i++) {
+                long board = i % 4 == 0 ? 0L : CardParser.parseSet(List.of("2H", "7S", "QD"));
+                SpotResult spot = new SpotResult(Map.of(), new PokerEVResult(i % 100 / 100.0, 0, i % 50, PokerEVResult.EXACT, 1, 0));
+                log.recordProbabilities(hole, board, request, spot, i);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            log.close();
+            delete(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    public void append(AppendState state) {
+        state.log.recordProbabilities(state.hole, state.board, state.request, state.spot, 1000);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public Map<String, Object> summarize(ScanState state) {
+        return state.log.summarize(HandRecord.PROBABILITIES, 0, Long.MAX_VALUE, 6);
+    }
+}
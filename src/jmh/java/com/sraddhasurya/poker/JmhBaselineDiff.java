@@ -0,0 +1,83 @@
+package com.sraddhasurya.poker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares two JMH JSON result files (-rf json) benchmark by benchmark
+ *
+ * Usage: JmhBaselineDiff baseline.json current.json [threshold percent, default 10]
+ * Prints the score and allocation per operation of each benchmark and parameter set in both files
+ * and exits with status 1 when any got slower by more than the threshold
+ */
+public final class JmhBaselineDiff {
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private JmhBaselineDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhBaselineDiff <baseline.json> <current.json> [threshold percent]");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s %12s %12s%n", "benchmark", "baseline", "current", "change", "B/op base", "B/op now");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode base = baseline.get(entry.getKey());
+            double score = now.at("/primaryMetric/score").asDouble();
+            String unit = now.at("/primaryMetric/scoreUnit").asText();
+            if (base == null) {
+                System.out.printf("%-70s %14s %14.3f %9s %12s %12.1f  (new, %s)%n", entry.getKey(), "-", score, "-", "-", allocation(now), unit);
+                continue;
+            }
+
+            double baseScore = base.at("/primaryMetric/score").asDouble();
+            double change = (score - baseScore) / baseScore * 100;
+            // Throughput is better when higher, every other mode when lower
+            double slowdown = "thrpt".equals(now.get("mode").asText()) ? -change : change;
+            boolean regressed = slowdown > threshold;
+            if (regressed) regressions++;
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%% %12.1f %12.1f  %s%s%n", entry.getKey(), baseScore, score, change,
+                    allocation(base), allocation(now), unit, regressed ? "  REGRESSION" : "");
+        }
+
+        System.out.printf("%d regression(s) over %.1f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Reads a result file into a map keyed by benchmark name and its sorted parameters
+     */
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText().replace("com.sraddhasurya.poker.", ""));
+            JsonNode params = result.get("params");
+            if (params != null) {
+                List<String> names = new ArrayList<>();
+                params.fieldNames().forEachRemaining(names::add);
+                Collections.sort(names);
+                for (String name : names) {
+                    key.append(' ').append(name).append('=').append(params.get(name).asText());
+                }
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double allocation(JsonNode result) {
+        JsonNode metric = result.at("/secondaryMetrics/" + ALLOCATION + "/score");
+        return metric.isMissingNode() ? Double.NaN : metric.asDouble();
+    }
+}
@@ -0,0 +1,54 @@
+package com.sraddhasurya.poker;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * simulateEV on the flop with every opponent dealt from a typical opening range or from tight ranges
+ * that often collide, against the same spot with random opponents, to keep range sampling's cost in view
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RangedSimulatorBenchmark {
+    private static final int TRIALS = 10_000;
+    private static final Map<String, String> RANGES = Map.of(
+            "opening", "22+, A2s+, K9s+, QTs+, J9s+, T9s, 98s, 87s, ATo+, KJo+, QJo",
+            "tight", "88+, ATs+, KQs, AJo+",
+            "tightest", "TT+, AQs+, AKo");
+
+    @Param({"2", "5", "9"})
+    public int players;
+
+    @Param({"random", "opening", "tight", "tightest"})
+    public String range;
+
+    private long holeCards;
+    private long communityCards;
+    private SimulationOptions options;
+
+    @Setup
+    public void setup() {
+        holeCards = CardParser.parseSet(List.of("AH", "QH"));
+        communityCards = CardParser.parseSet(List.of("2H", "7S", "QD"));
+
+        options = new SimulationOptions(TRIALS);
+        options.setSeed(42L);
+        options.setMaxExactCombinations(0);
+        if (!range.equals("random")) {
+            HandRange[] ranges = new HandRange[players - 1];
+            Arrays.fill(ranges, HandRange.parse(RANGES.get(range)));
+            options.setOpponentRanges(ranges);
+        }
+    }
+
+    @Benchmark
+    public PokerEVResult simulateEV() {
+        return PokerEVSimulator.simulateEV(holeCards, communityCards, 100, 20, 0, players, options);
+    }
+}
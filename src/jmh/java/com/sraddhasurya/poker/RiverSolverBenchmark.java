@@ -0,0 +1,41 @@
+package com.sraddhasurya.poker;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * One river solve to 0.1% of the pot: a wide first-to-act range against a narrower or a full range,
+ * three bet sizes, one raise size, up to two raises and the all-in
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RiverSolverBenchmark {
+
+    @Param({"22+, A2s+, K5s+, Q8s+, J9s+, T8s+, 98s, 87s, 76s, 65s, A9o+, KTo+, QJo",
+            "22+, A2+, K2+, Q2+, J2+, T2+, 92+, 82+, 72+, 62+, 52+, 42+, 32"})
+    public String ipRange;
+
+    private long board;
+    private RiverTree tree;
+    private HandRange oop;
+    private HandRange ip;
+
+    @Setup
+    public void setup() {
+        board = CardParser.parseSet(List.of("KH", "QD", "7C", "4S", "2H"));
+        tree = RiverTree.build(100, 500, new double[] {0.33, 0.75, 1.5}, new double[] {1.0}, 2, true, 1000);
+        oop = HandRange.parse("22+, A2s+, K2s+, Q8s+, J8s+, T8s+, 97s+, 86s+, 75s+, 64s+, 54s, A8o+, KTo+, QTo+, JTo");
+        ip = HandRange.parse(ipRange);
+    }
+
+    @Benchmark
+    public RiverSolution solve() {
+        return RiverSolver.solve(board, tree, 100, oop, ip, 0.1, 10_000);
+    }
+}
@@ -0,0 +1,47 @@
+package com.sraddhasurya.poker;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * One 10,000 trial Monte Carlo simulateEV call per street and table size
+ *
+ * Exact enumeration is switched off so every combination measures the sampling hot path; the seed
+ * fixes the trials so runs are comparable
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimulatorBenchmark {
+    private static final int TRIALS = 10_000;
+
+    @Param({"PREFLOP", "FLOP", "TURN", "RIVER"})
+    public BenchmarkHands.Street street;
+
+    @Param({"2", "3", "4", "5", "6", "7", "8", "9"})
+    public int players;
+
+    private long holeCards;
+    private long communityCards;
+    private SimulationOptions options;
+
+    @Setup
+    public void setup() {
+        long cards = BenchmarkHands.randomSets(2 + street.boardSize, 4)[0];
+        holeCards = CardSet.bit(CardSet.first(cards)) | CardSet.bit(CardSet.first(cards & (cards - 1)));
+        communityCards = cards & ~holeCards;
+
+        options = new SimulationOptions(TRIALS);
+        options.setSeed(42L);
+        options.setMaxExactCombinations(0);
+    }
+
+    @Benchmark
+    public PokerEVResult simulateEV() {
+        return PokerEVSimulator.simulateEV(holeCards, communityCards, 100, 20, 0, players, options);
+    }
+}
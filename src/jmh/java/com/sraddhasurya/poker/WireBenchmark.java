@@ -0,0 +1,63 @@
+package com.sraddhasurya.poker;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Decoding a /probabilities request and encoding its result, JSON (Jackson, card codes parsed from
+ * strings) against the PokerWire frames
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WireBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private byte[] jsonRequest;
+    private final ByteBuffer wireRequest = ByteBuffer.allocate(PokerWire.REQUEST_BYTES);
+    private final ByteBuffer wireResult = ByteBuffer.allocate(PokerWire.RESULT_BYTES);
+    private SpotResult spot;
+
+    @Setup
+    public void setup() throws Exception {
+        jsonRequest = ("{\"holeCards\":[\"10H\",\"JH\"],\"communityCards\":[\"2C\",\"7D\",\"QS\"],"
+                + "\"numPlayers\":6,\"potSize\":150,\"callAmount\":30,\"raiseAmount\":90,\"seed\":42}").getBytes();
+        PokerRequest request = mapper.readValue(jsonRequest, PokerRequest.class);
+        long hole = CardParser.parseSet(request.getHoleCards());
+        long board = CardParser.parseSet(request.getCommunityCards());
+        PokerWire.writeRequest(wireRequest, 0, hole, board, request);
+
+        PokerEVResult result = PokerEVSimulator.simulateEV(hole, board, 150, 30, 90, 10000, 6, 42L);
+        spot = new SpotResult(new HandProbabilities(hole).distribution(board), result);
+    }
+
+    @Benchmark
+    public long jsonDecode() throws Exception {
+        PokerRequest request = mapper.readValue(jsonRequest, PokerRequest.class);
+        return CardParser.parseSet(request.getHoleCards()) ^ CardParser.parseSet(request.getCommunityCards()) ^ request.getPotSize();
+    }
+
+    @Benchmark
+    public long wireDecode() {
+        PokerWire.Spot decoded = PokerWire.readRequest(wireRequest, 0);
+        return decoded.holeCards() ^ decoded.communityCards() ^ decoded.request().getPotSize();
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws Exception {
+        return mapper.writeValueAsBytes(PokerController.toResponse(spot));
+    }
+
+    @Benchmark
+    public ByteBuffer wireEncode() {
+        PokerWire.writeResult(wireResult, 0, spot);
+        return wireResult;
+    }
+}
@@ -0,0 +1,132 @@
+package com.sraddhasurya.poker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Evaluates a stream of PokerRequest scenarios in parallel and streams the results back as NDJSON
+ *
+ * Scenarios are read one at a time and at most maxInFlight of them are queued or running at once, so
+ * memory stays flat however long the batch is. Each result is written as one line as soon as it is
+ * done (completion order), tagged with the scenario's id or, without one, its position in the batch.
+ * Duplicate scenarios are computed once: EquityService's cache makes concurrent copies of a spot wait
+ * for one computation and later copies hit the cached result
+ */
+@Service
+public class BatchService {
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final EquityService equityService;
+    private final ObjectMapper mapper;
+    private final PokerMetrics metrics;
+    private final ExecutorService pool;
+    private final int maxInFlight;
+
+    public BatchService(EquityService equityService, ObjectMapper mapper, PokerMetrics metrics,
+            @Value("${poker.batch.threads:0}") int threads,
+            @Value("${poker.batch.max-in-flight:64}") int maxInFlight) {
+        this.equityService = equityService;
+        this.mapper = mapper;
+        this.metrics = metrics;
+        this.maxInFlight = maxInFlight;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = metrics.monitorExecutor(Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "poker-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }), "batch");
+    }
+
+    /**
+     * Reads scenarios (NDJSON, or a JSON array) from in and writes one NDJSON result line per scenario to out
+     *
+     * @throws IOException if writing to out fails, e.g. the client went away
+     */
+    public void evaluate(InputStream in, OutputStream out) throws IOException {
+        Semaphore window = new Semaphore(maxInFlight);
+        AtomicReference<IOException> writeFailure = new AtomicReference<>();
+        long index = 0;
+
+        try (MappingIterator<PokerRequest> scenarios = mapper.readerFor(PokerRequest.class).readValues(in)) {
+            while (writeFailure.get() == null && scenarios.hasNextValue()) {
+                PokerRequest scenario = scenarios.nextValue();
+                String id = scenario.getId() != null ? scenario.getId() : String.valueOf(index);
+                index++;
+
+                window.acquire();
+                pool.execute(() -> {
+                    try {
+                        write(out, evaluateOne(id, scenario), writeFailure);
+                    } finally {
+                        window.release();
+                    }
+                });
+            }
+        } catch (JsonProcessingException e) {
+            // A malformed scenario ends the batch; the ones already read still finish
+            metrics.recordError("batch", "invalid_input");
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("index", index);
+            error.put("error", "Invalid input");
+            write(out, error, writeFailure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            window.acquireUninterruptibly(maxInFlight);
+        }
+
+        if (writeFailure.get() != null) {
+            throw writeFailure.get();
+        }
+    }
+
+    private Map<String, Object> evaluateOne(String id, PokerRequest scenario) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("id", id);
+        try {
+            // The window already bounds the batch, so scenarios wait for queue room rather than being rejected
+            line.putAll(PokerController.toResponse(equityService.calculateWhenQueued(scenario)));
+        } catch (Exception e) {
+            metrics.recordError("batch", "invalid_input");
+            line.put("error", "Invalid input");
+        }
+        return line;
+    }
+
+    private void write(OutputStream out, Map<String, Object> line, AtomicReference<IOException> writeFailure) {
+        if (writeFailure.get() != null) return;
+        try {
+            byte[] json = mapper.writeValueAsBytes(line);
+            synchronized (out) {
+                out.write(json);
+                out.write(NEWLINE);
+                out.flush();
+            }
+        } catch (IOException e) {
+            writeFailure.compareAndSet(null, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
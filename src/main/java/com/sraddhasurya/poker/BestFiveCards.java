@@ -19,47 +19,42 @@ public class BestFiveCards {
             throw new IllegalArgumentException("Must provide exactly 7 cards.");
         }
 
-        
-        List<List<Card>> combos = getAll5CardCombos(sevenCards);
-        List<Card> bestHand = null;
-        int bestStrength = -1;
-
-        // Evaluates each 5-card combination and keeps track of the strongest man 
-        for (List<Card> combo : combos) {
-            String handRank = PokerHandEvaluator.classifyHand(combo);
-            int strength = PokerHandEvaluator.getHandStrength(handRank);
-
-            if (strength > bestStrength) {
-                bestStrength = strength;
-                bestHand = combo;
+        long best = bestOf(CardSet.of(sevenCards));
+        List<Card> bestHand = new ArrayList<>(5);
+        for (Card card : sevenCards) {
+            if (CardSet.contains(best, card.getIndex())) {
+                bestHand.add(card);
             }
         }
-
         return bestHand;
     }
 
-    private static List<List<Card>> getAll5CardCombos(List<Card> cards) {
+    public static long bestOf(long sevenCards) {
         /**
-         * Determines all the five hand combinations we can get from the seven cards
+         * Returns the best 5-card subset of a 7-card set
          * 
-         * @param cards: a list of 7 card objects
-         * @return combos: a list of 5-card combinations 
+         * @param sevenCards: a card set of exactly 7 distinct cards
+         * @return the card set of the best 5 cards
+         * @throws IllegalArgumentException if the set does not hold 7 cards
          */
-        List<List<Card>> combos = new ArrayList<>();
-        int n = cards.size();
-        for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                List<Card> hand = new ArrayList<>();
-                // Adds all cards exceot the two at indices i and j
-                for (int k = 0; k < n; k++) {
-                    if (k != i && k != j) {
-                        hand.add(cards.get(k));
-                    }
+        if (CardSet.size(sevenCards) != 7) {
+            throw new IllegalArgumentException("Must provide exactly 7 distinct cards.");
+        }
+
+        // Evaluates each 5-card combination (all seven minus two of them) and keeps the strongest
+        int bestStrength = -1;
+        long bestHand = 0L;
+        for (long first = sevenCards; first != 0; first &= first - 1) {
+            long skipFirst = first & -first;
+            for (long second = first & (first - 1); second != 0; second &= second - 1) {
+                long hand = sevenCards & ~skipFirst & ~(second & -second);
+                int strength = SevenCardEvaluator.evaluate(hand);
+                if (strength > bestStrength) {
+                    bestStrength = strength;
+                    bestHand = hand;
                 }
-                combos.add(hand);
             }
         }
-        return combos;
+        return bestHand;
     }
 }
-
@@ -0,0 +1,215 @@
+package com.sraddhasurya.poker;
+
+import java.util.*;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * EV of raising by each size on a grid against opponents who fold by a FoldModel, from one simulation
+ *
+ * Each trial deals and ranks the showdown once, as PokerEVSimulator does, and gives every opponent a
+ * continue level in [0, 1): a uniform draw for random folds, the percentile of their hand on the board
+ * so far for weakest-first. Against a size the opponents whose level clears 1 minus the continue
+ * probability call and the rest fold, so every size on the grid is scored from the same trial, and a
+ * larger raise loses exactly the callers with the lowest levels. Random levels come from streams of
+ * their own, so the cards are dealt from the same streams as simulateEV's: with nobody folding, a
+ * size is scored on the very trials simulateEV samples for the same seed
+ *
+ * Payoffs follow PokerEVResult.expectedValue: the player puts in call plus raise, each opponent who
+ * continues puts in the raise, a tie takes half the pot. When everyone folds the player takes the pot
+ */
+public class BetSizing {
+
+    /**
+     * Samples the EV of every raise size
+     *
+     * @param holeCards      card set of the player's two hole cards
+     * @param communityCards card set of the current community cards
+     * @param potSize        pot before the player acts
+     * @param callAmount     amount the player must call
+     * @param raiseAmounts   raise sizes on top of the call, 0 for just calling
+     * @param numPlayers     total number of players (including the user), all random hands
+     * @param seed           random seed for a reproducible result, or null for a fresh one
+     */
+    public static BetSizingResult simulate(long holeCards, long communityCards, int potSize, int callAmount, int[] raiseAmounts,
+            int numPlayers, FoldModel model, int numTrials, Long seed) {
+        if (numTrials <= 0) {
+            throw new IllegalArgumentException("Number of trials must be positive.");
+        }
+        double[] continueLevels = new double[raiseAmounts.length];
+        for (int s = 0; s < raiseAmounts.length; s++) {
+            continueLevels[s] = 1.0 - model.continueProbability(potSize, callAmount, raiseAmounts[s]);
+        }
+        float[] percentiles = model.weakestFirst() ? percentiles(holeCards | communityCards, communityCards) : null;
+        Spot spot = new Spot(holeCards, communityCards, potSize, callAmount, raiseAmounts, continueLevels, numPlayers, percentiles);
+
+        // One deal stream per batch, split in batch order as simulateEV does, then one level stream per
+        // batch off a root split after them
+        SplittableRandom root = seed == null ? new SplittableRandom() : new SplittableRandom(seed);
+        int numBatches = (numTrials + PokerEVSimulator.TRIALS_PER_BATCH - 1) / PokerEVSimulator.TRIALS_PER_BATCH;
+        SplittableRandom[] streams = new SplittableRandom[numBatches];
+        for (int b = 0; b < numBatches; b++) {
+            streams[b] = root.split();
+        }
+        SplittableRandom levelRoot = root.split();
+        SplittableRandom[] levelStreams = new SplittableRandom[numBatches];
+        for (int b = 0; b < numBatches; b++) {
+            levelStreams[b] = levelRoot.split();
+        }
+        return new SizingBatches(spot, numTrials, streams, levelStreams, 0, numBatches).invoke();
+    }
+
+    /**
+     * Percentile of every possible opponent hand on the current board (its made hand; preflop pairs,
+     * then high cards, then suited), hands of equal strength sharing the middle of their span
+     *
+     * @return percentile per hand, indexed by lower card * 52 + higher card
+     */
+    static float[] percentiles(long dead, long communityCards) {
+        int boardSize = CardSet.size(communityCards);
+        int[] cards = CardSet.toArray(CardSet.FULL_DECK & ~dead);
+        long[] keyed = new long[cards.length * (cards.length - 1) / 2];
+        int n = 0;
+        for (int i = 0; i < cards.length; i++) {
+            for (int j = i + 1; j < cards.length; j++) {
+                int strength = boardSize >= 3
+                        ? SevenCardEvaluator.evaluate(communityCards | CardSet.bit(cards[i]) | CardSet.bit(cards[j]))
+                        : preflopStrength(cards[i], cards[j]);
+                keyed[n++] = (long) strength << 12 | cards[i] * 52 + cards[j];
+            }
+        }
+        Arrays.sort(keyed);
+
+        float[] percentiles = new float[52 * 52];
+        for (int start = 0; start < n; ) {
+            int end = start;
+            while (end < n && keyed[end] >>> 12 == keyed[start] >>> 12) end++;
+            float percentile = (start + end) / 2f / n;
+            for (int k = start; k < end; k++) {
+                percentiles[(int) (keyed[k] & 0xFFF)] = percentile;
+            }
+            start = end;
+        }
+        return percentiles;
+    }
+
+    private static int preflopStrength(int a, int b) {
+        int high = Math.max(CardSet.rank(a), CardSet.rank(b));
+        int low = Math.min(CardSet.rank(a), CardSet.rank(b));
+        int suited = CardSet.suit(a) == CardSet.suit(b) ? 1 : 0;
+        return high == low ? 0x1000 | high : (high << 5 | low << 1 | suited);
+    }
+
+    /**
+     * Plays a number of trials of a spot into result, dealing from random and drawing random continue
+     * levels from levelRandom
+     */
+    static void runTrials(Spot spot, int numTrials, SplittableRandom random, SplittableRandom levelRandom, BetSizingResult result) {
+        int numPlayers = spot.numPlayers;
+        int sizes = spot.raiseAmounts.length;
+        Deck deck = new Deck(spot.holeCards | spot.communityCards);
+        int boardSize = CardSet.size(spot.communityCards);
+        long[] opponents = new long[numPlayers - 1];
+        double[] levels = new double[numPlayers - 1];
+        int trialsPerBatch = Math.max(1, PokerEVSimulator.BATCH_HANDS / numPlayers);
+        HandBatch batch = new HandBatch(trialsPerBatch * numPlayers);
+        long[][] dealt = new long[trialsPerBatch][numPlayers - 1];
+        double[] weights = new double[trialsPerBatch];
+
+        for (int done = 0; done < numTrials; ) {
+            int trials = Math.min(trialsPerBatch, numTrials - done);
+            batch.clear();
+            for (int t = 0; t < trials; t++) {
+                long fullBoard = PokerEVSimulator.deal(deck, spot.communityCards, boardSize, null, opponents, weights, t, random);
+                batch.add(fullBoard | spot.holeCards);
+                for (int p = 0; p < opponents.length; p++) {
+                    batch.add(fullBoard | opponents[p]);
+                    dealt[t][p] = opponents[p];
+                }
+            }
+            batch.evaluate();
+
+            for (int t = 0; t < trials; t++) {
+                int slot = t * numPlayers;
+                int playerStrength = batch.value(slot);
+                for (int p = 0; p < levels.length; p++) {
+                    levels[p] = spot.percentiles == null ? levelRandom.nextDouble() : spot.percentiles[handIndex(dealt[t][p])];
+                }
+                for (int s = 0; s < sizes; s++) {
+                    int callers = 0;
+                    boolean stronger = false;
+                    boolean same = false;
+                    for (int p = 0; p < levels.length; p++) {
+                        if (levels[p] < spot.continueLevels[s]) continue;
+                        callers++;
+                        int opponentStrength = batch.value(slot + 1 + p);
+                        stronger |= opponentStrength > playerStrength;
+                        same |= opponentStrength == playerStrength;
+                    }
+                    result.addPayoff(s, payoff(spot, s, callers, stronger, same));
+                    if (callers == 0) result.countFold(s);
+                }
+                result.countTrial();
+            }
+            done += trials;
+        }
+    }
+
+    private static double payoff(Spot spot, int size, int callers, boolean stronger, boolean same) {
+        if (callers == 0) return spot.potSize;
+        int contribution = spot.callAmount + spot.raiseAmounts[size];
+        if (stronger) return -contribution;
+        double totalPot = spot.potSize + contribution + (double) callers * spot.raiseAmounts[size];
+        return (same ? totalPot / 2 : totalPot) - contribution;
+    }
+
+    // Lower card * 52 + higher card of a two-card set
+    private static int handIndex(long hand) {
+        return CardSet.first(hand) * 52 + CardSet.first(hand & (hand - 1));
+    }
+
+    /**
+     * Everything a trial needs, shared read-only by the workers
+     */
+    record Spot(long holeCards, long communityCards, int potSize, int callAmount, int[] raiseAmounts,
+            double[] continueLevels, int numPlayers, float[] percentiles) {
+    }
+
+    /**
+     * Fork/join task over a range of trial batches
+     */
+    private static final class SizingBatches extends RecursiveTask<BetSizingResult> {
+        private final Spot spot;
+        private final int numTrials;
+        private final SplittableRandom[] streams;
+        private final SplittableRandom[] levelStreams;
+        private final int from;
+        private final int to;
+
+        SizingBatches(Spot spot, int numTrials, SplittableRandom[] streams, SplittableRandom[] levelStreams, int from, int to) {
+            this.spot = spot;
+            this.numTrials = numTrials;
+            this.streams = streams;
+            this.levelStreams = levelStreams;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BetSizingResult compute() {
+            if (to - from == 1) {
+                BetSizingResult result = new BetSizingResult(spot.raiseAmounts());
+                int trials = Math.min(PokerEVSimulator.TRIALS_PER_BATCH, numTrials - from * PokerEVSimulator.TRIALS_PER_BATCH);
+                runTrials(spot, trials, streams[from], levelStreams[from], result);
+                return result;
+            }
+
+            int mid = (from + to) >>> 1;
+            SizingBatches left = new SizingBatches(spot, numTrials, streams, levelStreams, from, mid);
+            SizingBatches right = new SizingBatches(spot, numTrials, streams, levelStreams, mid, to);
+            left.fork();
+            BetSizingResult result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.sraddhasurya.poker;
+
+import java.util.List;
+
+/**
+ * Request body of /sizing: the spot, the raise sizes to compare and how opponents fold to them
+ */
+public class BetSizingRequest {
+    private List<String> holeCards;
+    private List<String> communityCards;
+    private int numPlayers;
+    private int potSize;
+    private int callAmount;
+    private List<Integer> raiseAmounts;     // Optional, raises on top of the call (default 0 to 2x pot)
+    private String foldModel;               // Optional, "random" (default) or "weakest-first"
+    private double elasticity = 1.0;        // Exponent on the pot odds each opponent continues with (see FoldModel)
+    private int numTrials = 10000;
+    private Long seed;                      // Optional, makes the simulation reproducible
+
+    public List<String> getHoleCards() {
+        return holeCards;
+    }
+
+    public void setHoleCards(List<String> holeCards) {
+        this.holeCards = holeCards;
+    }
+
+    public List<String> getCommunityCards() {
+        return communityCards;
+    }
+
+    public void setCommunityCards(List<String> communityCards) {
+        this.communityCards = communityCards;
+    }
+
+    public int getNumPlayers() {
+        return numPlayers;
+    }
+
+    public void setNumPlayers(int numPlayers) {
+        this.numPlayers = numPlayers;
+    }
+
+    public int getPotSize() {
+        return potSize;
+    }
+
+    public void setPotSize(int potSize) {
+        this.potSize = potSize;
+    }
+
+    public int getCallAmount() {
+        return callAmount;
+    }
+
+    public void setCallAmount(int callAmount) {
+        this.callAmount = callAmount;
+    }
+
+    public List<Integer> getRaiseAmounts() {
+        return raiseAmounts;
+    }
+
+    public void setRaiseAmounts(List<Integer> raiseAmounts) {
+        this.raiseAmounts = raiseAmounts;
+    }
+
+    public String getFoldModel() {
+        return foldModel;
+    }
+
+    public void setFoldModel(String foldModel) {
+        this.foldModel = foldModel;
+    }
+
+    public double getElasticity() {
+        return elasticity;
+    }
+
+    public void setElasticity(double elasticity) {
+        this.elasticity = elasticity;
+    }
+
+    public int getNumTrials() {
+        return numTrials;
+    }
+
+    public void setNumTrials(int numTrials) {
+        this.numTrials = numTrials;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+}
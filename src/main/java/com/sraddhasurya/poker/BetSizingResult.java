@@ -0,0 +1,85 @@
+package com.sraddhasurya.poker;
+
+/**
+ * EV of each raise size on a grid, merged across the fork/join leaves that sampled it
+ *
+ * Every size is scored on the same trials, so the sums of each size's payoff and of its square give
+ * its EV and standard error, and differences between sizes aren't blurred by separate samples
+ */
+public class BetSizingResult {
+
+    private final int[] raiseAmounts;
+    private long trials;
+    private final double[] sumPayoff;
+    private final double[] sumSquaredPayoff;
+    private final long[] everyoneFolds;
+
+    public BetSizingResult(int[] raiseAmounts) {
+        this.raiseAmounts = raiseAmounts;
+        this.sumPayoff = new double[raiseAmounts.length];
+        this.sumSquaredPayoff = new double[raiseAmounts.length];
+        this.everyoneFolds = new long[raiseAmounts.length];
+    }
+
+    void addPayoff(int size, double payoff) {
+        sumPayoff[size] += payoff;
+        sumSquaredPayoff[size] += payoff * payoff;
+    }
+
+    void countFold(int size) {
+        everyoneFolds[size]++;
+    }
+
+    void countTrial() {
+        trials++;
+    }
+
+    void merge(BetSizingResult other) {
+        trials += other.trials;
+        for (int s = 0; s < raiseAmounts.length; s++) {
+            sumPayoff[s] += other.sumPayoff[s];
+            sumSquaredPayoff[s] += other.sumSquaredPayoff[s];
+            everyoneFolds[s] += other.everyoneFolds[s];
+        }
+    }
+
+    public int size() {
+        return raiseAmounts.length;
+    }
+
+    public long getTrials() {
+        return trials;
+    }
+
+    public int raiseAmount(int size) {
+        return raiseAmounts[size];
+    }
+
+    public double expectedValue(int size) {
+        return sumPayoff[size] / trials;
+    }
+
+    public double standardError(int size) {
+        double mean = expectedValue(size);
+        double variance = Math.max(0.0, sumSquaredPayoff[size] / trials - mean * mean);
+        return Math.sqrt(variance / trials);
+    }
+
+    /**
+     * Chance that every opponent folds to the raise
+     */
+    public double foldProbability(int size) {
+        return everyoneFolds[size] / (double) trials;
+    }
+
+    /**
+     * Grid index of the size with the highest EV, the first such size on a tie
+     */
+    public int bestSize() {
+        int best = 0;
+        for (int s = 1; s < raiseAmounts.length; s++) {
+            if (expectedValue(s) > expectedValue(best)) best = s;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,77 @@
+package com.sraddhasurya.poker;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Validates bet-sizing requests and samples them on the SimulationScheduler's pool, under its admission control
+ */
+@Service
+public class BetSizingService {
+
+    // Raises as fractions of the pot after calling, when the request names none
+    private static final double[] DEFAULT_POT_FRACTIONS = {0, 0.25, 0.5, 0.75, 1, 1.5, 2};
+    private static final int MAX_SIZES = 64;
+
+    private final SimulationScheduler scheduler;
+    private final int maxTrials;
+
+    public BetSizingService(SimulationScheduler scheduler, @Value("${poker.sizing.max-trials:1000000}") int maxTrials) {
+        this.scheduler = scheduler;
+        this.maxTrials = maxTrials;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cards, player count, amounts, sizes or fold model are invalid
+     * @throws SimulationRejectedException if the simulation queue is full
+     */
+    public BetSizingResult simulate(BetSizingRequest request) {
+        long holeCards = CardParser.parseSet(request.getHoleCards());
+        if (CardSet.size(holeCards) != 2) {
+            throw new IllegalArgumentException("Must provide exactly 2 hole cards.");
+        }
+        long communityCards = request.getCommunityCards() == null ? 0L : CardParser.parseSet(request.getCommunityCards());
+        if ((holeCards & communityCards) != 0) {
+            throw new IllegalArgumentException("Hole card repeated on the board");
+        }
+        if (request.getNumPlayers() < 2 || request.getNumPlayers() > 9) {
+            throw new IllegalArgumentException("Must have 2 to 9 players.");
+        }
+        if (request.getPotSize() < 0 || request.getCallAmount() < 0) {
+            throw new IllegalArgumentException("Pot and call can't be negative.");
+        }
+        if (request.getNumTrials() < 1 || request.getNumTrials() > maxTrials) {
+            throw new IllegalArgumentException("Trial count out of range");
+        }
+        FoldModel model = FoldModel.parse(request.getFoldModel(), request.getElasticity());
+        int[] raiseAmounts = raiseAmounts(request);
+        return scheduler.run(() -> BetSizing.simulate(holeCards, communityCards, request.getPotSize(), request.getCallAmount(),
+                raiseAmounts, request.getNumPlayers(), model, request.getNumTrials(), request.getSeed()));
+    }
+
+    private static int[] raiseAmounts(BetSizingRequest request) {
+        List<Integer> sizes = request.getRaiseAmounts();
+        if (sizes == null || sizes.isEmpty()) {
+            int pot = request.getPotSize() + request.getCallAmount();
+            int[] raiseAmounts = new int[DEFAULT_POT_FRACTIONS.length];
+            for (int s = 0; s < raiseAmounts.length; s++) {
+                raiseAmounts[s] = (int) Math.round(DEFAULT_POT_FRACTIONS[s] * pot);
+            }
+            return raiseAmounts;
+        }
+        if (sizes.size() > MAX_SIZES) {
+            throw new IllegalArgumentException("At most " + MAX_SIZES + " raise sizes.");
+        }
+        int[] raiseAmounts = new int[sizes.size()];
+        for (int s = 0; s < raiseAmounts.length; s++) {
+            Integer size = sizes.get(s);
+            if (size == null || size < 0) {
+                throw new IllegalArgumentException("Raise sizes can't be negative.");
+            }
+            raiseAmounts[s] = size;
+        }
+        return raiseAmounts;
+    }
+}
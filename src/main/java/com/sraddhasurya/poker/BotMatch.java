@@ -0,0 +1,156 @@
+package com.sraddhasurya.poker;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays bot strategies against each other across the ForkJoin pool
+ *
+ * The hands (or tournaments) are cut into fixed-size blocks, each played on its own HoldemTable with
+ * its own random stream split from the seed in block order, so a seeded match gives the same result on
+ * any number of cores. Cash hands all start from full stacks and score each seat's win or loss in big
+ * blinds; tournaments play until one seat holds every chip
+ */
+public class BotMatch {
+
+    // Cash hands and tournaments per fork/join leaf
+    static final int HANDS_PER_BLOCK = 4096;
+    static final int TOURNAMENTS_PER_BLOCK = 8;
+    // A tournament still running after this many hands goes to the biggest stacks
+    static final int MAX_TOURNAMENT_HANDS = 10_000;
+
+    /**
+     * @param bots     strategy per seat
+     * @param names    name reported per seat
+     * @param settings hand or tournament count, stacks, blinds and seed
+     */
+    public static BotMatchResult play(BotStrategy[] bots, String[] names, BotMatchRequest settings, PreflopEquityTable preflopTable) {
+        boolean tournament = settings.getTournaments() > 0;
+        long games = tournament ? settings.getTournaments() : settings.getHands();
+        int perBlock = tournament ? TOURNAMENTS_PER_BLOCK : HANDS_PER_BLOCK;
+        int blocks = (int) ((games + perBlock - 1) / perBlock);
+
+        SplittableRandom root = settings.getSeed() == null ? new SplittableRandom() : new SplittableRandom(settings.getSeed());
+        SplittableRandom[] streams = new SplittableRandom[blocks];
+        for (int b = 0; b < blocks; b++) {
+            streams[b] = root.split();
+        }
+        return new Blocks(bots, names, settings, preflopTable, games, perBlock, streams, 0, blocks).invoke();
+    }
+
+    /**
+     * Plays cash hands from full stacks, adding each seat's result in big blinds
+     */
+    static void playHands(HoldemTable table, BotMatchRequest settings, long hands, BotMatchResult result) {
+        int seats = table.getSeats();
+        table.setBlinds(settings.getSmallBlind(), settings.getBigBlind());
+        for (long h = 0; h < hands; h++) {
+            for (int s = 0; s < seats; s++) {
+                table.setStack(s, settings.getStartingStack());
+            }
+            table.playHand();
+            result.countHand();
+            for (int s = 0; s < seats; s++) {
+                result.addHand(s, (table.getStack(s) - settings.getStartingStack()) / (double) settings.getBigBlind());
+            }
+        }
+    }
+
+    /**
+     * Plays one freezeout: blinds double every blindLevelHands hands and a seat finishes in the place of
+     * the players left when it busts (seats busting in the same hand share the place)
+     *
+     * @param finish filled with each seat's place, 1 for the winner
+     */
+    static void playTournament(HoldemTable table, BotMatchRequest settings, int[] finish) {
+        int seats = table.getSeats();
+        for (int s = 0; s < seats; s++) {
+            table.setStack(s, settings.getStartingStack());
+            finish[s] = 0;
+        }
+        int left = seats;
+        int smallBlind = settings.getSmallBlind();
+        int bigBlind = settings.getBigBlind();
+        for (int hand = 0; left > 1 && hand < MAX_TOURNAMENT_HANDS; hand++) {
+            if (hand > 0 && hand % settings.getBlindLevelHands() == 0) {
+                smallBlind = (int) Math.min(2L * smallBlind, Integer.MAX_VALUE / 4);
+                bigBlind = (int) Math.min(2L * bigBlind, Integer.MAX_VALUE / 4);
+            }
+            table.setBlinds(smallBlind, bigBlind);
+            table.playHand();
+
+            int busted = 0;
+            for (int s = 0; s < seats; s++) {
+                if (finish[s] == 0 && table.getStack(s) == 0) busted++;
+            }
+            for (int s = 0; s < seats; s++) {
+                if (finish[s] == 0 && table.getStack(s) == 0) finish[s] = left - busted + 1;
+            }
+            left -= busted;
+        }
+        // Anyone still in is placed by stack
+        for (int s = 0; s < seats; s++) {
+            if (finish[s] != 0) continue;
+            int place = 1;
+            for (int o = 0; o < seats; o++) {
+                if (finish[o] == 0 && table.getStack(o) > table.getStack(s)) place++;
+            }
+            finish[s] = place;
+        }
+    }
+
+    /**
+     * Fork/join task over a range of blocks
+     */
+    private static final class Blocks extends RecursiveTask<BotMatchResult> {
+        private final BotStrategy[] bots;
+        private final String[] names;
+        private final BotMatchRequest settings;
+        private final PreflopEquityTable preflopTable;
+        private final long games;
+        private final int perBlock;
+        private final SplittableRandom[] streams;
+        private final int from;
+        private final int to;
+
+        Blocks(BotStrategy[] bots, String[] names, BotMatchRequest settings, PreflopEquityTable preflopTable,
+                long games, int perBlock, SplittableRandom[] streams, int from, int to) {
+            this.bots = bots;
+            this.names = names;
+            this.settings = settings;
+            this.preflopTable = preflopTable;
+            this.games = games;
+            this.perBlock = perBlock;
+            this.streams = streams;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BotMatchResult compute() {
+            if (to - from == 1) {
+                BotMatchResult result = new BotMatchResult(names);
+                HoldemTable table = new HoldemTable(bots, preflopTable, streams[from]);
+                long count = Math.min(perBlock, games - (long) from * perBlock);
+                if (settings.getTournaments() > 0) {
+                    int[] finish = new int[bots.length];
+                    for (long t = 0; t < count; t++) {
+                        playTournament(table, settings, finish);
+                        result.addTournament(finish);
+                    }
+                } else {
+                    playHands(table, settings, count, result);
+                }
+                return result;
+            }
+
+            int mid = (from + to) >>> 1;
+            Blocks left = new Blocks(bots, names, settings, preflopTable, games, perBlock, streams, from, mid);
+            Blocks right = new Blocks(bots, names, settings, preflopTable, games, perBlock, streams, mid, to);
+            left.fork();
+            BotMatchResult result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.sraddhasurya.poker;
+
+import java.util.List;
+
+/**
+ * Request body of /bots/match: which bots sit at the table and how long they play
+ */
+public class BotMatchRequest {
+    private List<String> bots;          // Strategy name per seat, 2 to 9 seats (see Bots)
+    private long hands = 100_000;       // Cash game hands, each starting from full stacks
+    private int tournaments;            // Optional, play this many freezeouts instead of cash hands
+    private int startingStack = 2000;
+    private int smallBlind = 10;
+    private int bigBlind = 20;
+    private int blindLevelHands = 50;   // Tournament blinds double after this many hands
+    private Long seed;                  // Optional, makes the match reproducible
+
+    public List<String> getBots() {
+        return bots;
+    }
+
+    public void setBots(List<String> bots) {
+        this.bots = bots;
+    }
+
+    public long getHands() {
+        return hands;
+    }
+
+    public void setHands(long hands) {
+        this.hands = hands;
+    }
+
+    public int getTournaments() {
+        return tournaments;
+    }
+
+    public void setTournaments(int tournaments) {
+        this.tournaments = tournaments;
+    }
+
+    public int getStartingStack() {
+        return startingStack;
+    }
+
+    public void setStartingStack(int startingStack) {
+        this.startingStack = startingStack;
+    }
+
+    public int getSmallBlind() {
+        return smallBlind;
+    }
+
+    public void setSmallBlind(int smallBlind) {
+        this.smallBlind = smallBlind;
+    }
+
+    public int getBigBlind() {
+        return bigBlind;
+    }
+
+    public void setBigBlind(int bigBlind) {
+        this.bigBlind = bigBlind;
+    }
+
+    public int getBlindLevelHands() {
+        return blindLevelHands;
+    }
+
+    public void setBlindLevelHands(int blindLevelHands) {
+        this.blindLevelHands = blindLevelHands;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+}
@@ -0,0 +1,111 @@
+package com.sraddhasurya.poker;
+
+/**
+ * Per-seat totals of a bot match, merged across the fork/join leaves that played it
+ *
+ * Cash hands are kept as sums of each hand's result in big blinds and of its square, so bb/100 and
+ * its confidence interval come out of the totals; tournaments count wins and finishing places
+ */
+public class BotMatchResult {
+
+    // Two-sided 95% normal quantile
+    private static final double Z95 = 1.959964;
+
+    private final String[] bots;
+    private long hands;
+    private final double[] sumBigBlinds;
+    private final double[] sumSquaredBigBlinds;
+    private long tournaments;
+    private final long[] wins;
+    private final long[] sumFinish;
+
+    public BotMatchResult(String[] bots) {
+        this.bots = bots;
+        this.sumBigBlinds = new double[bots.length];
+        this.sumSquaredBigBlinds = new double[bots.length];
+        this.wins = new long[bots.length];
+        this.sumFinish = new long[bots.length];
+    }
+
+    void addHand(int seat, double bigBlinds) {
+        sumBigBlinds[seat] += bigBlinds;
+        sumSquaredBigBlinds[seat] += bigBlinds * bigBlinds;
+    }
+
+    void countHand() {
+        hands++;
+    }
+
+    void addTournament(int[] finish) {
+        tournaments++;
+        for (int s = 0; s < finish.length; s++) {
+            sumFinish[s] += finish[s];
+            if (finish[s] == 1) wins[s]++;
+        }
+    }
+
+    void merge(BotMatchResult other) {
+        hands += other.hands;
+        tournaments += other.tournaments;
+        for (int s = 0; s < bots.length; s++) {
+            sumBigBlinds[s] += other.sumBigBlinds[s];
+            sumSquaredBigBlinds[s] += other.sumSquaredBigBlinds[s];
+            wins[s] += other.wins[s];
+            sumFinish[s] += other.sumFinish[s];
+        }
+    }
+
+    public int getSeats() {
+        return bots.length;
+    }
+
+    public String getBot(int seat) {
+        return bots[seat];
+    }
+
+    public long getHands() {
+        return hands;
+    }
+
+    public long getTournaments() {
+        return tournaments;
+    }
+
+    /**
+     * Average big blinds won per 100 hands
+     */
+    public double bigBlindsPer100(int seat) {
+        return hands == 0 ? 0 : 100 * sumBigBlinds[seat] / hands;
+    }
+
+    /**
+     * Half width of the 95% confidence interval of bigBlindsPer100
+     */
+    public double bigBlindsPer100Margin(int seat) {
+        if (hands < 2) return Double.NaN;
+        double mean = sumBigBlinds[seat] / hands;
+        double variance = (sumSquaredBigBlinds[seat] - hands * mean * mean) / (hands - 1);
+        return 100 * Z95 * Math.sqrt(Math.max(variance, 0) / hands);
+    }
+
+    public long getWins(int seat) {
+        return wins[seat];
+    }
+
+    public double winRate(int seat) {
+        return tournaments == 0 ? 0 : wins[seat] / (double) tournaments;
+    }
+
+    /**
+     * Half width of the 95% confidence interval of winRate (normal approximation)
+     */
+    public double winRateMargin(int seat) {
+        if (tournaments == 0) return Double.NaN;
+        double p = winRate(seat);
+        return Z95 * Math.sqrt(p * (1 - p) / tournaments);
+    }
+
+    public double averageFinish(int seat) {
+        return tournaments == 0 ? 0 : sumFinish[seat] / (double) tournaments;
+    }
+}
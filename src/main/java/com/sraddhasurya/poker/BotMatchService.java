@@ -0,0 +1,54 @@
+package com.sraddhasurya.poker;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Validates bot matches and plays them on the SimulationScheduler's pool, under its admission control
+ */
+@Service
+public class BotMatchService {
+
+    private final PreflopEquityTable preflopTable;
+    private final SimulationScheduler scheduler;
+    private final long maxHands;
+    private final int maxTournaments;
+
+    public BotMatchService(PreflopEquityTable preflopTable, SimulationScheduler scheduler,
+            @Value("${poker.bots.max-hands:10000000}") long maxHands,
+            @Value("${poker.bots.max-tournaments:100000}") int maxTournaments) {
+        this.preflopTable = preflopTable;
+        this.scheduler = scheduler;
+        this.maxHands = maxHands;
+        this.maxTournaments = maxTournaments;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a bot is unknown, there aren't 2 to 9 bots, or an amount is out of range
+     * @throws SimulationRejectedException if the simulation queue is full
+     */
+    public BotMatchResult play(BotMatchRequest request) {
+        List<String> names = request.getBots();
+        if (names == null || names.size() < 2 || names.size() > 9) {
+            throw new IllegalArgumentException("Must provide 2 to 9 bots.");
+        }
+        if (request.getTournaments() < 0 || request.getTournaments() > maxTournaments
+                || (request.getTournaments() == 0 && (request.getHands() < 1 || request.getHands() > maxHands))) {
+            throw new IllegalArgumentException("Hand or tournament count out of range");
+        }
+        if (request.getSmallBlind() < 0 || request.getBigBlind() < 1 || request.getSmallBlind() > request.getBigBlind()
+                || request.getStartingStack() < request.getBigBlind() || request.getStartingStack() > 100_000_000
+                || request.getBlindLevelHands() < 1) {
+            throw new IllegalArgumentException("Invalid stacks or blinds");
+        }
+
+        BotStrategy[] bots = new BotStrategy[names.size()];
+        for (int s = 0; s < bots.length; s++) {
+            bots[s] = Bots.create(names.get(s), preflopTable);
+        }
+        String[] seatNames = names.toArray(new String[0]);
+        return scheduler.run(() -> BotMatch.play(bots, seatNames, request, preflopTable));
+    }
+}
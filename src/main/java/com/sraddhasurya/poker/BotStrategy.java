@@ -0,0 +1,24 @@
+package com.sraddhasurya.poker;
+
+/**
+ * A bot's betting decisions in HoldemTable hands
+ *
+ * One instance may be shared by many tables playing on different threads, so implementations keep no
+ * per-hand state of their own and draw any randomness from HoldemTable.random()
+ */
+@FunctionalInterface
+public interface BotStrategy {
+
+    int FOLD = -1;
+    int CALL = 0;
+
+    /**
+     * Picks the action of the seat to act
+     *
+     * A strategy should only look at its own hole cards. Folding when there is nothing to call is taken
+     * as a check, and a raise smaller than the minimum raise is raised to the minimum
+     *
+     * @return FOLD, CALL (check or call), or the amount to raise by on top of the call
+     */
+    int act(HoldemTable table, int seat);
+}
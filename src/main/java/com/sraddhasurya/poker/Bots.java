@@ -0,0 +1,82 @@
+package com.sraddhasurya.poker;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * The built-in bot strategies, by name
+ *
+ * "random" plays like the bots in PokerGame.js, "calling" checks and calls everything, and "equity"
+ * raises strong starting hands by their preflop equity and bets made hands after the flop
+ */
+public final class Bots {
+
+    private static final Map<String, Function<PreflopEquityTable, BotStrategy>> STRATEGIES = new LinkedHashMap<>();
+
+    static {
+        STRATEGIES.put("random", table -> Bots::randomAction);
+        STRATEGIES.put("calling", table -> (t, seat) -> BotStrategy.CALL);
+        STRATEGIES.put("equity", table -> Bots::equityAction);
+    }
+
+    private Bots() {
+    }
+
+    public static Set<String> names() {
+        return Collections.unmodifiableSet(STRATEGIES.keySet());
+    }
+
+    /**
+     * @throws IllegalArgumentException if no strategy has this name
+     */
+    public static BotStrategy create(String name, PreflopEquityTable preflopTable) {
+        Function<PreflopEquityTable, BotStrategy> factory = STRATEGIES.get(name);
+        if (factory == null) {
+            throw new IllegalArgumentException("Unknown bot: " + name);
+        }
+        return factory.apply(preflopTable);
+    }
+
+    /**
+     * PokerGame.js's bot: folds 5% of the time, otherwise calls 70% of the time and raises 1 to 3 big blinds
+     */
+    static int randomAction(HoldemTable table, int seat) {
+        SplittableRandom random = table.random();
+        if (random.nextDouble() < 0.05) {
+            return BotStrategy.FOLD;
+        }
+        if (random.nextDouble() < 0.7 || table.getToCall(seat) >= table.getStack(seat)) {
+            return BotStrategy.CALL;
+        }
+        return table.getBigBlind() * (1 + random.nextInt(3));
+    }
+
+    /**
+     * Preflop: raises three big blinds with more than 1.5 times a fair share of equity and calls while
+     * the equity beats the pot odds. After the flop: bets half the pot with two pair or better, calls
+     * small bets with a pair, and otherwise checks or folds
+     */
+    static int equityAction(HoldemTable table, int seat) {
+        int toCall = table.getToCall(seat);
+        double potOdds = toCall / (double) (table.getPot() + toCall);
+        long hole = table.getHoleCards(seat);
+        int players = table.getLivePlayers();
+
+        if (table.getStreet() == HoldemTable.PREFLOP) {
+            double equity = table.getPreflopTable().winProbability(hole, players);
+            if (equity > 1.5 / players) {
+                return 3 * table.getBigBlind();
+            }
+            return equity >= potOdds ? BotStrategy.CALL : BotStrategy.FOLD;
+        }
+
+        int category = SevenCardEvaluator.category(new Showdown(table.getBoard()).rank(hole));
+        if (category >= SevenCardEvaluator.TWO_PAIR) {
+            return Math.max(table.getBigBlind(), table.getPot() / 2);
+        }
+        if (category == SevenCardEvaluator.ONE_PAIR && potOdds < 0.35) {
+            return BotStrategy.CALL;
+        }
+        return toCall == 0 ? BotStrategy.CALL : BotStrategy.FOLD;
+    }
+}
@@ -1,21 +1,49 @@
 package com.sraddhasurya.poker;
 
 /*
- * Defines a playing card with a suit and numerical value
+ * Defines a playing card with a suit and numerical value. The 52 cards are interned: Card.of and
+ * fromIndex (and so CardParser) hand out one canonical immutable instance per card
  */
 
-public class Card {
+public final class Card {
+    // Suit order used by the 0..51 card index (suit * 13 + number - 2)
+    static final String[] SUITS = {"hearts", "diamonds", "clubs", "spades"};
+    // The canonical instances, by card index
+    private static final Card[] DECK = new Card[CardSet.DECK_SIZE];
+
+    static {
+        for (int index = 0; index < DECK.length; index++) {
+            DECK[index] = new Card(SUITS[CardSet.suit(index)], CardSet.rank(index));
+        }
+    }
+
     private final String suit;
     private final int number;
+    private final int index;
 
     public Card(String suit, int number) {
         /**
          * Constructs a Card with the specificed suit and number
          */
-        this.suit = suit.toLowerCase();
+        this.index = index(suit, number);
+        this.suit = SUITS[CardSet.suit(index)];
         this.number = number;
     }
 
+    public static Card of(String suit, int number) {
+        /**
+         * Returns the canonical Card with the specified suit and number
+         */
+        return DECK[index(suit, number)];
+    }
+
+    public static Card fromIndex(int index) {
+        /**
+         * Returns the canonical Card for a 0..51 card index
+         */
+        return DECK[index];
+    }
+
     public String getSuit() {
         return suit;
     }
@@ -24,6 +52,10 @@ public class Card {
         return number;
     }
 
+    public int getIndex() {
+        return index;
+    }
+
     public boolean isPair(Card other) {
         /**
          * Checks if this card forms a pair with another card (same number)
@@ -41,11 +73,37 @@ public class Card {
          * @param other: other card to compare
          * @return true if bpth cards have the same suit and number 
          */
-        return this.number == other.number && this.suit.equals(other.suit);
+        return this.index == other.index;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Card card && card.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return index;
     }
 
     @Override
     public String toString() {
         return number + " of " + suit;
     }
+
+    private static int index(String suit, int number) {
+        if (number < 2 || number > 14)
+            throw new IllegalArgumentException("Invalid card number: " + number);
+        return CardSet.card(suitIndex(suit.toLowerCase()), number);
+    }
+
+    private static int suitIndex(String suit) {
+        return switch (suit) {
+            case "hearts" -> 0;
+            case "diamonds" -> 1;
+            case "clubs" -> 2;
+            case "spades" -> 3;
+            default -> throw new IllegalArgumentException("Unknown suit: " + suit);
+        };
+    }
 }
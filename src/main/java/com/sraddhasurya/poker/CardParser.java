@@ -3,41 +3,49 @@ import java.util.*;
 
 public class CardParser {
     /**
-     * Utility class for converting the shorthand card codes into Card objects 
+     * Utility class for converting the shorthand card codes into Card objects. Codes are read char by
+     * char through lookup tables into the card index, and Cards come from the interned deck, so
+     * parsing allocates nothing
      */
 
- 
-    public static Card parse(String code) {
+    // Number of a rank char and 1 + suit index of a suit char (either case), 0 if not one
+    private static final byte[] NUMBERS = new byte[128];
+    private static final byte[] SUITS = new byte[128];
+    // Card code of each card index
+    private static final String[] CODES = new String[CardSet.DECK_SIZE];
+
+    static {
+        for (char c = '2'; c <= '9'; c++) {
+            NUMBERS[c] = (byte) (c - '0');
+        }
+        String faces = "JQKA";
+        String suits = "HDCS";
+        for (int i = 0; i < 4; i++) {
+            NUMBERS[faces.charAt(i)] = NUMBERS[Character.toLowerCase(faces.charAt(i))] = (byte) (11 + i);
+            SUITS[suits.charAt(i)] = SUITS[Character.toLowerCase(suits.charAt(i))] = (byte) (i + 1);
+        }
+        for (int card = 0; card < CODES.length; card++) {
+            int number = CardSet.rank(card);
+            String rank = switch (number) {
+                case 11 -> "J";
+                case 12 -> "Q";
+                case 13 -> "K";
+                case 14 -> "A";
+                default -> Integer.toString(number);
+            };
+            CODES[card] = rank + suits.charAt(CardSet.suit(card));
+        }
+    }
+
+    public static Card parse(CharSequence code) {
         /**
-         * Converts a single card code into a Card object
+         * Converts a single card code into its Card
          * 
          * @param code: a string representing the card (e.x. "AH")
-         * @return the converted Card object
-         * @throws IllegalArguemnetException if the input is invalid or unrecognized
+         * @return the canonical Card object
+         * @throws IllegalArgumentException if the input is invalid or unrecognized
          */
-        if (code.length() < 2 || code.length() > 3)
-            throw new IllegalArgumentException("Invalid card code: " + code);
-
-        String rankStr = code.substring(0, code.length() - 1);
-        String suitChar = code.substring(code.length() - 1).toUpperCase();
-
-        int rank = switch (rankStr.toUpperCase()) {
-            case "J" -> 11;
-            case "Q" -> 12;
-            case "K" -> 13;
-            case "A" -> 14;
-            default -> Integer.parseInt(rankStr);
-        };
-
-        String suit = switch (suitChar) {
-            case "H" -> "hearts";
-            case "D" -> "diamonds";
-            case "C" -> "clubs";
-            case "S" -> "spades";
-            default -> throw new IllegalArgumentException("Unknown suit: " + suitChar);
-        };
-
-        return new Card(suit, rank);
+        return Card.fromIndex(parseIndex(code));
     }
 
     public static List<Card> parseList(List<String> codes) {
@@ -47,11 +55,87 @@ public class CardParser {
          * @param codes: list of card codes
          * @return result: a list of corresponding Card objects 
          */
-        List<Card> result = new ArrayList<>();
+        List<Card> result = new ArrayList<>(codes.size());
         for (String code : codes) {
             result.add(parse(code));
         }
         return result;
     }
-}
 
+    public static int parseInto(List<? extends CharSequence> codes, Card[] cards, int offset) {
+        /*
+         * Converts card codes into a caller-supplied array, so a hot path can reuse one array per request
+         * 
+         * @param codes: list of card codes
+         * @param cards: array filled from offset with the parsed Cards
+         * @return the number of cards written
+         * @throws IllegalArgumentException if a code is invalid or the codes don't fit from offset
+         */
+        int count = codes.size();
+        if (offset < 0 || count > cards.length - offset)
+            throw new IllegalArgumentException(count + " cards don't fit at offset " + offset);
+        for (int i = 0; i < count; i++) {
+            cards[offset + i] = parse(codes.get(i));
+        }
+        return count;
+    }
+
+    public static int parseIndex(CharSequence code) {
+        /**
+         * Converts a single card code into its 0..51 card index: a number 2-10 or J, Q, K, A followed by
+         * H, D, C or S, in either case
+         */
+        int length = code.length();
+        int number = 0;
+        if (length == 2) {
+            number = lookup(NUMBERS, code.charAt(0));
+        } else if (length == 3 && code.charAt(0) == '1' && code.charAt(1) == '0') {
+            number = 10;
+        }
+        int suit = length >= 2 ? lookup(SUITS, code.charAt(length - 1)) : 0;
+        if (number == 0 || suit == 0)
+            throw new IllegalArgumentException("Invalid card code: " + code);
+        return CardSet.card(suit - 1, number);
+    }
+
+    private static int lookup(byte[] table, char c) {
+        return c < table.length ? table[c] : 0;
+    }
+
+    public static long parseSet(List<String> codes) {
+        /*
+         * Converts card codes into a CardSet bitmask
+         * 
+         * @param codes: list of card codes
+         * @return set of the parsed cards
+         * @throws IllegalArgumentException if a code is invalid or the same card appears twice
+         */
+        long set = 0L;
+        for (String code : codes) {
+            long bit = CardSet.bit(parseIndex(code));
+            if ((set & bit) != 0) {
+                throw new IllegalArgumentException("Duplicate card: " + code);
+            }
+            set |= bit;
+        }
+        return set;
+    }
+
+    public static String format(int card) {
+        /**
+         * Converts a 0..51 card index back into its card code (e.x. "10H", "AS")
+         */
+        return CODES[card];
+    }
+
+    public static List<String> formatSet(long cards) {
+        /*
+         * Converts a CardSet bitmask into card codes, in card index order
+         */
+        List<String> codes = new ArrayList<>(CardSet.size(cards));
+        for (; cards != 0; cards &= cards - 1) {
+            codes.add(format(CardSet.first(cards)));
+        }
+        return codes;
+    }
+}
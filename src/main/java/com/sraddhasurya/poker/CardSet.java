@@ -0,0 +1,121 @@
+package com.sraddhasurya.poker;
+
+import java.util.*;
+
+/**
+ * Primitive card model: a card is an int 0..51 (suit * 13 + number - 2) and a set of cards is a long
+ * with one bit per card, so each suit is a 13-bit rank mask and counting is a popcount
+ */
+public final class CardSet {
+
+    public static final int DECK_SIZE = 52;
+    public static final long FULL_DECK = (1L << DECK_SIZE) - 1;
+
+    private static final long SUIT_MASK = 0x1FFFL;
+    // Bits of all four suits for each rank index (0 = deuce ... 12 = ace)
+    private static final long[] RANK_COLUMNS = new long[13];
+
+    static {
+        for (int r = 0; r < 13; r++) {
+            RANK_COLUMNS[r] = (1L << r) | (1L << (r + 13)) | (1L << (r + 26)) | (1L << (r + 39));
+        }
+    }
+
+    private CardSet() {
+    }
+
+    /**
+     * Returns the card index for a suit (0 = hearts, 1 = diamonds, 2 = clubs, 3 = spades) and number (2..14)
+     */
+    public static int card(int suit, int number) {
+        return suit * 13 + number - 2;
+    }
+
+    public static int suit(int card) {
+        return card / 13;
+    }
+
+    public static int rank(int card) {
+        return card % 13 + 2;
+    }
+
+    public static long bit(int card) {
+        return 1L << card;
+    }
+
+    public static long of(int... cards) {
+        long set = 0L;
+        for (int card : cards) {
+            set |= bit(card);
+        }
+        return set;
+    }
+
+    public static long of(List<Card> cards) {
+        long set = 0L;
+        for (Card card : cards) {
+            set |= bit(card.getIndex());
+        }
+        return set;
+    }
+
+    public static int size(long set) {
+        return Long.bitCount(set);
+    }
+
+    public static boolean contains(long set, int card) {
+        return (set & bit(card)) != 0;
+    }
+
+    /**
+     * Number of cards of the given suit (0..3) in the set
+     */
+    public static int suitCount(long set, int suit) {
+        return Long.bitCount(set & (SUIT_MASK << (13 * suit)));
+    }
+
+    /**
+     * Number of cards of the given number (2..14) in the set
+     */
+    public static int rankCount(long set, int number) {
+        return Long.bitCount(set & RANK_COLUMNS[number - 2]);
+    }
+
+    /**
+     * 13-bit mask of the ranks held in one suit, bit 0 = deuce
+     */
+    public static int suitMask(long set, int suit) {
+        return (int) ((set >>> (13 * suit)) & SUIT_MASK);
+    }
+
+    /**
+     * 13-bit mask of every rank present in the set, bit 0 = deuce
+     */
+    public static int rankMask(long set) {
+        return suitMask(set, 0) | suitMask(set, 1) | suitMask(set, 2) | suitMask(set, 3);
+    }
+
+    /**
+     * Lowest card index in a non-empty set
+     */
+    public static int first(long set) {
+        return Long.numberOfTrailingZeros(set);
+    }
+
+    public static int[] toArray(long set) {
+        int[] cards = new int[size(set)];
+        int i = 0;
+        for (long rest = set; rest != 0; rest &= rest - 1) {
+            cards[i++] = first(rest);
+        }
+        return cards;
+    }
+
+    public static List<Card> toCards(long set) {
+        List<Card> cards = new ArrayList<>(size(set));
+        for (long rest = set; rest != 0; rest &= rest - 1) {
+            cards.add(Card.fromIndex(first(rest)));
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,100 @@
+package com.sraddhasurya.poker;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Deck of primitive card indexes holding every card not in a dead set
+ *
+ * The deck is meant to be reused: draw() moves each drawn card behind the live part of the array, so
+ * reset() puts every card back without touching the array and a simulation can keep one deck per worker
+ */
+public class Deck {
+    private final int[] cards = new int[CardSet.DECK_SIZE];
+    private final int[] position = new int[CardSet.DECK_SIZE];     // Where each card sits in cards
+    private final int liveCards;
+    private int size;
+
+    /**
+     * Builds a deck without the dead cards (e.g. hole cards and board)
+     *
+     * @param dead: set of cards already in use
+     */
+    public Deck(long dead) {
+        int count = 0;
+        for (int card = 0; card < CardSet.DECK_SIZE; card++) {
+            if (!CardSet.contains(dead, card)) {
+                position[card] = count;
+                cards[count++] = card;
+            }
+        }
+        this.liveCards = count;
+        this.size = count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns every drawn or dealt card to the deck
+     */
+    public void reset() {
+        size = liveCards;
+    }
+
+    /**
+     * Fisher-Yates shuffle of the cards still in the deck
+     */
+    public void shuffle(RandomGenerator random) {
+        for (int i = size - 1; i > 0; i--) {
+            swap(i, random.nextInt(i + 1));
+        }
+    }
+
+    /**
+     * Removes and returns the top card
+     * @throws IllegalStateException if the deck is empty
+     */
+    public int deal() {
+        if (size == 0) {
+            throw new IllegalStateException("Deck is empty.");
+        }
+        return cards[--size];
+    }
+
+    /**
+     * Removes and returns a uniformly random card, one step of a partial Fisher-Yates shuffle,
+     * so only the cards actually needed get drawn
+     * @throws IllegalStateException if the deck is empty
+     */
+    public int draw(RandomGenerator random) {
+        if (size == 0) {
+            throw new IllegalStateException("Deck is empty.");
+        }
+        int j = random.nextInt(size);
+        int card = cards[j];
+        swap(j, --size);
+        return card;
+    }
+
+    /**
+     * Takes a specific card out of the deck, e.g. one dealt to a player from a hand range
+     * @throws IllegalStateException if the card isn't in the deck
+     */
+    public void remove(int card) {
+        int j = position[card];
+        if (j >= size || cards[j] != card) {
+            throw new IllegalStateException("Card not in deck: " + card);
+        }
+        swap(j, --size);
+    }
+
+    private void swap(int i, int j) {
+        int a = cards[i];
+        int b = cards[j];
+        cards[i] = b;
+        cards[j] = a;
+        position[b] = i;
+        position[a] = j;
+    }
+}
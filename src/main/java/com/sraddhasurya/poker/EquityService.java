@@ -0,0 +1,345 @@
+package com.sraddhasurya.poker;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Computes the hand category chances and EV of a spot, behind a cache keyed by suit-isomorphic spot
+ *
+ * Spots are canonicalized with SuitIsomorphism before lookup and computed on the canonical cards, so
+ * relabeled copies of a spot share one entry and seeded results don't depend on which copy came first.
+ * Bet amounts only change the EV, so they are left out of the key and applied to the cached result.
+ * Misses are computed on the SimulationScheduler's pool under a deadline; a result cut short by its
+ * deadline is returned but not cached
+ */
+@Service
+public class EquityService {
+
+    private final PreflopEquityTable preflopTable;
+    private final SimulationScheduler scheduler;
+    private final PokerMetrics metrics;
+    private final long maxExactCombinations;
+    private final Duration defaultDeadline;
+    private final AsyncCache<SpotKey, SpotResult> cache;
+
+    // Everything except bet amounts that changes the computed numbers
+    private record SpotKey(long holeCards, long communityCards, int numPlayers, List<String> opponentRanges, Long seed, Sampling sampling, Double targetStandardError, Long timeBudgetMillis) {
+    }
+
+    public EquityService(PreflopEquityTable preflopTable, SimulationScheduler scheduler, PokerMetrics metrics,
+            @Value("${poker.exact.max-combinations:" + PokerEVSimulator.DEFAULT_MAX_EXACT_COMBINATIONS + "}") long maxExactCombinations,
+            @Value("${poker.scheduler.deadline:5s}") Duration defaultDeadline,
+            @Value("${poker.cache.max-size:10000}") long cacheSize,
+            @Value("${poker.cache.ttl:10m}") Duration cacheTtl) {
+        this.preflopTable = preflopTable;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.maxExactCombinations = maxExactCombinations;
+        this.defaultDeadline = defaultDeadline;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .buildAsync();
+        metrics.monitorCache(cache.synchronous(), "spots");
+    }
+
+    /**
+     * Parses and validates a request's cards, then calculates the spot
+     *
+     * @throws IllegalArgumentException if the cards are invalid, repeated, there aren't 2 hole cards, the
+     *                                  board has more than 5 cards, or the player count can't be dealt
+     * @throws SimulationRejectedException if the spot needs computing and the simulation queue is full
+     */
+    public SpotResult calculate(PokerRequest request) {
+        return calculate(request, null);
+    }
+
+    /**
+     * Like calculate(PokerRequest), reporting running estimates to the listener while a Monte Carlo
+     * simulation runs. A cached spot is answered at once; a cancelled simulation's estimate isn't cached
+     *
+     * @param listener gets progress and is polled for cancellation, or null
+     */
+    public SpotResult calculate(PokerRequest request, SimulationListener listener) {
+        return calculate(request, listener, false);
+    }
+
+    /**
+     * Like calculate(PokerRequest), but waits for room in the simulation queue instead of being rejected
+     */
+    public SpotResult calculateWhenQueued(PokerRequest request) {
+        return calculate(request, null, true);
+    }
+
+    private SpotResult calculate(PokerRequest request, SimulationListener listener, boolean waitForQueue) {
+        long holeCards = parseHoleCards(request);
+        long communityCards = parseCommunityCards(request, holeCards);
+        return calculate(holeCards, communityCards, request, listener, waitForQueue);
+    }
+
+    /**
+     * Win, tie and EV at every table size from heads-up to the request's player count, e.g. to see how
+     * a hand fares as players fold. Preflop spots without ranges come from the precomputed table;
+     * otherwise one simulation deals the largest table and scores the smaller ones nested inside it,
+     * apart from tables too small to seat every ranged opponent (PokerEVSimulator.simulateEVByTableSize).
+     * The simulation stops at the request's deadline, time budget or target error like a /probabilities
+     * one, and returns its estimates so far. Not cached
+     *
+     * @throws IllegalArgumentException if the cards are invalid or the player count can't be dealt
+     * @throws SimulationRejectedException if the simulation queue is full
+     */
+    public TableSizesResult calculateTableSizes(PokerRequest request) {
+        // The deadline runs from arrival, so time spent queued counts against it
+        long deadline = System.nanoTime() + (request.getDeadlineMillis() != null
+                ? request.getDeadlineMillis() * 1_000_000L : defaultDeadline.toNanos());
+        long holeCards = parseHoleCards(request);
+        long communityCards = parseCommunityCards(request, holeCards);
+        int maxPlayers = request.getNumPlayers();
+        checkSpot(holeCards, communityCards, maxPlayers);
+        HandRange[] ranges = parseRanges(request.getOpponentRanges());
+
+        if (communityCards == 0 && ranges == null && preflopTable.covers(maxPlayers)) {
+            PokerEVResult[] results = new PokerEVResult[maxPlayers - 1];
+            for (int players = 2; players <= maxPlayers; players++) {
+                results[players - 2] = preflopTable.lookup(holeCards, players, request.getPotSize(), request.getCallAmount(), request.getRaiseAmount());
+            }
+            return new TableSizesResult(results, false);
+        }
+        return scheduler.run(() -> {
+            long start = System.nanoTime();
+            SimulationOptions options = new SimulationOptions(10000);
+            options.setSeed(request.getSeed());
+            options.setMaxExactCombinations(maxExactCombinations);
+            options.setTargetStandardError(request.getTargetStandardError());
+            options.setTimeBudgetMillis(request.getTimeBudgetMillis());
+            options.setDeadlineNanos(deadline);
+            options.setOpponentRanges(ranges);
+            PokerEVResult[] results = PokerEVSimulator.simulateEVByTableSize(holeCards, communityCards,
+                    request.getPotSize(), request.getCallAmount(), request.getRaiseAmount(), maxPlayers, options);
+            PokerEVResult largest = results[maxPlayers - 2];
+            boolean deadlineExceeded = largest.getMode().equals(PokerEVResult.MONTE_CARLO) && System.nanoTime() >= deadline;
+            if (deadlineExceeded) {
+                scheduler.recordDeadlineExceeded();
+            }
+            metrics.recordSimulation(holeCards, communityCards, maxPlayers, largest, System.nanoTime() - start);
+            return new TableSizesResult(results, deadlineExceeded);
+        });
+    }
+
+    private static long parseHoleCards(PokerRequest request) {
+        long holeCards = CardParser.parseSet(request.getHoleCards());
+        if (CardSet.size(holeCards) != 2) {
+            throw new IllegalArgumentException("Must provide exactly 2 hole cards.");
+        }
+        return holeCards;
+    }
+
+    private static long parseCommunityCards(PokerRequest request, long holeCards) {
+        long communityCards = request.getCommunityCards() == null ? 0L : CardParser.parseSet(request.getCommunityCards());
+        if ((holeCards & communityCards) != 0) {
+            throw new IllegalArgumentException("Hole card repeated on the board");
+        }
+        return communityCards;
+    }
+
+    /**
+     * Checks there are 2 hole cards, the board has at most 5 cards (a partly entered flop is simulated
+     * like any other board) and the deck can seat every player after the runout
+     */
+    static void checkSpot(long holeCards, long communityCards, int numPlayers) {
+        if (CardSet.size(holeCards) != 2) {
+            throw new IllegalArgumentException("Must provide exactly 2 hole cards.");
+        }
+        int boardSize = CardSet.size(communityCards);
+        if (boardSize > 5) {
+            throw new IllegalArgumentException("Board can't have more than 5 cards.");
+        }
+        int maxPlayers = (CardSet.DECK_SIZE - CardSet.size(holeCards) - 5) / 2 + 1;
+        if (numPlayers < 2 || numPlayers > maxPlayers) {
+            throw new IllegalArgumentException("Must have 2 to " + maxPlayers + " players.");
+        }
+    }
+
+    /**
+     * Returns the category chances and EV for a spot, from the cache when an isomorphic spot was seen.
+     * Concurrent requests for the same spot wait on a single computation
+     *
+     * @param holeCards      card set of the player's two hole cards
+     * @param communityCards card set of the current community cards
+     * @param request        player count, bet amounts and simulation settings
+     * @throws IllegalArgumentException if there aren't 2 hole cards, the board has more than 5 cards, or
+     *                                  the player count can't be dealt
+     */
+    public SpotResult calculate(long holeCards, long communityCards, PokerRequest request) {
+        return calculate(holeCards, communityCards, request, null, false);
+    }
+
+    private SpotResult calculate(long holeCards, long communityCards, PokerRequest request, SimulationListener listener, boolean waitForQueue) {
+        checkSpot(holeCards, communityCards, request.getNumPlayers());
+        // The deadline runs from arrival, so time spent queued counts against it
+        long start = System.nanoTime();
+        long deadline = start + (request.getDeadlineMillis() != null
+                ? request.getDeadlineMillis() * 1_000_000L : defaultDeadline.toNanos());
+        HandRange[] ranges = parseRanges(request.getOpponentRanges());
+        Sampling sampling = Sampling.parse(request.getSampling());
+        // Ranges naming exact suits are only the same spot under the identity relabeling
+        int permutation = ranges != null && !Arrays.stream(ranges).allMatch(r -> r == null || r.isSuitSymmetric())
+                ? SuitIsomorphism.IDENTITY
+                : SuitIsomorphism.canonicalPermutation(holeCards, communityCards);
+        long hole = SuitIsomorphism.permute(holeCards, permutation);
+        long board = SuitIsomorphism.permute(communityCards, permutation);
+        HandRange[] canonicalRanges = permuteRanges(ranges, permutation);
+        SpotKey key = new SpotKey(hole, board, request.getNumPlayers(), ranges == null ? null : new ArrayList<>(request.getOpponentRanges()), request.getSeed(),
+                sampling, request.getTargetStandardError(), request.getTimeBudgetMillis());
+
+        SpotResult cached;
+        boolean computed = false;
+        if (listener == null) {
+            // The entry is a future completed outside the cache, so no map lock is held while the
+            // simulation runs; concurrent requests for the spot wait on the same future
+            do {
+                CompletableFuture<SpotResult> pending = new CompletableFuture<>();
+                CompletableFuture<SpotResult> future = cache.get(key, (k, executor) -> pending);
+                if (future == pending) {
+                    computed = true;
+                    try {
+                        pending.complete(schedule(hole, board, canonicalRanges, sampling, request, null, deadline, waitForQueue));
+                    } catch (RuntimeException e) {
+                        // A null result leaves the cache quietly, where a failed future is logged as a
+                        // failed load; the error goes to this caller and the waiters look the spot up again
+                        pending.complete(null);
+                        throw e;
+                    }
+                }
+                cached = await(future);
+                if (cached != null && cached.isDeadlineExceeded()) {
+                    cache.asMap().remove(key, future);
+                }
+            } while (cached == null);
+        } else {
+            // Progress goes to this caller only, so the spot is computed outside the cache's entry
+            CompletableFuture<SpotResult> future = cache.getIfPresent(key);
+            cached = future == null ? null : await(future);
+            if (cached == null) {
+                computed = true;
+                cached = schedule(hole, board, canonicalRanges, sampling, request, listener, deadline, waitForQueue);
+                if (!listener.isCancelled() && !cached.isDeadlineExceeded()) {
+                    cache.put(key, CompletableFuture.completedFuture(cached));
+                }
+            }
+        }
+        metrics.recordLookup(communityCards, !computed, System.nanoTime() - start);
+        PokerEVResult evResult = cached.getEvResult().withAmounts(request.getPotSize(), request.getCallAmount(), request.getRaiseAmount());
+        return new SpotResult(cached.getProbabilities(), evResult, cached.isDeadlineExceeded());
+    }
+
+    // Waits for another request's computation, rethrowing its failure as it was thrown
+    private static SpotResult await(CompletableFuture<SpotResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private SpotResult schedule(long holeCards, long communityCards, HandRange[] ranges, Sampling sampling, PokerRequest request, SimulationListener listener, long deadline, boolean waitForQueue) {
+        Supplier<SpotResult> simulation = () -> compute(holeCards, communityCards, ranges, sampling, request, listener, deadline);
+        return waitForQueue ? scheduler.runWhenQueued(simulation) : scheduler.run(simulation);
+    }
+
+    private SpotResult compute(long holeCards, long communityCards, HandRange[] ranges, Sampling sampling, PokerRequest request, SimulationListener listener, long deadline) {
+        long start = System.nanoTime();
+        int numPlayers = request.getNumPlayers();
+
+        PokerEVResult result;
+        boolean deadlineExceeded = false;
+        if (communityCards == 0 && ranges == null && preflopTable.covers(numPlayers)) {
+            // Preflop equity only depends on the starting hand and player count, so it is precomputed
+            result = preflopTable.lookup(holeCards, numPlayers, request.getPotSize(), request.getCallAmount(), request.getRaiseAmount());
+        } else {
+            SimulationOptions options = new SimulationOptions(10000);
+            options.setSeed(request.getSeed());
+            options.setMaxExactCombinations(maxExactCombinations);
+            options.setTargetStandardError(request.getTargetStandardError());
+            options.setTimeBudgetMillis(request.getTimeBudgetMillis());
+            options.setDeadlineNanos(deadline);
+            options.setOpponentRanges(ranges);
+            options.setSampling(sampling);
+            options.setListener(listener);
+            options.setProgressTrials(request.getProgressTrials());
+            options.setProgressMillis(request.getProgressMillis());
+            result = PokerEVSimulator.simulateEV(holeCards, communityCards, request.getPotSize(), request.getCallAmount(), request.getRaiseAmount(), numPlayers, options);
+            if (result.getMode().equals(PokerEVResult.MONTE_CARLO) && System.nanoTime() >= deadline) {
+                deadlineExceeded = true;
+                scheduler.recordDeadlineExceeded();
+            }
+        }
+        metrics.recordSimulation(holeCards, communityCards, numPlayers, result, System.nanoTime() - start);
+
+        // Exact EV enumeration already walked every runout, so its category counts are reused; preflop
+        // they come from the table rather than a walk over 2,118,760 runouts
+        Map<String, Double> distribution;
+        if (result.getHandDistribution() != null) {
+            distribution = HandDistribution.toMap(result.getHandDistribution());
+        } else if (communityCards == 0) {
+            distribution = HandDistribution.toMap(preflopTable.distribution(holeCards));
+        } else {
+            distribution = new HandProbabilities(holeCards).distribution(communityCards);
+        }
+        return new SpotResult(Collections.unmodifiableMap(distribution), result, deadlineExceeded);
+    }
+
+    /**
+     * Parses the per-opponent range strings; blank entries are random hands
+     *
+     * @return one range or null per listed opponent, or null when no opponent has a range
+     */
+    private static HandRange[] parseRanges(List<String> opponentRanges) {
+        if (opponentRanges == null) return null;
+        HandRange[] ranges = new HandRange[opponentRanges.size()];
+        boolean any = false;
+        for (int p = 0; p < ranges.length; p++) {
+            String text = opponentRanges.get(p);
+            if (text != null && !text.isBlank()) {
+                ranges[p] = HandRange.parse(text);
+                any = true;
+            }
+        }
+        return any ? ranges : null;
+    }
+
+    private static HandRange[] permuteRanges(HandRange[] ranges, int permutation) {
+        if (ranges == null || permutation == SuitIsomorphism.IDENTITY) return ranges;
+        HandRange[] permuted = new HandRange[ranges.length];
+        for (int p = 0; p < ranges.length; p++) {
+            permuted[p] = ranges[p] == null ? null : ranges[p].permute(permutation);
+        }
+        return permuted;
+    }
+
+    /**
+     * Hit, miss and eviction counters of the spot cache
+     */
+    public Map<String, Object> cacheStats() {
+        CacheStats stats = cache.synchronous().stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.synchronous().estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package com.sraddhasurya.poker;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Streams a spot's running equity estimate as Server-Sent Events
+ *
+ * Each stream gets a "progress" event between simulation rounds (every progressTrials trials or
+ * progressMillis, when given) and ends with a "result" event holding the usual /probabilities body,
+ * or an "error" event (also sent when the simulation queue is full). Exact, precomputed and cached
+ * spots go straight to the result. Once the connection is closed the simulation is cancelled:
+ * workers stop at their next batch and nothing more is sent
+ */
+@Service
+public class EquityStreamService {
+    private final EquityService equityService;
+    private final PokerMetrics metrics;
+    private final Duration timeout;
+    // Each stream's driver mostly waits on the simulation's fork/join workers
+    private final ExecutorService drivers = Executors.newVirtualThreadPerTaskExecutor();
+
+    public EquityStreamService(EquityService equityService, PokerMetrics metrics, @Value("${poker.stream.timeout:5m}") Duration timeout) {
+        this.equityService = equityService;
+        this.metrics = metrics;
+        this.timeout = timeout;
+    }
+
+    public SseEmitter stream(PokerRequest request) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        AtomicBoolean closed = new AtomicBoolean();
+        emitter.onCompletion(() -> closed.set(true));
+        emitter.onTimeout(() -> closed.set(true));
+        emitter.onError(e -> closed.set(true));
+        drivers.execute(() -> run(request, emitter, closed));
+        return emitter;
+    }
+
+    private void run(PokerRequest request, SseEmitter emitter, AtomicBoolean closed) {
+        SimulationListener listener = new SimulationListener() {
+            @Override
+            public void onProgress(PokerEVResult estimate) {
+                send(emitter, closed, "progress", progress(estimate));
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return closed.get();
+            }
+        };
+
+        try {
+            SpotResult result = equityService.calculate(request, listener);
+            if (send(emitter, closed, "result", PokerController.toResponse(result))) {
+                emitter.complete();
+            }
+        } catch (CancellationException e) {
+            // The client left before the first round finished
+        } catch (SimulationRejectedException e) {
+            metrics.recordError("stream", "rejected");
+            if (send(emitter, closed, "error", Map.of("error", "Too many requests", "retryAfter", e.getRetryAfterSeconds()))) {
+                emitter.complete();
+            }
+        } catch (Exception e) {
+            metrics.recordError("stream", "invalid_input");
+            if (send(emitter, closed, "error", Map.of("error", "Invalid input"))) {
+                emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Body of a progress event: the running estimate without the category chances
+     */
+    static Map<String, Object> progress(PokerEVResult estimate) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("trials", estimate.getTrials());
+        event.put("winProbability", estimate.getWinProbability());
+        event.put("tieProbability", estimate.getTieProbability());
+        event.put("expectedValue", estimate.getExpectedValue());
+        event.put("standardError", estimate.getStandardError());
+        event.put("effectiveTrials", estimate.getEffectiveTrials());
+        event.put("confidenceInterval", List.of(estimate.getConfidenceLow(), estimate.getConfidenceHigh()));
+        return event;
+    }
+
+    /**
+     * Sends one event, marking the stream closed if the client is gone
+     *
+     * @return false when nothing could be sent
+     */
+    private static boolean send(SseEmitter emitter, AtomicBoolean closed, String name, Object data) {
+        if (closed.get()) return false;
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            closed.set(true);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        drivers.shutdownNow();
+    }
+}
@@ -0,0 +1,200 @@
+package com.sraddhasurya.poker;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Exact equity by enumerating every board runout and every deal of opponent hole cards
+ *
+ * Used instead of sampling when the number of combinations is small (turn and river, or heads-up on
+ * the flop). Runouts are split across the ForkJoin pool; for each runout every opponent hand is
+ * evaluated once into a table, and the deals of opponents are then walked over that table
+ */
+public class ExactEquity {
+
+    // Runouts handled by one fork/join leaf
+    private static final int RUNOUTS_PER_TASK = 8;
+
+    // Showdown outcomes for the player, worst opponent wins
+    private static final int WIN = 0;
+    private static final int TIE = 1;
+    private static final int LOSS = 2;
+    // Per-category runout counts follow the outcome counts
+    static final int CATEGORY_OFFSET = 3;
+    private static final int COUNTS = CATEGORY_OFFSET + HandDistribution.CATEGORY_KEYS.length;
+
+    /**
+     * Number of (runout, opponent hands) combinations an exact enumeration would visit, or infinity for
+     * a spot that can't be dealt (fewer than 2 players, more than 5 board cards, or more players than
+     * the deck seats), so such a spot is never enumerated
+     *
+     * @param holeCards      card set of the player's two hole cards
+     * @param communityCards card set of the current community cards
+     * @param numPlayers     total number of players (including the user)
+     */
+    public static double combinations(long holeCards, long communityCards, int numPlayers) {
+        int unseen = CardSet.DECK_SIZE - CardSet.size(holeCards | communityCards);
+        int toReveal = 5 - CardSet.size(communityCards);
+        if (numPlayers < 2 || toReveal < 0 || unseen - toReveal < 2 * (numPlayers - 1)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double count = choose(unseen, toReveal);
+        unseen -= toReveal;
+        for (int p = 1; p < numPlayers; p++) {
+            count *= choose(unseen, 2);
+            unseen -= 2;
+        }
+        return count;
+    }
+
+    /**
+     * Enumerates every combination and counts the player's wins and ties. The player's hand is evaluated
+     * once per runout anyway, so the runouts ending in each hand category are counted along the way
+     *
+     * @return {wins, ties, combinations, runouts ending in category 0, ..., runouts ending in category 8}
+     */
+    public static long[] enumerate(long holeCards, long communityCards, int numPlayers) {
+        long dead = holeCards | communityCards;
+        int[] live = CardSet.toArray(CardSet.FULL_DECK & ~dead);
+        int toReveal = 5 - CardSet.size(communityCards);
+
+        long[] runouts = new long[(int) choose(live.length, toReveal)];
+        collectRunouts(live, toReveal, 0, 0L, runouts, new int[1]);
+
+        long[] counts = new RunoutTask(holeCards, communityCards, numPlayers - 1, runouts, 0, runouts.length).invoke();
+        long[] result = counts.clone();
+        result[2] = (long) combinations(holeCards, communityCards, numPlayers);
+        return result;
+    }
+
+    private static void collectRunouts(int[] live, int toReveal, int start, long partial, long[] runouts, int[] next) {
+        if (toReveal == 0) {
+            runouts[next[0]++] = partial;
+            return;
+        }
+        for (int i = start; i <= live.length - toReveal; i++) {
+            collectRunouts(live, toReveal - 1, i + 1, partial | CardSet.bit(live[i]), runouts, next);
+        }
+    }
+
+    static double choose(int n, int k) {
+        if (k < 0 || k > n) return 0;
+        double result = 1;
+        for (int i = 0; i < k; i++) {
+            result = result * (n - i) / (i + 1);
+        }
+        return Math.rint(result);
+    }
+
+    /**
+     * Fork/join task over a range of runouts, returning {wins, ties, losses, runouts per category...}
+     */
+    private static final class RunoutTask extends RecursiveTask<long[]> {
+        private final long holeCards;
+        private final long communityCards;
+        private final int numOpponents;
+        private final long[] runouts;
+        private final int from;
+        private final int to;
+
+        // Leaf state: the cards left after the runout and each opponent pair's outcome against the player
+        private Showdown showdown;
+        private int[] rest;
+        private int restSize;
+        private byte[] outcome;
+        private long[] counts;
+
+        RunoutTask(long holeCards, long communityCards, int numOpponents, long[] runouts, int from, int to) {
+            this.holeCards = holeCards;
+            this.communityCards = communityCards;
+            this.numOpponents = numOpponents;
+            this.runouts = runouts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= RUNOUTS_PER_TASK) {
+                counts = new long[COUNTS];
+                showdown = new Showdown(communityCards);
+                rest = new int[CardSet.DECK_SIZE];
+                outcome = new byte[CardSet.DECK_SIZE * CardSet.DECK_SIZE];
+                for (int r = from; r < to; r++) {
+                    countRunout(runouts[r]);
+                }
+                return counts;
+            }
+
+            int mid = (from + to) >>> 1;
+            RunoutTask left = new RunoutTask(holeCards, communityCards, numOpponents, runouts, from, mid);
+            RunoutTask right = new RunoutTask(holeCards, communityCards, numOpponents, runouts, mid, to);
+            left.fork();
+            long[] result = right.compute();
+            long[] leftCounts = left.join();
+            for (int i = 0; i < COUNTS; i++) {
+                result[i] += leftCounts[i];
+            }
+            return result;
+        }
+
+        private void countRunout(long runout) {
+            long fullBoard = communityCards | runout;
+            showdown.reset(fullBoard);
+            int playerStrength = showdown.rank(holeCards);
+            counts[CATEGORY_OFFSET + SevenCardEvaluator.category(playerStrength)]++;
+            if (numOpponents == 0) {
+                counts[WIN]++;
+                return;
+            }
+
+            restSize = 0;
+            for (long cards = CardSet.FULL_DECK & ~(holeCards | fullBoard); cards != 0; cards &= cards - 1) {
+                rest[restSize++] = CardSet.first(cards);
+            }
+
+            for (int i = 0; i < restSize; i++) {
+                for (int j = i + 1; j < restSize; j++) {
+                    int opponentStrength = showdown.rank(CardSet.bit(rest[i]) | CardSet.bit(rest[j]));
+                    outcome[i * CardSet.DECK_SIZE + j] = (byte) (opponentStrength > playerStrength ? LOSS : opponentStrength == playerStrength ? TIE : WIN);
+                }
+            }
+
+            deal(0, 0L, WIN);
+        }
+
+        /**
+         * Deals hole cards to opponent p and onward, counting each completed deal under the worst outcome
+         *
+         * @param used   set of positions in rest already dealt
+         * @param result worst outcome so far
+         */
+        private void deal(int p, long used, int result) {
+            if (p == numOpponents) {
+                counts[result]++;
+                return;
+            }
+            for (int i = 0; i < restSize; i++) {
+                if ((used & (1L << i)) != 0) continue;
+                for (int j = i + 1; j < restSize; j++) {
+                    if ((used & (1L << j)) != 0) continue;
+                    int next = Math.max(result, outcome[i * CardSet.DECK_SIZE + j]);
+                    if (next == LOSS) {
+                        // Every way to deal the remaining opponents loses too
+                        counts[LOSS] += waysToDeal(restSize - 2 * (p + 1), numOpponents - p - 1);
+                    } else {
+                        deal(p + 1, used | (1L << i) | (1L << j), next);
+                    }
+                }
+            }
+        }
+
+        private static long waysToDeal(int cards, int opponents) {
+            long ways = 1;
+            for (int p = 0; p < opponents; p++) {
+                ways *= (long) cards * (cards - 1) / 2;
+                cards -= 2;
+            }
+            return ways;
+        }
+    }
+}
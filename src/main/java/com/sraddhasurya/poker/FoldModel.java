@@ -0,0 +1,46 @@
+package com.sraddhasurya.poker;
+
+import java.util.Locale;
+
+/**
+ * How opponents answer a raise: each continues with probability ((pot + call) / (pot + call + raise))
+ * raised to the elasticity, the pot odds the raise lays them. An elasticity of 1 is the minimum
+ * defense frequency, 0 never folds, larger values fold more to big raises
+ *
+ * Which hands fold is either independent of the cards (random) or the opponent's weakest hands on the
+ * board so far (weakest-first), which leaves the player against stronger hands when called
+ *
+ * @param weakestFirst true to fold the weakest hands first, false to fold at random
+ * @param elasticity   exponent on the pot odds, at least 0
+ */
+public record FoldModel(boolean weakestFirst, double elasticity) {
+
+    public FoldModel {
+        if (!(elasticity >= 0)) {
+            throw new IllegalArgumentException("Elasticity must be at least 0.");
+        }
+    }
+
+    /**
+     * Parses a request's model name ("random" or "weakest-first")
+     *
+     * @param name the model, random when null or blank
+     * @throws IllegalArgumentException if the name is unknown or the elasticity negative
+     */
+    public static FoldModel parse(String name, double elasticity) {
+        String key = name == null || name.isBlank() ? "random" : name.trim().toLowerCase(Locale.ROOT);
+        return switch (key) {
+            case "random" -> new FoldModel(false, elasticity);
+            case "weakest-first" -> new FoldModel(true, elasticity);
+            default -> throw new IllegalArgumentException("Unknown fold model: " + name);
+        };
+    }
+
+    /**
+     * Chance one opponent continues against a raise of raiseAmount on top of the call
+     */
+    public double continueProbability(int potSize, int callAmount, int raiseAmount) {
+        double pot = potSize + callAmount;
+        return pot <= 0 ? 1.0 : Math.pow(pot / (pot + raiseAmount), elasticity);
+    }
+}
@@ -0,0 +1,110 @@
+package com.sraddhasurya.poker;
+
+/**
+ * A batch of 5 to 7 card hands ranked in one pass, on SevenCardEvaluator's scale
+ *
+ * Hands are stored as one int array per suit mask, so the ranking can run across SIMD lanes: with the
+ * Vector API available (the JVM started with --add-modules jdk.incubator.vector) and vectors of at
+ * least 256 bits, VectorBatchEvaluator ranks 8 or 16 hands per pass. Otherwise, or with
+ * -Dpoker.simd=false, a scalar loop over SevenCardEvaluator ranks them one by one. Both give exactly
+ * SevenCardEvaluator's values, so results never depend on the host
+ */
+public final class HandBatch {
+
+    /**
+     * Ranks the first count hands of the suit mask arrays into values
+     */
+    interface Evaluator {
+        void evaluate(int[] s0, int[] s1, int[] s2, int[] s3, int[] values, int count);
+    }
+
+    static final Evaluator SCALAR = HandBatch::evaluateScalar;
+    private static final Evaluator EVALUATOR = evaluator();
+
+    private static final int RANK_MASK = 0x1FFF;
+
+    private final int[] s0;
+    private final int[] s1;
+    private final int[] s2;
+    private final int[] s3;
+    private final int[] values;
+    private int size;
+
+    public HandBatch(int capacity) {
+        s0 = new int[capacity];
+        s1 = new int[capacity];
+        s2 = new int[capacity];
+        s3 = new int[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * True when batches are ranked by the Vector API rather than the scalar loop
+     */
+    public static boolean isVectorized() {
+        return EVALUATOR != SCALAR;
+    }
+
+    private static Evaluator evaluator() {
+        if (!Boolean.parseBoolean(System.getProperty("poker.simd", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            return VectorBatchEvaluator.isSupported() ? new VectorBatchEvaluator() : SCALAR;
+        } catch (LinkageError e) {
+            return SCALAR;
+        }
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Queues a hand
+     *
+     * @param cards card set of 5 to 7 cards
+     * @return the hand's slot, to read its value after evaluate
+     */
+    public int add(long cards) {
+        int slot = size++;
+        s0[slot] = (int) cards & RANK_MASK;
+        s1[slot] = (int) (cards >>> 13) & RANK_MASK;
+        s2[slot] = (int) (cards >>> 26) & RANK_MASK;
+        s3[slot] = (int) (cards >>> 39) & RANK_MASK;
+        return slot;
+    }
+
+    /**
+     * Ranks every queued hand
+     */
+    public void evaluate() {
+        evaluate(EVALUATOR);
+    }
+
+    void evaluate(Evaluator evaluator) {
+        evaluator.evaluate(s0, s1, s2, s3, values, size);
+    }
+
+    /**
+     * Hand value of the hand in a slot, after evaluate
+     */
+    public int value(int slot) {
+        return values[slot];
+    }
+
+    private static void evaluateScalar(int[] s0, int[] s1, int[] s2, int[] s3, int[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = SevenCardEvaluator.evaluate(s0[i], s1[i], s2[i], s3[i]);
+        }
+    }
+}
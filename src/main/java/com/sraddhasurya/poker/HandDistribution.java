@@ -0,0 +1,120 @@
+package com.sraddhasurya.poker;
+
+import java.util.*;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Exact distribution of the player's final hand category over every way the board can run out
+ *
+ * One pass over the remaining runouts evaluates the player's seven cards once per runout and counts
+ * the category in a nine-slot histogram. Even preflop (2,118,760 runouts) this is a single parallel
+ * walk; from the flop on it is at most 1,081 evaluations
+ */
+public class HandDistribution {
+
+    // Response keys per category (0 = High Card ... 8 = Straight Flush)
+    public static final String[] CATEGORY_KEYS = {
+        "High Card", "Pair", "Two Pair", "Three of a Kind", "Straight",
+        "Flush", "Full House", "Four of a Kind", "Straight Flush"
+    };
+
+    // Walk sequentially below this many cards still to come
+    private static final int PARALLEL_MIN_TO_REVEAL = 4;
+
+    /**
+     * Counts the runouts that end in each hand category
+     *
+     * @param holeCards      card set of the player's hole cards
+     * @param communityCards card set of the current community cards
+     * @return runouts per category, indexed by SevenCardEvaluator category
+     */
+    public static long[] countRunouts(long holeCards, long communityCards) {
+        int[] live = CardSet.toArray(CardSet.FULL_DECK & ~(holeCards | communityCards));
+        int toReveal = 5 - CardSet.size(communityCards);
+        long known = holeCards | communityCards;
+
+        if (toReveal < PARALLEL_MIN_TO_REVEAL) {
+            long[] counts = new long[CATEGORY_KEYS.length];
+            walk(live, 0, toReveal, known, counts);
+            return counts;
+        }
+        return new FirstCardTask(live, toReveal, known, 0, live.length - toReveal + 1).invoke();
+    }
+
+    /**
+     * Probability of finishing with each hand category
+     */
+    public static double[] distribution(long holeCards, long communityCards) {
+        return normalize(countRunouts(holeCards, communityCards));
+    }
+
+    static double[] normalize(long[] counts) {
+        long total = 0;
+        for (long count : counts) total += count;
+        double[] distribution = new double[counts.length];
+        for (int c = 0; c < counts.length; c++) {
+            distribution[c] = counts[c] / (double) total;
+        }
+        return distribution;
+    }
+
+    /**
+     * Names a distribution by category, in category order
+     */
+    public static Map<String, Double> toMap(double[] distribution) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int c = 0; c < CATEGORY_KEYS.length; c++) {
+            result.put(CATEGORY_KEYS[c], distribution[c]);
+        }
+        return result;
+    }
+
+    private static void walk(int[] live, int start, int toReveal, long cards, long[] counts) {
+        if (toReveal == 0) {
+            counts[SevenCardEvaluator.category(SevenCardEvaluator.evaluate(cards))]++;
+            return;
+        }
+        for (int i = start; i <= live.length - toReveal; i++) {
+            walk(live, i + 1, toReveal - 1, cards | CardSet.bit(live[i]), counts);
+        }
+    }
+
+    /**
+     * Fork/join task over a range of positions for the first revealed card
+     */
+    private static final class FirstCardTask extends RecursiveTask<long[]> {
+        private final int[] live;
+        private final int toReveal;
+        private final long known;
+        private final int from;
+        private final int to;
+
+        FirstCardTask(int[] live, int toReveal, long known, int from, int to) {
+            this.live = live;
+            this.toReveal = toReveal;
+            this.known = known;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from == 1) {
+                long[] counts = new long[CATEGORY_KEYS.length];
+                walk(live, from + 1, toReveal - 1, known | CardSet.bit(live[from]), counts);
+                return counts;
+            }
+
+            int mid = (from + to) >>> 1;
+            FirstCardTask left = new FirstCardTask(live, toReveal, known, from, mid);
+            FirstCardTask right = new FirstCardTask(live, toReveal, known, mid, to);
+            left.fork();
+            long[] counts = right.compute();
+            long[] leftCounts = left.join();
+            for (int c = 0; c < counts.length; c++) {
+                counts[c] += leftCounts[c];
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.sraddhasurya.poker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only log of /probabilities and /evaluate-winner traffic as HandRecords in memory-mapped segments
+ *
+ * The log is a sequence of fixed-size slots spread over segment files of segmentRecords slots each.
+ * A writer claims the next slot with one atomic increment, fills it with absolute puts into the shared
+ * mapping, and publishes it by storing the header last with release semantics; scans read the header
+ * with acquire semantics and skip empty slots. Writers never lock, and the next segment is mapped in
+ * the background once the current one is in use, so a write is a few dozen stores into page cache
+ */
+@Component
+public class HandHistoryLog {
+
+    private static final VarHandle HEADER = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentRecords;
+    private final AtomicLong next = new AtomicLong();
+    private final Map<Integer, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    private final ExecutorService mapper = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hand-history-mapper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param enabled        whether to log at all; off by default, since every start maps two segment files
+     * @param directory      where the segment files go
+     * @param segmentRecords slots per segment file, at most Integer.MAX_VALUE / HandRecord.BYTES so an
+     *                       offset into a segment fits an int
+     */
+    public HandHistoryLog(@Value("${poker.history.enabled:false}") boolean enabled,
+            @Value("${poker.history.dir:hand-history}") Path directory,
+            @Value("${poker.history.segment-records:65536}") int segmentRecords) {
+        if (segmentRecords <= 0 || segmentRecords > Integer.MAX_VALUE / HandRecord.BYTES) {
+            throw new IllegalArgumentException("poker.history.segment-records must be 1 to " + Integer.MAX_VALUE / HandRecord.BYTES);
+        }
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        if (enabled) {
+            recover();
+        }
+    }
+
+    /**
+     * Continues after the last published record. The newest segment files are usually empty, mapped
+     * ahead of need, so segments without a published record are stepped back over
+     */
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            int last = -1;
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    String name = file.getFileName().toString();
+                    if (name.startsWith("segment-") && name.endsWith(".log")) {
+                        last = Math.max(last, Integer.parseInt(name.substring(8, name.length() - 4)));
+                    }
+                }
+            }
+            for (int index = last; index >= 0; index--) {
+                if (!Files.exists(file(index))) continue;
+                ByteBuffer segment = segment(index);
+                int used = segmentRecords;
+                while (used > 0 && (int) HEADER.getAcquire(segment, (used - 1) * HandRecord.BYTES) == 0) {
+                    used--;
+                }
+                if (used > 0) {
+                    next.set((long) index * segmentRecords + used);
+                    break;
+                }
+            }
+            // Map the segment being written and the one after it up front, so no request waits on a mapping
+            int current = (int) (next.get() / segmentRecords);
+            segment(current);
+            segment(current + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records a /probabilities answer
+     */
+    public void recordProbabilities(long holeCards, long communityCards, PokerRequest request, SpotResult spot, long nanos) {
+        if (!enabled) return;
+        PokerEVResult result = spot.getEvResult();
+        int flags = (spot.isDeadlineExceeded() ? HandRecord.DEADLINE_EXCEEDED : 0)
+                | (PokerEVResult.EXACT.equals(result.getMode()) ? HandRecord.EXACT : 0)
+                | (PokerEVResult.PRECOMPUTED.equals(result.getMode()) ? HandRecord.PRECOMPUTED : 0);
+
+        long slot = next.getAndIncrement();
+        ByteBuffer buffer = slotSegment(slot);
+        int offset = slotOffset(slot);
+        writeCommon(buffer, offset, communityCards, nanos);
+        HandRecord.putCards(buffer, offset + HandRecord.HOLE, holeCards, 2 * HandRecord.MAX_SEATS);
+        buffer.putInt(offset + HandRecord.POT, request.getPotSize());
+        buffer.putInt(offset + HandRecord.CALL, request.getCallAmount());
+        buffer.putInt(offset + HandRecord.RAISE, request.getRaiseAmount());
+        buffer.putFloat(offset + HandRecord.RESULT, (float) result.getWinProbability());
+        buffer.putFloat(offset + HandRecord.RESULT + 4, (float) result.getTieProbability());
+        buffer.putFloat(offset + HandRecord.RESULT + 8, (float) result.getExpectedValue());
+        publish(buffer, offset, HandRecord.header(HandRecord.PROBABILITIES, request.getNumPlayers(), flags, CardSet.size(communityCards)));
+    }
+
+    /**
+     * Records an /evaluate-winner showdown; seats past the ninth aren't kept
+     */
+    public void recordShowdown(long communityCards, long[] holeCards, ShowdownResult showdown, long nanos) {
+        if (!enabled) return;
+        int seats = Math.min(holeCards.length, HandRecord.MAX_SEATS);
+        int winners = 0;
+        for (int seat : showdown.getWinners()) {
+            if (seat < seats) winners |= 1 << seat;
+        }
+
+        long slot = next.getAndIncrement();
+        ByteBuffer buffer = slotSegment(slot);
+        int offset = slotOffset(slot);
+        writeCommon(buffer, offset, communityCards, nanos);
+        for (int seat = 0; seat < HandRecord.MAX_SEATS; seat++) {
+            HandRecord.putCards(buffer, offset + HandRecord.HOLE + 2 * seat, seat < seats ? holeCards[seat] : 0L, 2);
+        }
+        buffer.putInt(offset + HandRecord.RESULT, winners);
+        buffer.putInt(offset + HandRecord.RESULT + 4, showdown.getRanks()[showdown.getWinners().get(0)]);
+        publish(buffer, offset, HandRecord.header(HandRecord.SHOWDOWN, seats, 0, CardSet.size(communityCards)));
+    }
+
+    private static void writeCommon(ByteBuffer buffer, int offset, long communityCards, long nanos) {
+        buffer.putLong(offset + HandRecord.TIMESTAMP, System.currentTimeMillis());
+        HandRecord.putCards(buffer, offset + HandRecord.BOARD, communityCards, 5);
+        buffer.putInt(offset + HandRecord.LATENCY, (int) Math.min(nanos / 1000, Integer.MAX_VALUE));
+    }
+
+    private static void publish(ByteBuffer buffer, int offset, int header) {
+        HEADER.setRelease(buffer, offset, header);
+    }
+
+    private ByteBuffer slotSegment(long slot) {
+        int index = (int) (slot / segmentRecords);
+        if (slot % segmentRecords == 0) {
+            // First slot of a segment: have the next one mapped before anyone needs it
+            try {
+                mapper.execute(() -> segment(index + 1));
+            } catch (RejectedExecutionException e) {
+                // Shutting down; a writer maps the segment itself if it still needs it
+            }
+        }
+        return segment(index);
+    }
+
+    private int slotOffset(long slot) {
+        return (int) (slot % segmentRecords) * HandRecord.BYTES;
+    }
+
+    private MappedByteBuffer segment(int index) {
+        MappedByteBuffer segment = segments.get(index);
+        return segment != null ? segment : segments.computeIfAbsent(index, this::map);
+    }
+
+    private Path file(int index) {
+        return directory.resolve(String.format("segment-%06d.log", index));
+    }
+
+    private MappedByteBuffer map(int index) {
+        try (FileChannel channel = FileChannel.open(file(index), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * HandRecord.BYTES);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Number of slots handed out so far, including any still being written
+     */
+    public long size() {
+        return next.get();
+    }
+
+    /**
+     * Visits every published record in log order that passes the filter. The same HandRecord view is
+     * moved from record to record, so visitors must read what they need before returning
+     *
+     * @return number of records visited
+     */
+    public long scan(Predicate<HandRecord> filter, Consumer<HandRecord> visitor) {
+        if (!enabled) return 0;
+        long end = next.get();
+        HandRecord record = new HandRecord();
+        long visited = 0;
+        for (long slot = 0; slot < end; slot++) {
+            ByteBuffer buffer = segment((int) (slot / segmentRecords));
+            int offset = slotOffset(slot);
+            if ((int) HEADER.getAcquire(buffer, offset) == 0) continue;
+            record.at(buffer, offset);
+            if (filter.test(record)) {
+                visitor.accept(record);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Counts and averages of the records of one type in a time window
+     *
+     * @param type       HandRecord.PROBABILITIES or HandRecord.SHOWDOWN
+     * @param fromMillis oldest timestamp included
+     * @param toMillis   newest timestamp included
+     * @param players    only records with this many players, or 0 for all
+     */
+    public Map<String, Object> summarize(int type, long fromMillis, long toMillis, int players) {
+        long start = System.nanoTime();
+        long[] byBoardSize = new long[6];
+        double[] sums = new double[3];     // win probability, EV, latency
+        long count = scan(record -> record.getType() == type
+                        && (players == 0 || record.getPlayers() == players)
+                        && record.getTimestamp() >= fromMillis && record.getTimestamp() <= toMillis,
+                record -> {
+                    byBoardSize[record.getBoardSize()]++;
+                    if (type == HandRecord.PROBABILITIES) {
+                        sums[0] += record.getWinProbability();
+                        sums[1] += record.getExpectedValue();
+                    }
+                    sums[2] += record.getLatencyMicros();
+                });
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Long> streets = new LinkedHashMap<>();
+        streets.put("preflop", byBoardSize[0]);
+        streets.put("flop", byBoardSize[3]);
+        streets.put("turn", byBoardSize[4]);
+        streets.put("river", byBoardSize[5]);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("records", count);
+        summary.put("streets", streets);
+        if (type == HandRecord.PROBABILITIES) {
+            summary.put("averageWinProbability", count == 0 ? 0 : sums[0] / count);
+            summary.put("averageExpectedValue", count == 0 ? 0 : sums[1] / count);
+        }
+        summary.put("averageLatencyMicros", count == 0 ? 0 : sums[2] / count);
+        summary.put("scanned", size());
+        summary.put("scanRecordsPerSecond", size() / Math.max(seconds, 1e-9));
+        return summary;
+    }
+
+    @PreDestroy
+    void close() {
+        // Let a mapping in flight finish, so no segment file appears after the log is closed
+        mapper.shutdown();
+        try {
+            mapper.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (MappedByteBuffer segment : segments.values()) {
+            segment.force();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.sraddhasurya.poker;
+
+import java.util.*;
+
+/**
+ * A weighted range of two-card hands, parsed from the usual shorthand
+ *
+ * Comma separated entries, each optionally followed by ":weight" (default 1, relative to the others):
+ * pairs "QQ", "QQ+", "99-66"; suited or offsuit hands "AKs", "AKo", "AK" (both); "A2s+" (kicker up to
+ * one below the top card); "76s-54s" or "KTs-K7s" (ranges stepping both or only the low card); and
+ * exact combos like "AhKh". A later entry replaces the weight of combos already listed.
+ * The result is a pair of primitive arrays, combo card sets and weights, so samplers never parse again
+ */
+public final class HandRange {
+    private static final String NUMBERS = "23456789TJQKA";
+    private static final String SUITS = "hdcs";
+
+    private final long[] combos;
+    private final double[] weights;
+    private final boolean suitSymmetric;     // No exact combos, so relabeling suits leaves the range unchanged
+
+    private HandRange(long[] combos, double[] weights, boolean suitSymmetric) {
+        this.combos = combos;
+        this.weights = weights;
+        this.suitSymmetric = suitSymmetric;
+    }
+
+    /**
+     * Parses a range string, e.g. "QQ+, AKs, 76s-54s:0.5"
+     *
+     * @throws IllegalArgumentException if an entry can't be parsed or the range is empty
+     */
+    public static HandRange parse(String text) {
+        Map<Long, Double> weighted = new LinkedHashMap<>();
+        boolean suitSymmetric = true;
+
+        for (String entry : text.split(",")) {
+            entry = entry.trim();
+            if (entry.isEmpty()) continue;
+
+            double weight = 1.0;
+            int colon = entry.indexOf(':');
+            if (colon >= 0) {
+                weight = parseWeight(entry, entry.substring(colon + 1).trim());
+                entry = entry.substring(0, colon).trim();
+            }
+
+            List<Long> combos = new ArrayList<>();
+            if (entry.length() == 4 && SUITS.indexOf(Character.toLowerCase(entry.charAt(1))) >= 0) {
+                combos.add(exactCombo(entry));
+                suitSymmetric = false;
+            } else {
+                addEntry(entry, combos);
+            }
+            for (long combo : combos) {
+                weighted.put(combo, weight);
+            }
+        }
+        weighted.values().removeIf(w -> w == 0.0);
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Empty range: " + text);
+        }
+
+        long[] combos = new long[weighted.size()];
+        double[] weights = new double[weighted.size()];
+        int i = 0;
+        for (Map.Entry<Long, Double> combo : weighted.entrySet()) {
+            combos[i] = combo.getKey();
+            weights[i++] = combo.getValue();
+        }
+        return new HandRange(combos, weights, suitSymmetric);
+    }
+
+    public int size() {
+        return combos.length;
+    }
+
+    public long combo(int i) {
+        return combos[i];
+    }
+
+    public double weight(int i) {
+        return weights[i];
+    }
+
+    public boolean isSuitSymmetric() {
+        return suitSymmetric;
+    }
+
+    /**
+     * The same range with every combo's suits relabeled by a SuitIsomorphism permutation
+     */
+    HandRange permute(int permutation) {
+        long[] permuted = new long[combos.length];
+        for (int i = 0; i < combos.length; i++) {
+            permuted[i] = SuitIsomorphism.permute(combos[i], permutation);
+        }
+        return new HandRange(permuted, weights, suitSymmetric);
+    }
+
+    private static void addEntry(String entry, List<Long> combos) {
+        int dash = entry.indexOf('-');
+        if (dash >= 0) {
+            addSpan(entry, entry.substring(0, dash).trim(), entry.substring(dash + 1).trim(), combos);
+            return;
+        }
+
+        boolean plus = entry.endsWith("+");
+        Hand hand = Hand.parse(plus ? entry.substring(0, entry.length() - 1) : entry, entry);
+        if (!plus) {
+            hand.addCombos(combos);
+        } else if (hand.high == hand.low) {
+            // QQ+ : every pair from QQ up
+            for (int number = hand.high; number <= 14; number++) {
+                new Hand(number, number, hand.suited, hand.offsuit).addCombos(combos);
+            }
+        } else {
+            // A2s+ : raise the kicker up to one below the top card
+            for (int low = hand.low; low < hand.high; low++) {
+                new Hand(hand.high, low, hand.suited, hand.offsuit).addCombos(combos);
+            }
+        }
+    }
+
+    /**
+     * Dash ranges: 99-66, KTs-K7s (same top card) or 76s-54s (same gap)
+     */
+    private static void addSpan(String entry, String fromText, String toText, List<Long> combos) {
+        Hand from = Hand.parse(fromText, entry);
+        Hand to = Hand.parse(toText, entry);
+        if (from.suited != to.suited || from.offsuit != to.offsuit) {
+            throw new IllegalArgumentException("Invalid range: " + entry);
+        }
+        if (from.high < to.high || (from.high == to.high && from.low < to.low)) {
+            Hand swap = from;
+            from = to;
+            to = swap;
+        }
+
+        int steps;
+        int highStep;
+        if (from.high == from.low && to.high == to.low) {
+            steps = from.high - to.high;
+            highStep = 1;
+        } else if (from.high == to.high && from.high != from.low) {
+            steps = from.low - to.low;
+            highStep = 0;
+        } else if (from.high - from.low == to.high - to.low && from.high != from.low) {
+            steps = from.high - to.high;
+            highStep = 1;
+        } else {
+            throw new IllegalArgumentException("Invalid range: " + entry);
+        }
+        for (int s = 0; s <= steps; s++) {
+            new Hand(from.high - s * highStep, from.low - s, from.suited, from.offsuit).addCombos(combos);
+        }
+    }
+
+    private static long exactCombo(String entry) {
+        int first = card(entry.charAt(0), entry.charAt(1), entry);
+        int second = card(entry.charAt(2), entry.charAt(3), entry);
+        if (first == second) {
+            throw new IllegalArgumentException("Invalid range: " + entry);
+        }
+        return CardSet.bit(first) | CardSet.bit(second);
+    }
+
+    private static int card(char number, char suit, String entry) {
+        int n = NUMBERS.indexOf(Character.toUpperCase(number));
+        int s = SUITS.indexOf(Character.toLowerCase(suit));
+        if (n < 0 || s < 0) {
+            throw new IllegalArgumentException("Invalid range: " + entry);
+        }
+        return CardSet.card(s, n + 2);
+    }
+
+    private static double parseWeight(String entry, String text) {
+        try {
+            double weight = Double.parseDouble(text);
+            if (weight >= 0 && Double.isFinite(weight)) return weight;
+        } catch (NumberFormatException e) {
+            // Falls through to the error below
+        }
+        throw new IllegalArgumentException("Invalid weight in range: " + entry);
+    }
+
+    /**
+     * A starting hand class such as "AKs": two numbers (2..14) and which suit combinations it covers
+     */
+    private record Hand(int high, int low, boolean suited, boolean offsuit) {
+
+        static Hand parse(String text, String entry) {
+            if (text.length() < 2 || text.length() > 3) {
+                throw new IllegalArgumentException("Invalid range: " + entry);
+            }
+            int a = NUMBERS.indexOf(Character.toUpperCase(text.charAt(0))) + 2;
+            int b = NUMBERS.indexOf(Character.toUpperCase(text.charAt(1))) + 2;
+            if (a < 2 || b < 2) {
+                throw new IllegalArgumentException("Invalid range: " + entry);
+            }
+            boolean suited = true;
+            boolean offsuit = true;
+            if (text.length() == 3) {
+                char kind = Character.toLowerCase(text.charAt(2));
+                if (kind != 's' && kind != 'o' || a == b && kind == 's') {
+                    throw new IllegalArgumentException("Invalid range: " + entry);
+                }
+                suited = kind == 's';
+                offsuit = kind == 'o';
+            }
+            return new Hand(Math.max(a, b), Math.min(a, b), suited || a == b, offsuit);
+        }
+
+        void addCombos(List<Long> combos) {
+            for (int s1 = 0; s1 < 4; s1++) {
+                for (int s2 = 0; s2 < 4; s2++) {
+                    if (high == low ? s2 <= s1 : (s1 == s2 ? !suited : !offsuit)) continue;
+                    combos.add(CardSet.bit(CardSet.card(s1, high)) | CardSet.bit(CardSet.card(s2, low)));
+                }
+            }
+        }
+    }
+}
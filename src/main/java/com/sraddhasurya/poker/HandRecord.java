@@ -0,0 +1,153 @@
+package com.sraddhasurya.poker;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-width binary hand-history record, and a reusable view for reading records in place
+ *
+ * Every record is 64 little-endian bytes:
+ *
+ *   0  header int: type (byte 0), players (byte 1), flags (byte 2), board size (byte 3);
+ *      written last, a zero header marks an empty or unfinished slot
+ *   4  timestamp, epoch millis (long)
+ *  12  board cards, 5 card bytes (0xFF = not dealt)
+ *  17  hole cards, 2 card bytes per seat for up to 9 seats (probabilities records only fill seat 0)
+ *  35  unused
+ *  36  pot, call and raise amounts (3 ints)
+ *  48  probabilities: win probability, tie probability, EV (3 floats)
+ *      showdown: winners as a seat bitmask, best hand value (2 ints), unused
+ *  60  latency in microseconds (int)
+ *
+ * A scan moves one HandRecord over the mapped segments with at(), so filters read fields straight
+ * from the file without building objects
+ */
+public final class HandRecord {
+
+    public static final int BYTES = 64;
+
+    public static final int PROBABILITIES = 1;
+    public static final int SHOWDOWN = 2;
+
+    // Flag bits
+    public static final int DEADLINE_EXCEEDED = 1;
+    public static final int EXACT = 2;
+    public static final int PRECOMPUTED = 4;
+
+    static final int MAX_SEATS = 9;
+    static final int NO_CARD = 0xFF;
+
+    static final int TIMESTAMP = 4;
+    static final int BOARD = 12;
+    static final int HOLE = 17;
+    static final int POT = 36;
+    static final int CALL = 40;
+    static final int RAISE = 44;
+    static final int RESULT = 48;
+    static final int LATENCY = 60;
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    HandRecord at(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    static int header(int type, int players, int flags, int boardSize) {
+        return type | players << 8 | flags << 16 | boardSize << 24;
+    }
+
+    /**
+     * Writes a card set as card bytes, padding with NO_CARD
+     */
+    static void putCards(ByteBuffer buffer, int offset, long cards, int slots) {
+        for (int i = 0; i < slots; i++) {
+            int card = NO_CARD;
+            if (cards != 0) {
+                card = CardSet.first(cards);
+                cards &= cards - 1;
+            }
+            buffer.put(offset + i, (byte) card);
+        }
+    }
+
+    private long cards(int at, int slots) {
+        long cards = 0L;
+        for (int i = 0; i < slots; i++) {
+            int card = buffer.get(offset + at + i) & 0xFF;
+            if (card != NO_CARD) cards |= CardSet.bit(card);
+        }
+        return cards;
+    }
+
+    public int getType() {
+        return buffer.get(offset) & 0xFF;
+    }
+
+    public int getPlayers() {
+        return buffer.get(offset + 1) & 0xFF;
+    }
+
+    public int getFlags() {
+        return buffer.get(offset + 2) & 0xFF;
+    }
+
+    /**
+     * Community cards dealt: 0 preflop, 3 flop, 4 turn, 5 river
+     */
+    public int getBoardSize() {
+        return buffer.get(offset + 3) & 0xFF;
+    }
+
+    public long getTimestamp() {
+        return buffer.getLong(offset + TIMESTAMP);
+    }
+
+    public long getBoard() {
+        return cards(BOARD, 5);
+    }
+
+    public long getHoleCards(int seat) {
+        return cards(HOLE + 2 * seat, 2);
+    }
+
+    public int getPot() {
+        return buffer.getInt(offset + POT);
+    }
+
+    public int getCall() {
+        return buffer.getInt(offset + CALL);
+    }
+
+    public int getRaise() {
+        return buffer.getInt(offset + RAISE);
+    }
+
+    public float getWinProbability() {
+        return buffer.getFloat(offset + RESULT);
+    }
+
+    public float getTieProbability() {
+        return buffer.getFloat(offset + RESULT + 4);
+    }
+
+    public float getExpectedValue() {
+        return buffer.getFloat(offset + RESULT + 8);
+    }
+
+    /**
+     * Showdown winners, bit s set for seat s
+     */
+    public int getWinners() {
+        return buffer.getInt(offset + RESULT);
+    }
+
+    public int getBestHand() {
+        return buffer.getInt(offset + RESULT + 4);
+    }
+
+    public int getLatencyMicros() {
+        return buffer.getInt(offset + LATENCY);
+    }
+}
@@ -0,0 +1,345 @@
+package com.sraddhasurya.poker;
+
+import java.util.SplittableRandom;
+
+/**
+ * One no-limit hold'em table played headlessly by BotStrategy seats
+ *
+ * Follows the table game of PokerGame.js: blinds posted left of a rotating button, four betting
+ * rounds, and a showdown. All-ins build side pots that are settled level by level. The table's
+ * state is preallocated per seat and reused hand after hand, so a table plays without allocating
+ * and one table per thread keeps the threads apart
+ */
+public final class HoldemTable {
+
+    public static final int PREFLOP = 0;
+    public static final int FLOP = 1;
+    public static final int TURN = 2;
+    public static final int RIVER = 3;
+
+    private final int seats;
+    private final BotStrategy[] bots;
+    private final PreflopEquityTable preflopTable;
+    private final SplittableRandom random;
+    private final Deck deck = new Deck(0L);
+
+    // Per-seat state, indexed by seat
+    private final int[] stack;
+    private final int[] bet;            // Chips put in on this street
+    private final int[] committed;      // Chips put in this hand
+    private final long[] hole;          // 0 for a seat sitting the hand out
+    private final boolean[] folded;
+    private final boolean[] allIn;
+    private final boolean[] acted;      // Acted since the last raise
+    private final int[] rank;
+
+    private int smallBlind;
+    private int bigBlind;
+    private int button;
+    private int street;
+    private long board;
+    private int pot;
+    private int currentBet;
+    private int minRaise;
+    private int live;                   // Dealt in and not folded
+
+    /**
+     * @param bots         strategy of each seat, 2 to 9 seats
+     * @param preflopTable starting hand equities offered to the strategies
+     * @param random       source of the shuffles and the strategies' randomness
+     */
+    public HoldemTable(BotStrategy[] bots, PreflopEquityTable preflopTable, SplittableRandom random) {
+        this.seats = bots.length;
+        this.bots = bots;
+        this.preflopTable = preflopTable;
+        this.random = random;
+        this.stack = new int[seats];
+        this.bet = new int[seats];
+        this.committed = new int[seats];
+        this.hole = new long[seats];
+        this.folded = new boolean[seats];
+        this.allIn = new boolean[seats];
+        this.acted = new boolean[seats];
+        this.rank = new int[seats];
+        this.button = random.nextInt(seats);
+    }
+
+    public void setBlinds(int smallBlind, int bigBlind) {
+        this.smallBlind = smallBlind;
+        this.bigBlind = bigBlind;
+    }
+
+    public void setStack(int seat, int chips) {
+        stack[seat] = chips;
+    }
+
+    /**
+     * Moves the button to the next seat with chips, deals, and plays the hand to the end
+     *
+     * @return false when fewer than two seats had chips, so no hand was played
+     */
+    public boolean playHand() {
+        deck.reset();
+        board = 0L;
+        pot = 0;
+        live = 0;
+        for (int s = 0; s < seats; s++) {
+            bet[s] = 0;
+            committed[s] = 0;
+            allIn[s] = false;
+            folded[s] = stack[s] == 0;
+            hole[s] = 0L;
+            if (!folded[s]) {
+                hole[s] = CardSet.bit(deck.draw(random)) | CardSet.bit(deck.draw(random));
+                live++;
+            }
+        }
+        if (live < 2) {
+            return false;
+        }
+
+        button = nextDealt(button);
+        // Heads-up the button posts the small blind
+        int small = live == 2 ? button : nextDealt(button);
+        int big = nextDealt(small);
+        pay(small, Math.min(smallBlind, stack[small]));
+        pay(big, Math.min(bigBlind, stack[big]));
+
+        street = PREFLOP;
+        currentBet = bigBlind;
+        minRaise = bigBlind;
+        boolean won = bettingRound(nextDealt(big));
+        for (street = FLOP; street <= RIVER && !won; street++) {
+            for (int k = street == FLOP ? 3 : 1; k > 0; k--) {
+                board |= CardSet.bit(deck.draw(random));
+            }
+            for (int s = 0; s < seats; s++) {
+                bet[s] = 0;
+            }
+            currentBet = 0;
+            minRaise = bigBlind;
+            if (canAct() >= 2) {
+                won = bettingRound(nextDealt(button));
+            }
+        }
+        award();
+        return true;
+    }
+
+    /**
+     * Lets seats act in turn from the first until every seat still able to act has acted since the
+     * last raise and matched the current bet
+     *
+     * @return true if all but one player folded
+     */
+    private boolean bettingRound(int first) {
+        for (int s = 0; s < seats; s++) {
+            acted[s] = false;
+        }
+        int idle = 0;
+        for (int seat = first; idle < seats; seat = (seat + 1) % seats) {
+            if (folded[seat] || allIn[seat] || (acted[seat] && bet[seat] == currentBet)) {
+                idle++;
+                continue;
+            }
+            act(seat);
+            if (live == 1) {
+                return true;
+            }
+            idle = 0;
+        }
+        return false;
+    }
+
+    private void act(int seat) {
+        int toCall = currentBet - bet[seat];
+        int action = bots[seat].act(this, seat);
+        acted[seat] = true;
+
+        if (action == BotStrategy.FOLD && toCall > 0) {
+            folded[seat] = true;
+            live--;
+        } else if (action > 0 && othersCanAct(seat)) {
+            int raise = Math.max(action, minRaise);
+            pay(seat, (int) Math.min((long) toCall + raise, stack[seat]));
+            if (bet[seat] > currentBet) {
+                // A short all-in raises the bet without changing the minimum raise
+                minRaise = Math.max(minRaise, bet[seat] - currentBet);
+                currentBet = bet[seat];
+            }
+        } else {
+            pay(seat, Math.min(toCall, stack[seat]));
+        }
+    }
+
+    private void pay(int seat, int chips) {
+        stack[seat] -= chips;
+        bet[seat] += chips;
+        committed[seat] += chips;
+        pot += chips;
+        if (stack[seat] == 0) {
+            allIn[seat] = true;
+        }
+    }
+
+    /**
+     * Settles the pot: an uncontested pot goes to the last player in, otherwise the board is completed
+     * and each side pot level goes to the best hands eligible for it, split evenly with odd chips to
+     * the first winner left of the button
+     */
+    private void award() {
+        if (live == 1) {
+            for (int s = 0; s < seats; s++) {
+                if (!folded[s]) {
+                    stack[s] += pot;
+                }
+            }
+            return;
+        }
+        for (int k = CardSet.size(board); k < 5; k++) {
+            board |= CardSet.bit(deck.draw(random));
+        }
+        Showdown showdown = new Showdown(board);
+        for (int s = 0; s < seats; s++) {
+            if (!folded[s]) {
+                rank[s] = showdown.rank(hole[s]);
+            }
+        }
+
+        int paid = 0;
+        int previous = 0;
+        int lastWinner = -1;
+        while (true) {
+            int level = Integer.MAX_VALUE;
+            for (int s = 0; s < seats; s++) {
+                if (!folded[s] && committed[s] > previous && committed[s] < level) {
+                    level = committed[s];
+                }
+            }
+            if (level == Integer.MAX_VALUE) {
+                break;
+            }
+
+            int slice = 0;
+            int best = -1;
+            int winners = 0;
+            for (int s = 0; s < seats; s++) {
+                slice += Math.min(committed[s], level) - Math.min(committed[s], previous);
+                if (!folded[s] && committed[s] >= level) {
+                    if (rank[s] > best) {
+                        best = rank[s];
+                        winners = 1;
+                    } else if (rank[s] == best) {
+                        winners++;
+                    }
+                }
+            }
+            int share = slice / winners;
+            int odd = slice - share * winners;
+            for (int i = 1; i <= seats; i++) {
+                int s = (button + i) % seats;
+                if (!folded[s] && committed[s] >= level && rank[s] == best) {
+                    stack[s] += share + odd;
+                    odd = 0;
+                    lastWinner = s;
+                }
+            }
+            paid += slice;
+            previous = level;
+        }
+        // Chips a folded player put in above every live player's total go to the top pot's winner
+        stack[lastWinner] += pot - paid;
+    }
+
+    private int nextDealt(int seat) {
+        do {
+            seat = (seat + 1) % seats;
+        } while (hole[seat] == 0L);
+        return seat;
+    }
+
+    private int canAct() {
+        int count = 0;
+        for (int s = 0; s < seats; s++) {
+            if (!folded[s] && !allIn[s]) count++;
+        }
+        return count;
+    }
+
+    private boolean othersCanAct(int seat) {
+        for (int s = 0; s < seats; s++) {
+            if (s != seat && !folded[s] && !allIn[s]) return true;
+        }
+        return false;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public int getStreet() {
+        return street;
+    }
+
+    public long getBoard() {
+        return board;
+    }
+
+    public long getHoleCards(int seat) {
+        return hole[seat];
+    }
+
+    public int getStack(int seat) {
+        return stack[seat];
+    }
+
+    public int getBet(int seat) {
+        return bet[seat];
+    }
+
+    public int getToCall(int seat) {
+        return Math.min(currentBet - bet[seat], stack[seat]);
+    }
+
+    public int getCurrentBet() {
+        return currentBet;
+    }
+
+    public int getMinRaise() {
+        return minRaise;
+    }
+
+    public int getPot() {
+        return pot;
+    }
+
+    public int getBigBlind() {
+        return bigBlind;
+    }
+
+    public int getButton() {
+        return button;
+    }
+
+    /**
+     * Players dealt in and not folded
+     */
+    public int getLivePlayers() {
+        return live;
+    }
+
+    public boolean isFolded(int seat) {
+        return folded[seat];
+    }
+
+    public PreflopEquityTable getPreflopTable() {
+        return preflopTable;
+    }
+
+    /**
+     * The table's random source, for strategies that mix their actions
+     */
+    public SplittableRandom random() {
+        return random;
+    }
+}
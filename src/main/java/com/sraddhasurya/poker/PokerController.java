@@ -1,8 +1,16 @@
 package com.sraddhasurya.poker;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.nio.ByteBuffer;
 import java.util.*;
 
 
@@ -14,9 +22,35 @@ import java.util.*;
 @RequestMapping("/api/poker")   //Base path for all URLs in this controller 
 public class PokerController {
 
+    private static final MediaType WIRE = MediaType.parseMediaType(PokerWire.MEDIA_TYPE);
+
+    private final EquityService equityService;
+    private final BatchService batchService;
+    private final EquityStreamService streamService;
+    private final BotMatchService botMatchService;
+    private final BetSizingService betSizingService;
+    private final RiverSolverService riverSolverService;
+    private final HandHistoryLog history;
+    private final SimulationScheduler scheduler;
+    private final PokerMetrics metrics;
+
+    public PokerController(EquityService equityService, BatchService batchService, EquityStreamService streamService,
+            BotMatchService botMatchService, BetSizingService betSizingService, RiverSolverService riverSolverService,
+            HandHistoryLog history, SimulationScheduler scheduler, PokerMetrics metrics) {
+        this.equityService = equityService;
+        this.batchService = batchService;
+        this.streamService = streamService;
+        this.botMatchService = botMatchService;
+        this.betSizingService = betSizingService;
+        this.riverSolverService = riverSolverService;
+        this.history = history;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+    }
+
     /**
      * Test endpoint for verifying backend logic with hardcoded cards
-     * @return JSON map of poker hand probabilities 
+     * @return JSON map of final hand category probabilities 
      */
     @GetMapping("/test")
     public ResponseEntity<Map<String, Double>> test() {
@@ -26,15 +60,7 @@ public class PokerController {
         int numPlayers=2;
 
         HandProbabilities probs = new HandProbabilities(hole);
-        Map<String, Double> result = new LinkedHashMap<>();
-        result.put("Pair", probs.chanceOfPair(board));
-        result.put("Two Pair", probs.chanceOfTwoPair(board));
-        result.put("Three of a Kind", probs.chanceOfThreeOfKind(board));
-        result.put("Straight", probs.chanceOfStraight(board));
-        result.put("Flush", probs.chanceOfFlush(board));
-        result.put("Full House", probs.chanceOfFullHouse(board));
-        result.put("Four of a Kind", probs.chanceOfFourOfKind(board));
-        result.put("Straight Flush", probs.chanceOfStraightFlush(board));
+        Map<String, Double> result = probs.distribution(board);
 
         return ResponseEntity.ok(result);       // Sends back to who made the request 
 }
@@ -47,76 +73,394 @@ public class PokerController {
     @CrossOrigin(origins = "http://localhost:3000")     //Allows React frontend to send requests to backend
     @PostMapping("/probabilities")
     public ResponseEntity<Map<String, Object>> calculateProbabilities(@RequestBody PokerRequest request) {
+        long start = System.nanoTime();
         try {
-            List<Card> holeCards = CardParser.parseList(request.getHoleCards());
-            List<Card> communityCards = CardParser.parseList(request.getCommunityCards());
-            int numPlayers = request.getNumPlayers();
+            long holeCards = CardParser.parseSet(request.getHoleCards());
+            long communityCards = CardParser.parseSet(request.getCommunityCards());
     
             // Only calculate if we have 2 hole cards 
-            if (holeCards.size() < 2) {
+            if (CardSet.size(holeCards) < 2) {
                 return ResponseEntity.ok(Map.of(
                     "probabilities", null,
                     "expectedValue", null
                 ));
             }
+            if ((holeCards & communityCards) != 0) {
+                throw new IllegalArgumentException("Hole card repeated on the board");
+            }
 
     
-            HandProbabilities probs = new HandProbabilities(holeCards);
-            Map<String, Double> resultMap = new LinkedHashMap<>();
-            resultMap.put("Pair", probs.chanceOfPair(communityCards));
-            resultMap.put("Two Pair", probs.chanceOfTwoPair(communityCards));
-            resultMap.put("Three of a Kind", probs.chanceOfThreeOfKind(communityCards));
-            resultMap.put("Straight", probs.chanceOfStraight(communityCards));
-            resultMap.put("Flush", probs.chanceOfFlush(communityCards));
-            resultMap.put("Full House", probs.chanceOfFullHouse(communityCards));
-            resultMap.put("Four of a Kind", probs.chanceOfFourOfKind(communityCards));
-            resultMap.put("Straight Flush", probs.chanceOfStraightFlush(communityCards));
-    
-            //Runs simulation for expect value based on current board
-            PokerEVResult result = PokerEVSimulator.simulateEV(holeCards, communityCards, request.getPotSize(), request.getCallAmount(), request.getRaiseAmount(), 10000, request.getNumPlayers());   
-    
-            return ResponseEntity.ok(Map.of(
-                "probabilities", resultMap,
-                "expectedValue", result.getExpectedValue(),
-                "winProbability", result.getWinProbability(),
-                "tieProbability", result.getTieProbability()
-            ));
+            //Runs simulation for expect value based on current board, or reuses an isomorphic spot's result
+            SpotResult result = equityService.calculate(holeCards, communityCards, request);
+            history.recordProbabilities(holeCards, communityCards, request, result, System.nanoTime() - start);
+            return ResponseEntity.ok(toResponse(result));
+        } catch (SimulationRejectedException e) {
+            metrics.recordError("probabilities", "rejected");
+            return tooManyRequests(e);
         } catch (Exception e) {
+            metrics.recordError("probabilities", "invalid_input");
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid input"));  
         }
     }
+
+    /**
+     * Same endpoint in the binary PokerWire encoding, chosen by Content-Type: application/x-poker
+     * @param body one or more 56-byte request frames
+     * @return one 88-byte result frame per request frame, in order; a bad or rejected frame fails alone
+     */
+    @PostMapping(value = "/probabilities", consumes = PokerWire.MEDIA_TYPE, produces = PokerWire.MEDIA_TYPE)
+    public ResponseEntity<byte[]> calculateProbabilitiesWire(@RequestBody byte[] body) {
+        if (body.length == 0 || body.length % PokerWire.REQUEST_BYTES != 0) {
+            metrics.recordError("probabilities", "invalid_input");
+            return ResponseEntity.badRequest().build();
+        }
+        int frames = body.length / PokerWire.REQUEST_BYTES;
+        ByteBuffer in = ByteBuffer.wrap(body);
+        byte[] out = new byte[frames * PokerWire.RESULT_BYTES];
+        ByteBuffer results = ByteBuffer.wrap(out);
+        for (int f = 0; f < frames; f++) {
+            long start = System.nanoTime();
+            int offset = f * PokerWire.RESULT_BYTES;
+            try {
+                PokerWire.Spot spot = PokerWire.readRequest(in, f * PokerWire.REQUEST_BYTES);
+                SpotResult result = equityService.calculate(spot.holeCards(), spot.communityCards(), spot.request());
+                history.recordProbabilities(spot.holeCards(), spot.communityCards(), spot.request(), result, System.nanoTime() - start);
+                PokerWire.writeResult(results, offset, result);
+            } catch (SimulationRejectedException e) {
+                metrics.recordError("probabilities", "rejected");
+                PokerWire.writeError(results, offset, PokerWire.TOO_MANY_REQUESTS, (int) e.getRetryAfterSeconds());
+            } catch (Exception e) {
+                metrics.recordError("probabilities", "invalid_input");
+                PokerWire.writeError(results, offset, PokerWire.INVALID_INPUT, 0);
+            }
+        }
+        return ResponseEntity.ok().contentType(WIRE).body(out);
+    }
+
+    /**
+     * Win, tie and EV at every table size from heads-up up to numPlayers, from one simulation
+     * @param request the /probabilities body, numPlayers being the largest table
+     * @return one entry per table size, in order from 2 players
+     */
+    @CrossOrigin(origins = "http://localhost:3000")
+    @PostMapping("/probabilities/table-sizes")
+    public ResponseEntity<Map<String, Object>> calculateTableSizes(@RequestBody PokerRequest request) {
+        try {
+            TableSizesResult tableSizes = equityService.calculateTableSizes(request);
+            PokerEVResult[] results = tableSizes.getTables();
+            List<Map<String, Object>> tables = new ArrayList<>();
+            for (int i = 0; i < results.length; i++) {
+                PokerEVResult result = results[i];
+                Map<String, Object> table = new LinkedHashMap<>();
+                table.put("numPlayers", i + 2);
+                table.put("winProbability", result.getWinProbability());
+                table.put("tieProbability", result.getTieProbability());
+                table.put("expectedValue", result.getExpectedValue());
+                table.put("mode", result.getMode());
+                table.put("trials", result.getTrials());
+                table.put("standardError", result.getStandardError());
+                table.put("confidenceInterval", List.of(result.getConfidenceLow(), result.getConfidenceHigh()));
+                tables.add(table);
+            }
+            return ResponseEntity.ok(Map.of("tableSizes", tables, "deadlineExceeded", tableSizes.isDeadlineExceeded()));
+        } catch (SimulationRejectedException e) {
+            metrics.recordError("table-sizes", "rejected");
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            metrics.recordError("table-sizes", "invalid_input");
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid input"));
+        }
+    }
+
+    /**
+     * Batch endpoint for evaluating many scenarios in one call
+     * @param request body holding PokerRequest scenarios as NDJSON (or a JSON array), each optionally with an id
+     * @return NDJSON stream with one result per scenario, in completion order, tagged with its id
+     */
+    @CrossOrigin(origins = "http://localhost:3000")
+    @PostMapping(value = "/probabilities/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> calculateBatch(HttpServletRequest request) {
+        StreamingResponseBody body = out -> batchService.evaluate(request.getInputStream(), out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Streaming endpoint sending running win/tie/EV estimates while the simulation runs
+     * @param request same JSON body as /probabilities, optionally with progressTrials or progressMillis
+     * @return SSE stream of "progress" events followed by a "result" (or "error") event
+     */
+    @CrossOrigin(origins = "http://localhost:3000")
+    @PostMapping(value = "/probabilities/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProbabilities(@RequestBody PokerRequest request) {
+        return streamService.stream(request);
+    }
+
+    /**
+     * Same stream for EventSource clients, with the request fields as query parameters
+     * (e.g. ?holeCards=AH,KH&communityCards=2H,7S,9D&numPlayers=6)
+     */
+    @CrossOrigin(origins = "http://localhost:3000")
+    @GetMapping(value = "/probabilities/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProbabilitiesFromQuery(PokerRequest request) {
+        return streamService.stream(request);
+    }
+
+    /**
+     * Hit, miss and eviction counters of the /probabilities result cache
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(equityService.cacheStats());
+    }
+
+    /**
+     * Queue depth, running simulations and rejection counters of the simulation scheduler
+     */
+    @GetMapping("/scheduler/stats")
+    public ResponseEntity<Map<String, Object>> schedulerStats() {
+        return ResponseEntity.ok(scheduler.stats());
+    }
+
+    /**
+     * Plays bot strategies against each other headlessly, as cash hands or as tournaments
+     * @param request bot per seat (see Bots), hand or tournament count, stacks, blinds and seed
+     * @return per seat bb/100 (cash) or win rate and average finish (tournaments), each with a 95% margin
+     */
+    @PostMapping("/bots/match")
+    public ResponseEntity<Map<String, Object>> playBotMatch(@RequestBody BotMatchRequest request) {
+        try {
+            long start = System.nanoTime();
+            BotMatchResult result = botMatchService.play(request);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            boolean tournament = result.getTournaments() > 0;
+            List<Map<String, Object>> seats = new ArrayList<>();
+            for (int s = 0; s < result.getSeats(); s++) {
+                Map<String, Object> seat = new LinkedHashMap<>();
+                seat.put("seat", s);
+                seat.put("bot", result.getBot(s));
+                if (tournament) {
+                    seat.put("wins", result.getWins(s));
+                    seat.put("winRate", result.winRate(s));
+                    seat.put("winRateMargin", result.winRateMargin(s));
+                    seat.put("averageFinish", result.averageFinish(s));
+                } else {
+                    seat.put("bbPer100", result.bigBlindsPer100(s));
+                    seat.put("bbPer100Margin", result.bigBlindsPer100Margin(s));
+                }
+                seats.add(seat);
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("mode", tournament ? "tournament" : "cash");
+            if (tournament) {
+                response.put("tournaments", result.getTournaments());
+                response.put("seconds", seconds);
+            } else {
+                response.put("hands", result.getHands());
+                response.put("seconds", seconds);
+                response.put("handsPerSecond", result.getHands() / seconds);
+            }
+            response.put("seats", seats);
+            return ResponseEntity.ok(response);
+        } catch (SimulationRejectedException e) {
+            metrics.recordError("bots", "rejected");
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            metrics.recordError("bots", "invalid_input");
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid input"));
+        }
+    }
+
+    /**
+     * EV of each raise size against opponents who fold by pot odds, all sizes scored on the same trials
+     * @param request the spot, raise sizes (default 0 to 2x pot), fold model ("random" or "weakest-first") and elasticity
+     * @return per size the EV, its standard error and the chance everyone folds, and the best size
+     */
+    @CrossOrigin(origins = "http://localhost:3000")
+    @PostMapping("/sizing")
+    public ResponseEntity<Map<String, Object>> calculateSizing(@RequestBody BetSizingRequest request) {
+        try {
+            BetSizingResult result = betSizingService.simulate(request);
+            List<Map<String, Object>> sizes = new ArrayList<>();
+            for (int s = 0; s < result.size(); s++) {
+                Map<String, Object> size = new LinkedHashMap<>();
+                size.put("raiseAmount", result.raiseAmount(s));
+                size.put("expectedValue", result.expectedValue(s));
+                size.put("standardError", result.standardError(s));
+                size.put("foldProbability", result.foldProbability(s));
+                sizes.add(size);
+            }
+
+            int best = result.bestSize();
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("sizes", sizes);
+            response.put("bestRaiseAmount", result.raiseAmount(best));
+            response.put("bestExpectedValue", result.expectedValue(best));
+            response.put("trials", result.getTrials());
+            return ResponseEntity.ok(response);
+        } catch (SimulationRejectedException e) {
+            metrics.recordError("sizing", "rejected");
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            metrics.recordError("sizing", "invalid_input");
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid input"));
+        }
+    }
+
+    /**
+     * Solves a heads-up river spot: equilibrium strategies for both players over the bet-size abstraction
+     * @param request board, pot, stack, bet and raise sizes (fractions of the pot), both ranges and the target exploitability
+     * @return each player's EV and per-hand EVs, and per decision node the chance each hand takes each action
+     */
+    @CrossOrigin(origins = "http://localhost:3000")
+    @PostMapping("/river/solve")
+    public ResponseEntity<Map<String, Object>> solveRiver(@RequestBody RiverSolveRequest request) {
+        try {
+            long start = System.nanoTime();
+            RiverSolution solution = riverSolverService.solve(request);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            String[] players = {"oop", "ip"};
+            Map<String, Object> hands = new LinkedHashMap<>();
+            for (int p = 0; p < 2; p++) {
+                List<Map<String, Object>> range = new ArrayList<>();
+                for (int h = 0; h < solution.handCount(p); h++) {
+                    Map<String, Object> hand = new LinkedHashMap<>();
+                    hand.put("hand", CardParser.formatSet(solution.hand(p, h)));
+                    hand.put("weight", solution.weight(p, h));
+                    hand.put("expectedValue", solution.handExpectedValue(p, h));
+                    range.add(hand);
+                }
+                hands.put(players[p], range);
+            }
+
+            List<Map<String, Object>> nodes = new ArrayList<>();
+            for (int n = 0; n < solution.nodeCount(); n++) {
+                int p = solution.nodePlayer(n);
+                if (p < 0) continue;
+                List<String> actions = solution.nodeActions(n);
+                Map<String, Object> strategy = new LinkedHashMap<>();
+                for (int h = 0; h < solution.handCount(p); h++) {
+                    double[] probabilities = new double[actions.size()];
+                    for (int a = 0; a < probabilities.length; a++) {
+                        probabilities[a] = solution.strategy(n, h, a);
+                    }
+                    strategy.put(String.join(",", CardParser.formatSet(solution.hand(p, h))), probabilities);
+                }
+                Map<String, Object> node = new LinkedHashMap<>();
+                node.put("path", solution.nodePath(n));
+                node.put("player", players[p]);
+                node.put("actions", actions);
+                node.put("strategy", strategy);
+                nodes.add(node);
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("iterations", solution.getIterations());
+            response.put("exploitability", solution.getExploitability());
+            response.put("exploitabilityPotFraction", solution.getExploitability() / request.getPotSize());
+            response.put("deadlineExceeded", solution.isDeadlineExceeded());
+            response.put("seconds", seconds);
+            response.put("oopExpectedValue", solution.expectedValue(0));
+            response.put("ipExpectedValue", solution.expectedValue(1));
+            response.put("hands", hands);
+            response.put("nodes", nodes);
+            return ResponseEntity.ok(response);
+        } catch (SimulationRejectedException e) {
+            metrics.recordError("river", "rejected");
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            metrics.recordError("river", "invalid_input");
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid input"));
+        }
+    }
+
+    /**
+     * Aggregates the hand-history log without leaving the mapped files
+     * @param type "probabilities" or "showdown"
+     * @param numPlayers only records with this many players (0 = all)
+     * @return record count per street, averages, and the scan rate
+     */
+    @GetMapping("/history/summary")
+    public ResponseEntity<Map<String, Object>> historySummary(@RequestParam(defaultValue = "probabilities") String type,
+            @RequestParam(defaultValue = "0") long fromMillis, @RequestParam(defaultValue = "" + Long.MAX_VALUE) long toMillis,
+            @RequestParam(defaultValue = "0") int numPlayers) {
+        int recordType = switch (type) {
+            case "probabilities" -> HandRecord.PROBABILITIES;
+            case "showdown" -> HandRecord.SHOWDOWN;
+            default -> 0;
+        };
+        if (recordType == 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid input"));
+        }
+        return ResponseEntity.ok(history.summarize(recordType, fromMillis, toMillis, numPlayers));
+    }
+
+    /**
+     * 429 response telling the client when to retry
+     */
+    static ResponseEntity<Map<String, Object>> tooManyRequests(SimulationRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", "Too many requests"));
+    }
+
+    /**
+     * Builds the /probabilities JSON body for a spot
+     */
+    static Map<String, Object> toResponse(SpotResult spot) {
+        PokerEVResult result = spot.getEvResult();
+        return Map.of(
+            "probabilities", spot.getProbabilities(),
+            "expectedValue", result.getExpectedValue(),
+            "winProbability", result.getWinProbability(),
+            "tieProbability", result.getTieProbability(),
+            "mode", result.getMode(),
+            "trials", result.getTrials(),
+            "standardError", result.getStandardError(),
+            "effectiveTrials", result.getEffectiveTrials(),
+            "confidenceInterval", List.of(result.getConfidenceLow(), result.getConfidenceHigh()),
+            "deadlineExceeded", spot.isDeadlineExceeded()
+        );
+    }
+
     @CrossOrigin(origins = "http://localhost:3000")
     @PostMapping("/evaluate-winner")
     public ResponseEntity<Map<String, Object>> evaluateWinner(@RequestBody WinnerRequest request) {
+        long start = System.nanoTime();
         try {
-            List<String> communityCodes = request.getCommunity();
-        List<Card> community = CardParser.parseList(communityCodes);
-
-        List<List<String>> playerCodes = request.getPlayers();
-        int bestIdx = 0;
-        int bestRank = -1;
-
-        for (int i = 0; i < playerCodes.size(); i++) {
-            List<Card> playerHand = CardParser.parseList(playerCodes.get(i));
-            List<Card> all = new ArrayList<>(playerHand);
-            all.addAll(community);
-
-            // Get best 5-card hand
-            List<Card> bestFive = BestFiveCards.bestOf(all);
-            String handRank = PokerHandEvaluator.classifyHand(bestFive);
-            int rank = PokerHandEvaluator.getHandStrength(handRank);
-
-            if (rank > bestRank) {
-                bestRank = rank;
-                bestIdx = i;
+            long community = CardParser.parseSet(request.getCommunity());
+            List<List<String>> playerCodes = request.getPlayers();
+            long[] holeCards = new long[playerCodes.size()];
+            for (int i = 0; i < holeCards.length; i++) {
+                holeCards[i] = CardParser.parseSet(playerCodes.get(i));
+            }
+
+            // Every hand is ranked against the board once, so kickers and split pots come out exactly
+            ShowdownResult showdown = Showdown.rank(community, holeCards);
+            history.recordShowdown(community, holeCards, showdown, System.nanoTime() - start);
+            List<String> hands = new ArrayList<>();
+            List<List<String>> bestFive = new ArrayList<>();
+            for (int i = 0; i < holeCards.length; i++) {
+                hands.add(SevenCardEvaluator.categoryName(showdown.getRanks()[i]));
+                bestFive.add(CardParser.formatSet(showdown.getBestFive()[i]));
             }
-        }
 
-        return ResponseEntity.ok(Map.of("winner", bestIdx));
-    } catch (Exception e) {
-        return ResponseEntity.badRequest().body(Map.of("error", "Invalid input"));
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("winner", showdown.getWinners().get(0));
+            response.put("winners", showdown.getWinners());
+            response.put("order", showdown.getOrder());
+            response.put("groups", showdown.getGroups());
+            response.put("ranks", showdown.getRanks());
+            response.put("hands", hands);
+            response.put("bestFive", bestFive);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            metrics.recordError("evaluate-winner", "invalid_input");
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid input"));
+        }
     }
-}
     
 }
 
@@ -1,14 +1,54 @@
 package com.sraddhasurya.poker;
 
 public class PokerEVResult {
+    public static final String MONTE_CARLO = "monte-carlo";
+    public static final String EXACT = "exact";
+    public static final String PRECOMPUTED = "precomputed";
+
+    // Normal quantile for a 95% confidence interval
+    private static final double Z_95 = 1.96;
+
     private final double winProbability;
     private final double tieProbability;
         private final double expectedValue;
+    private final String mode;      // How the probabilities were computed, MONTE_CARLO, EXACT or PRECOMPUTED
+    private final long trials;      // Trials sampled (per spot for PRECOMPUTED), or combinations enumerated in EXACT mode
+    private final double standardError;     // Standard error of winProbability, 0 when exact
+    private final double[] handDistribution;    // Final hand category chances found along the way, or null
 
     public PokerEVResult(double winProbability, double tieProbability, double expectedValue) {
+        this(winProbability, tieProbability, expectedValue, MONTE_CARLO, 0, 0.0);
+    }
+
+    public PokerEVResult(double winProbability, double tieProbability, double expectedValue, String mode, long trials, double standardError) {
+        this(winProbability, tieProbability, expectedValue, mode, trials, standardError, null);
+    }
+
+    public PokerEVResult(double winProbability, double tieProbability, double expectedValue, String mode, long trials, double standardError, double[] handDistribution) {
         this.winProbability = winProbability;
         this.tieProbability = tieProbability;
         this.expectedValue = expectedValue;
+        this.mode = mode;
+        this.trials = trials;
+        this.standardError = standardError;
+        this.handDistribution = handDistribution;
+    }
+
+    /**
+     * EV of putting in the call and raise for a share of the pot, given win and tie probabilities
+     */
+    public static double expectedValue(double winProbability, double tieProbability, int potSize, int callAmount, int raiseAmount) {
+        int totalContribution = callAmount + raiseAmount;
+        int totalPot = potSize + totalContribution;
+        return (winProbability * totalPot) + (tieProbability * totalPot / 2) - totalContribution;
+    }
+
+    /**
+     * Same probabilities with the EV recomputed for other bet amounts
+     */
+    public PokerEVResult withAmounts(int potSize, int callAmount, int raiseAmount) {
+        double ev = expectedValue(winProbability, tieProbability, potSize, callAmount, raiseAmount);
+        return new PokerEVResult(winProbability, tieProbability, ev, mode, trials, standardError, handDistribution);
     }
 
     public double getWinProbability() {
@@ -22,4 +62,48 @@ public class PokerEVResult {
     public double getExpectedValue() {
         return expectedValue;
     }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public long getTrials() {
+        return trials;
+    }
+
+    public double getStandardError() {
+        return standardError;
+    }
+
+    /**
+     * Exact chance of finishing with each hand category (indexed by SevenCardEvaluator category) when the
+     * EV was enumerated exactly, null otherwise
+     */
+    public double[] getHandDistribution() {
+        return handDistribution;
+    }
+
+    /**
+     * Trials of independent uniform sampling that would give the same standard error: the trial count
+     * itself for uniform sampling, more when stratified or quasi-random sampling paid off. Equal to the
+     * trial count when the error is 0 (exact, or every trial came out the same)
+     */
+    public long getEffectiveTrials() {
+        if (standardError == 0) return trials;
+        return Math.round(winProbability * (1 - winProbability) / (standardError * standardError));
+    }
+
+    /**
+     * Lower end of the 95% confidence interval on the win probability
+     */
+    public double getConfidenceLow() {
+        return Math.max(0.0, winProbability - Z_95 * standardError);
+    }
+
+    /**
+     * Upper end of the 95% confidence interval on the win probability
+     */
+    public double getConfidenceHigh() {
+        return Math.min(1.0, winProbability + Z_95 * standardError);
+    }
 }
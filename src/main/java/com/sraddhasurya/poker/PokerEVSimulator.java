@@ -1,14 +1,55 @@
 package com.sraddhasurya.poker;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Simulates poker hands to estimate the expected value using Monte Carlo trials
+ *
+ * Trials are cut into fixed-size batches that run in parallel on the ForkJoin pool. Every batch draws
+ * from its own SplittableRandom, split off a root generator in batch order, and counts wins and ties
+ * locally; the counts are summed at the end. Because the batches and their random streams don't depend
+ * on how many workers run them, a seeded simulation gives the same result on any number of cores
+ *
+ * With STRATIFIED or QUASI_RANDOM sampling each batch deals its trials from its own shifted
+ * low-discrepancy sequence (QuasiRandomDeal). The batches are then independent estimates, and the
+ * standard error comes from how far their win rates spread rather than from the binomial formula
+ *
+ * Ranged opponents are dealt seat by seat, each from the combos the earlier seats left live, and the
+ * trial is weighted by the product of those live shares of each range's weight (sequential importance
+ * sampling), so wins and ties are weighted sums and the win rate is weighted wins over total weight.
+ * Unranged trials weigh 1, so the sums are plain counts
  */
 public class PokerEVSimulator {
 
-    private static final String[] SUITS = {"Hearts", "Diamonds", "Clubs", "Spades"};
-    private static final int[] RANKS = {2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14};
+    // Trials per parallel batch, fixed so the seeded random streams don't depend on the core count
+    static final int TRIALS_PER_BATCH = 256;
+    // Batches between precision and time checks when stopping early
+    static final int BATCHES_PER_ROUND = 16;
+
+    // Spots with at most this many runout and opponent hand combinations are enumerated exactly
+    public static final long DEFAULT_MAX_EXACT_COMBINATIONS = 2_000_000;
+
+    // Ranged deals that run out of live combos in a seat before giving up on a trial, and search steps
+    // spent looking for one compatible deal before trusting the sampler to find them
+    static final int MAX_RANGE_DEALS = 100_000;
+    static final int MAX_DEALABLE_STEPS = 1_000_000;
+
+    // Hands ranked per HandBatch pass when batches are vectorized (whole trials, so up to this many): a
+    // multiple of 16 lanes and of a 9-handed table, so few hands are left over for the scalar tail
+    static final int BATCH_HANDS = 144;
+
+    // Weighted wins, ties and total trial weight, then per-batch sums for the spread of the batches'
+    // win rates: wins squared, wins times weight, weight squared, and the batch count
+    static final int WINS = 0;
+    static final int TIES = 1;
+    static final int WEIGHT = 2;
+    private static final int WINS_SQUARED = 3;
+    private static final int WINS_BY_WEIGHT = 4;
+    private static final int WEIGHT_SQUARED = 5;
+    private static final int BATCHES = 6;
+    static final int SUMS = 7;
 
     /**
      * Runs a Monte Carlo simulation to estimate the expected value of calling a bet
@@ -22,46 +63,369 @@ public class PokerEVSimulator {
      * @return estimated EV of calling the bet
      */
     public static PokerEVResult simulateEV(List<Card> holeCards, List<Card> communityCards, int potSize, int callAmount,int raiseAmount, int numTrials, int numPlayers) {
-        int winCount = 0;
-        int tieCount = 0;
-        int totalContribution=callAmount+raiseAmount;
-        int totalPot=potSize+totalContribution;
+        return simulateEV(CardSet.of(holeCards), CardSet.of(communityCards), potSize, callAmount, raiseAmount, numTrials, numPlayers, null);
+    }
 
-        for (int i = 0; i < numTrials; i++) {
-            List<Card> deck = createDeck();
-            deck.removeAll(holeCards);
-            deck.removeAll(communityCards);
+    /**
+     * Same simulation on primitive card sets
+     *
+     * @param holeCards      card set of the player's two hole cards
+     * @param communityCards card set of the current community cards
+     * @param seed           random seed for a reproducible result, or null for a fresh one
+     */
+    public static PokerEVResult simulateEV(long holeCards, long communityCards, int potSize, int callAmount, int raiseAmount, int numTrials, int numPlayers, Long seed) {
+        return simulateEV(holeCards, communityCards, potSize, callAmount, raiseAmount, numTrials, numPlayers, seed, DEFAULT_MAX_EXACT_COMBINATIONS);
+    }
+
+    /**
+     * Computes the EV exactly when there are at most maxExactCombinations (runout, opponent hands)
+     * combinations to enumerate, otherwise estimates it with numTrials Monte Carlo trials
+     *
+     * @param maxExactCombinations largest combination count to enumerate exactly, 0 to always sample
+     */
+    public static PokerEVResult simulateEV(long holeCards, long communityCards, int potSize, int callAmount, int raiseAmount, int numTrials, int numPlayers, Long seed, long maxExactCombinations) {
+        SimulationOptions options = new SimulationOptions(numTrials);
+        options.setSeed(seed);
+        options.setMaxExactCombinations(maxExactCombinations);
+        return simulateEV(holeCards, communityCards, potSize, callAmount, raiseAmount, numPlayers, options);
+    }
+
+    /**
+     * Computes the EV exactly for small spots, otherwise samples it. With a target standard error or a
+     * time budget in the options the trials run in rounds, stopping after the first round that reaches
+     * the target or runs out of time; without either exactly numTrials trials are run. A listener in
+     * the options gets the running estimate between rounds and can cancel the simulation
+     *
+     * @param options trial count, stopping rules, seed, sampling and exact-enumeration threshold
+     */
+    public static PokerEVResult simulateEV(long holeCards, long communityCards, int potSize, int callAmount, int raiseAmount, int numPlayers, SimulationOptions options) {
+        int maxTrials = options.isAdaptive() ? options.getMaxTrials() : options.getNumTrials();
+        if (maxTrials <= 0) {
+            throw new IllegalArgumentException("Number of trials must be positive.");
+        }
+        RangeSampler[] ranges = rangeSamplers(holeCards | communityCards, numPlayers, options.getOpponentRanges());
+        // Enumeration deals opponents uniformly, so ranged spots are always sampled
+        if (ranges == null && ExactEquity.combinations(holeCards, communityCards, numPlayers) <= options.getMaxExactCombinations()) {
+            long[] counts = ExactEquity.enumerate(holeCards, communityCards, numPlayers);
+            long total = counts[2];
+            double[] handDistribution = HandDistribution.normalize(Arrays.copyOfRange(counts, ExactEquity.CATEGORY_OFFSET, counts.length));
+            double winProb = counts[0] / (double) total;
+            double tieProb = counts[1] / (double) total;
+            double ev = PokerEVResult.expectedValue(winProb, tieProb, potSize, callAmount, raiseAmount);
+            return new PokerEVResult(winProb, tieProb, ev, PokerEVResult.EXACT, total, 0.0, handDistribution);
+        }
+
+        SimulationListener listener = options.getListener();
+        long deadline = deadline(options);
+        int roundTrials = options.isIncremental() ? roundTrials(options) : maxTrials;
+        SplittableRandom root = options.getSeed() == null ? new SplittableRandom() : new SplittableRandom(options.getSeed());
+        Sampling sampling = options.getSampling();
+        boolean batchSpread = sampling != Sampling.UNIFORM || ranges != null;
+
+        double[] sums = new double[SUMS];
+        long total = 0;
+        long reportedTrials = 0;
+        long reportedAt = System.nanoTime();
+        while (total < maxTrials) {
+            int trials = (int) Math.min(roundTrials, maxTrials - total);
 
-            Collections.shuffle(deck, new Random());
+            // One random stream per batch, split in batch order so a seed fixes every stream
+            int numBatches = (trials + TRIALS_PER_BATCH - 1) / TRIALS_PER_BATCH;
+            SplittableRandom[] streams = new SplittableRandom[numBatches];
+            for (int b = 0; b < numBatches; b++) {
+                streams[b] = root.split();
+            }
 
-            // Deal hole cards to all opponents
-            List<List<Card>> opponents = new ArrayList<>();
-            for (int p = 0; p < numPlayers - 1; p++) {
-                List<Card> opponentHole = Arrays.asList(deck.remove(0), deck.remove(0));
-                opponents.add(opponentHole);
+            double[] counts = new TrialBatches(holeCards, communityCards, numPlayers, ranges, sampling, false, trials, streams, listener, 0, numBatches).invoke();
+            // Batches skipped after a cancel leave the round incomplete, so it is dropped
+            if (listener != null && listener.isCancelled()) break;
+            for (int i = 0; i < SUMS; i++) {
+                sums[i] += counts[i];
             }
+            total += trials;
+
+            Double target = options.getTargetStandardError();
+            long now = System.nanoTime();
+            if (total >= maxTrials || (target != null && standardError(sums, total, batchSpread) <= target) || now >= deadline) break;
 
-            // Complete the community cards
-            List<Card> fullBoard = new ArrayList<>(communityCards);
-            while (fullBoard.size() < 5) {
-                fullBoard.add(deck.remove(0));
+            if (listener != null && isReportDue(options, total - reportedTrials, now - reportedAt)) {
+                listener.onProgress(monteCarloResult(sums, total, batchSpread, potSize, callAmount, raiseAmount));
+                reportedTrials = total;
+                reportedAt = now;
             }
+        }
+        if (total == 0) {
+            throw new CancellationException("Simulation cancelled before any trials completed");
+        }
+        return monteCarloResult(sums, total, batchSpread, potSize, callAmount, raiseAmount);
+    }
+
+    /**
+     * Win, tie and EV at every table size from 2 to maxPlayers players in one simulation: each trial
+     * deals maxPlayers - 1 opponents and scores the player against the first k of them for every k, so
+     * the tables are nested and cost about as much as the largest one alone. Ranged opponents keep
+     * their seats, so opponent p sits at tables of p + 2 players or more. Spots small enough to
+     * enumerate at the largest size are enumerated exactly at every size instead
+     *
+     * Nesting needs the seats past a table to leave its hands alone, which holds for random hands
+     * but not ranged ones: dealing a ranged seat takes its cards out of everyone else's deck. So a
+     * table too small to seat every ranged opponent gets trials of its own, dealing only its seats
+     *
+     * The trials run in rounds like simulateEV's, every table getting the same trials per round, and
+     * stop once every table reaches the target standard error, the time budget or deadline runs out,
+     * or the trial count is reached. The largest size is what simulateEV gives for the same seed and
+     * stopping rules. Progress listeners and non-uniform sampling don't apply
+     *
+     * @param maxPlayers largest table size, including the user
+     * @return one result per table size, index 0 for heads-up
+     */
+    public static PokerEVResult[] simulateEVByTableSize(long holeCards, long communityCards, int potSize, int callAmount, int raiseAmount, int maxPlayers, SimulationOptions options) {
+        int maxTrials = options.isAdaptive() ? options.getMaxTrials() : options.getNumTrials();
+        if (maxTrials <= 0) {
+            throw new IllegalArgumentException("Number of trials must be positive.");
+        }
+        PokerEVResult[] results = new PokerEVResult[maxPlayers - 1];
+        RangeSampler[] ranges = rangeSamplers(holeCards | communityCards, maxPlayers, options.getOpponentRanges());
+        if (ranges == null && ExactEquity.combinations(holeCards, communityCards, maxPlayers) <= options.getMaxExactCombinations()) {
+            for (int players = 2; players <= maxPlayers; players++) {
+                results[players - 2] = simulateEV(holeCards, communityCards, potSize, callAmount, raiseAmount, players, options);
+            }
+            return results;
+        }
+
+        long deadline = deadline(options);
+        int roundTrials = options.isIncremental() ? roundTrials(options) : maxTrials;
+        SplittableRandom root = options.getSeed() == null ? new SplittableRandom() : new SplittableRandom(options.getSeed());
+        int seated = ranges == null ? 0 : lastRangedSeat(ranges) + 1;
+        boolean batchSpread = ranges != null;
+
+        double[] sums = new double[(maxPlayers - 1) * SUMS];
+        long total = 0;
+        while (total < maxTrials) {
+            int trials = (int) Math.min(roundTrials, maxTrials - total);
+            int numBatches = (trials + TRIALS_PER_BATCH - 1) / TRIALS_PER_BATCH;
+            SplittableRandom[] streams = streams(root, numBatches);
+            double[] counts = new TrialBatches(holeCards, communityCards, maxPlayers, ranges, Sampling.UNIFORM, true, trials,
+                    streams, null, 0, numBatches).invoke();
+            for (int opponents = 1; opponents < maxPlayers; opponents++) {
+                double[] tableCounts = counts;
+                if (opponents < seated) {
+                    // A ranged seat sits past this table, so deal just the table's seats, from streams split
+                    // off the largest table's after it drew, so its trials stay those of simulateEV
+                    RangeSampler[] tableRanges = Arrays.copyOf(ranges, opponents);
+                    if (lastRangedSeat(tableRanges) < 0) tableRanges = null;
+                    tableCounts = new TrialBatches(holeCards, communityCards, opponents + 1, tableRanges, Sampling.UNIFORM, true, trials,
+                            split(streams), null, 0, numBatches).invoke();
+                }
+                int table = (opponents - 1) * SUMS;
+                for (int i = 0; i < SUMS; i++) {
+                    sums[table + i] += tableCounts[table + i];
+                }
+            }
+            total += trials;
+
+            if (total >= maxTrials || System.nanoTime() >= deadline || reachedTarget(sums, total, batchSpread, options.getTargetStandardError())) break;
+        }
+        for (int opponents = 1; opponents < maxPlayers; opponents++) {
+            double[] table = Arrays.copyOfRange(sums, (opponents - 1) * SUMS, opponents * SUMS);
+            results[opponents - 1] = monteCarloResult(table, total, batchSpread, potSize, callAmount, raiseAmount);
+        }
+        return results;
+    }
 
-            // Evaluate player's best hand
-            List<Card> playerSeven = new ArrayList<>(holeCards);
-            playerSeven.addAll(fullBoard);
-            List<Card> bestPlayerHand = BestFiveCards.bestOf(playerSeven);
-            int playerStrength = PokerHandEvaluator.getHandStrength(PokerHandEvaluator.classifyHand(bestPlayerHand));
+    /**
+     * When to stop: the options' deadline or the end of their time budget from now, whichever is first
+     */
+    private static long deadline(SimulationOptions options) {
+        long deadline = options.getTimeBudgetMillis() == null ? Long.MAX_VALUE : System.nanoTime() + options.getTimeBudgetMillis() * 1_000_000L;
+        if (options.getDeadlineNanos() != null) {
+            deadline = Math.min(deadline, options.getDeadlineNanos());
+        }
+        return deadline;
+    }
+
+    private static boolean reachedTarget(double[] sums, long trials, boolean batchSpread, Double target) {
+        if (target == null) return false;
+        for (int table = 0; table < sums.length; table += SUMS) {
+            if (standardError(Arrays.copyOfRange(sums, table, table + SUMS), trials, batchSpread) > target) return false;
+        }
+        return true;
+    }
+
+    // One random stream per batch, split in batch order so a seed fixes every stream
+    private static SplittableRandom[] streams(SplittableRandom root, int numBatches) {
+        SplittableRandom[] streams = new SplittableRandom[numBatches];
+        for (int b = 0; b < numBatches; b++) {
+            streams[b] = root.split();
+        }
+        return streams;
+    }
+
+    // A stream split off each of the given ones, in order
+    private static SplittableRandom[] split(SplittableRandom[] streams) {
+        SplittableRandom[] split = new SplittableRandom[streams.length];
+        for (int b = 0; b < streams.length; b++) {
+            split[b] = streams[b].split();
+        }
+        return split;
+    }
+
+    private static int lastRangedSeat(RangeSampler[] ranges) {
+        int last = ranges.length - 1;
+        while (last >= 0 && ranges[last] == null) last--;
+        return last;
+    }
+
+    /**
+     * Builds one sampler per ranged opponent, or returns null when every opponent is a random hand
+     */
+    private static RangeSampler[] rangeSamplers(long dead, int numPlayers, HandRange[] opponentRanges) {
+        if (opponentRanges == null) return null;
+        if (opponentRanges.length > numPlayers - 1) {
+            throw new IllegalArgumentException("More opponent ranges than opponents.");
+        }
+        RangeSampler[] samplers = new RangeSampler[numPlayers - 1];
+        boolean any = false;
+        for (int p = 0; p < opponentRanges.length; p++) {
+            if (opponentRanges[p] != null) {
+                samplers[p] = new RangeSampler(opponentRanges[p], dead);
+                any = true;
+            }
+        }
+        if (any && !isDealable(samplers)) {
+            throw new IllegalArgumentException("Opponent ranges can't be dealt without sharing cards.");
+        }
+        return any ? samplers : null;
+    }
+
+    /**
+     * Whether some deal gives every ranged opponent a combo without two sharing a card, found by a
+     * depth-first search from the smallest range. A search that runs past MAX_DEALABLE_STEPS is taken
+     * as dealable, leaving dealRanges' retry limit as the last word
+     */
+    static boolean isDealable(RangeSampler[] samplers) {
+        RangeSampler[] ranged = Arrays.stream(samplers).filter(Objects::nonNull)
+                .sorted(Comparator.comparingInt(RangeSampler::size)).toArray(RangeSampler[]::new);
+        return findDeal(ranged, 0, 0L, new int[] {MAX_DEALABLE_STEPS}) != 0;
+    }
+
+    // 1 when the seats from p on can be dealt around the cards used, 0 when they can't, -1 out of steps
+    private static int findDeal(RangeSampler[] ranged, int p, long used, int[] steps) {
+        if (p == ranged.length) return 1;
+        for (int i = 0; i < ranged[p].size(); i++) {
+            if (--steps[0] < 0) return -1;
+            long combo = ranged[p].combo(i);
+            if ((combo & used) != 0) continue;
+            int found = findDeal(ranged, p + 1, used | combo, steps);
+            if (found != 0) return found;
+        }
+        return 0;
+    }
+
+    private static PokerEVResult monteCarloResult(double[] sums, long total, boolean batchSpread, int potSize, int callAmount, int raiseAmount) {
+        double winProb = sums[WINS] / sums[WEIGHT];
+        double tieProb = sums[TIES] / sums[WEIGHT];
+        double ev = PokerEVResult.expectedValue(winProb, tieProb, potSize, callAmount, raiseAmount);
+        return new PokerEVResult(winProb, tieProb, ev, PokerEVResult.MONTE_CARLO, total, standardError(sums, total, batchSpread));
+    }
+
+    /**
+     * Trials per round: the default round, or fewer whole batches when progress is wanted more often
+     */
+    private static int roundTrials(SimulationOptions options) {
+        int round = TRIALS_PER_BATCH * BATCHES_PER_ROUND;
+        Integer every = options.getProgressTrials();
+        if (every != null && every > 0) {
+            round = Math.min(round, (every + TRIALS_PER_BATCH - 1) / TRIALS_PER_BATCH * TRIALS_PER_BATCH);
+        }
+        return round;
+    }
+
+    private static boolean isReportDue(SimulationOptions options, long trialsSince, long nanosSince) {
+        Integer everyTrials = options.getProgressTrials();
+        Long everyMillis = options.getProgressMillis();
+        if (everyTrials == null && everyMillis == null) return true;
+        return (everyTrials != null && trialsSince >= everyTrials)
+                || (everyMillis != null && nanosSince >= everyMillis * 1_000_000L);
+    }
+
+    /**
+     * Standard error of the win probability. Uniform unweighted trials are independent, so it is the
+     * binomial one; with stratified or quasi-random sampling trials within a batch aren't, and with
+     * ranged opponents they carry weights, so then it is the spread of the batches' win rates around
+     * the overall one (a ratio estimate, batches differing in weight)
+     *
+     * @param batchSpread whether to use the spread of the batches
+     */
+    static double standardError(double[] sums, long trials, boolean batchSpread) {
+        double batches = sums[BATCHES];
+        double p = sums[WINS] / sums[WEIGHT];
+        if (!batchSpread || batches < 2) {
+            return Math.sqrt(p * (1 - p) / trials);
+        }
+        double weight = sums[WEIGHT];
+        double squares = sums[WINS_SQUARED] - 2 * p * sums[WINS_BY_WEIGHT] + p * p * sums[WEIGHT_SQUARED];
+        double variance = squares * batches / ((batches - 1) * weight * weight);
+        return Math.sqrt(Math.max(variance, 0.0));
+    }
+
+    /**
+     * Plays a number of trials and adds the weighted wins, ties and total weight to counts[WINS],
+     * counts[TIES] and counts[WEIGHT]
+     *
+     * The deck and opponent array are set up once; each trial only resets the deck and draws the
+     * cards it needs, so the loop itself allocates nothing
+     */
+    static void runTrials(long holeCards, long communityCards, int numPlayers, int numTrials, SplittableRandom random, double[] counts) {
+        runTrials(holeCards, communityCards, numPlayers, null, numTrials, random, counts);
+    }
+
+    /**
+     * Same trials with some opponents' hands drawn from their ranges (null entries are random hands).
+     * Ranged hands are drawn first and their cards then leave the deck before the rest is dealt
+     */
+    static void runTrials(long holeCards, long communityCards, int numPlayers, RangeSampler[] ranges, int numTrials, SplittableRandom random, double[] counts) {
+        if (HandBatch.isVectorized()) {
+            runTrialsInBatches(holeCards, communityCards, numPlayers, ranges, numTrials, random, counts);
+        } else {
+            runTrialsOneByOne(holeCards, communityCards, numPlayers, ranges, numTrials, random, counts);
+        }
+    }
+
+    /**
+     * Same trials dealt as the sampling says: UNIFORM as above, otherwise from a QuasiRandomDeal shifted
+     * by random, so the trials of one call are spread evenly
+     */
+    static void runTrials(long holeCards, long communityCards, int numPlayers, RangeSampler[] ranges, Sampling sampling, int numTrials, SplittableRandom random, double[] counts) {
+        if (sampling == Sampling.UNIFORM) {
+            runTrials(holeCards, communityCards, numPlayers, ranges, numTrials, random, counts);
+        } else {
+            runQuasiRandomTrials(holeCards, communityCards, numPlayers, ranges, sampling, numTrials, random, counts);
+        }
+    }
+
+    /**
+     * Deals and ranks one trial at a time, the board's part of the evaluation shared through a Showdown
+     */
+    static void runTrialsOneByOne(long holeCards, long communityCards, int numPlayers, RangeSampler[] ranges, int numTrials, SplittableRandom random, double[] counts) {
+        int boardSize = CardSet.size(communityCards);
+        Deck deck = new Deck(holeCards | communityCards);
+        long[] opponents = new long[numPlayers - 1];
+        double[] weight = new double[1];
+        Showdown showdown = new Showdown(communityCards);
+
+        for (int i = 0; i < numTrials; i++) {
+            long fullBoard = deal(deck, communityCards, boardSize, ranges, opponents, weight, 0, random);
+
+            // Evaluate player's best hand; the board's part of the evaluation is shared by every player
+            showdown.reset(fullBoard);
+            int playerStrength = showdown.rank(holeCards);
 
             int strongerOpponents = 0;
             int sameStrengthOpponents = 0;
 
-            for (List<Card> opponentHole : opponents) {
-                List<Card> opponentSeven = new ArrayList<>(opponentHole);
-                opponentSeven.addAll(fullBoard);
-
-                List<Card> bestOpponentHand = BestFiveCards.bestOf(opponentSeven);
-                int opponentStrength = PokerHandEvaluator.getHandStrength(PokerHandEvaluator.classifyHand(bestOpponentHand));
+            for (long opponentHole : opponents) {
+                int opponentStrength = showdown.rank(opponentHole);
 
                 if (opponentStrength > playerStrength) {
                     strongerOpponents++;
@@ -70,32 +434,270 @@ public class PokerEVSimulator {
                 }
             }
 
-            if (strongerOpponents == 0) {
-                if (sameStrengthOpponents == 0) {
-                    winCount++;
-                } else {
-                    tieCount++;
+            score(strongerOpponents, sameStrengthOpponents, weight[0], counts, 0);
+        }
+    }
+
+    /**
+     * Deals trials exactly as runTrialsOneByOne does (the same draws in the same order, so a seed gives
+     * the same counts) but queues every player's hand in a HandBatch, ranking up to BATCH_HANDS hands
+     * per SIMD pass before scoring the queued trials
+     */
+    static void runTrialsInBatches(long holeCards, long communityCards, int numPlayers, RangeSampler[] ranges, int numTrials, SplittableRandom random, double[] counts) {
+        int boardSize = CardSet.size(communityCards);
+        Deck deck = new Deck(holeCards | communityCards);
+        long[] opponents = new long[numPlayers - 1];
+        int trialsPerBatch = Math.max(1, BATCH_HANDS / numPlayers);
+        HandBatch batch = new HandBatch(trialsPerBatch * numPlayers);
+        double[] weights = new double[trialsPerBatch];
+
+        for (int done = 0; done < numTrials; ) {
+            int trials = Math.min(trialsPerBatch, numTrials - done);
+            batch.clear();
+            for (int t = 0; t < trials; t++) {
+                long fullBoard = deal(deck, communityCards, boardSize, ranges, opponents, weights, t, random);
+                batch.add(fullBoard | holeCards);
+                for (long opponentHole : opponents) {
+                    batch.add(fullBoard | opponentHole);
+                }
+            }
+            batch.evaluate();
+            scoreBatch(batch, trials, numPlayers, weights, counts);
+            done += trials;
+        }
+    }
+
+    /**
+     * Deals trials from a QuasiRandomDeal and ranks them in a HandBatch (SIMD or not)
+     */
+    static void runQuasiRandomTrials(long holeCards, long communityCards, int numPlayers, RangeSampler[] ranges, Sampling sampling, int numTrials, SplittableRandom random, double[] counts) {
+        QuasiRandomDeal dealer = new QuasiRandomDeal(holeCards | communityCards, CardSet.size(communityCards), ranges, numPlayers - 1, sampling, random);
+        long[] opponents = new long[numPlayers - 1];
+        int trialsPerBatch = Math.max(1, BATCH_HANDS / numPlayers);
+        HandBatch batch = new HandBatch(trialsPerBatch * numPlayers);
+        double[] weights = new double[trialsPerBatch];
+
+        for (int done = 0; done < numTrials; ) {
+            int trials = Math.min(trialsPerBatch, numTrials - done);
+            batch.clear();
+            for (int t = 0; t < trials; t++) {
+                long fullBoard = dealer.deal(communityCards, ranges, opponents);
+                weights[t] = dealer.weight();
+                batch.add(fullBoard | holeCards);
+                for (long opponentHole : opponents) {
+                    batch.add(fullBoard | opponentHole);
+                }
+            }
+            batch.evaluate();
+            scoreBatch(batch, trials, numPlayers, weights, counts);
+            done += trials;
+        }
+    }
+
+    /**
+     * Deals trials exactly as runTrialsInBatches does and scores each against its first k opponents
+     * for every k, adding the weighted wins, ties and total weight with k opponents to the WINS, TIES
+     * and WEIGHT entries of counts[(k - 1) * SUMS ...]
+     */
+    static void runTableSizeTrials(long holeCards, long communityCards, int numPlayers, RangeSampler[] ranges, int numTrials, SplittableRandom random, double[] counts) {
+        int boardSize = CardSet.size(communityCards);
+        Deck deck = new Deck(holeCards | communityCards);
+        long[] opponents = new long[numPlayers - 1];
+        int trialsPerBatch = Math.max(1, BATCH_HANDS / numPlayers);
+        HandBatch batch = new HandBatch(trialsPerBatch * numPlayers);
+        double[] weights = new double[trialsPerBatch];
+
+        for (int done = 0; done < numTrials; ) {
+            int trials = Math.min(trialsPerBatch, numTrials - done);
+            batch.clear();
+            for (int t = 0; t < trials; t++) {
+                long fullBoard = deal(deck, communityCards, boardSize, ranges, opponents, weights, t, random);
+                batch.add(fullBoard | holeCards);
+                for (long opponentHole : opponents) {
+                    batch.add(fullBoard | opponentHole);
                 }
             }
+            batch.evaluate();
+
+            for (int t = 0; t < trials; t++) {
+                int slot = t * numPlayers;
+                int playerStrength = batch.value(slot);
+                int sameStrengthOpponents = 0;
+                for (int p = 1; p < numPlayers; p++) {
+                    counts[(p - 1) * SUMS + WEIGHT] += weights[t];
+                }
+                // Once an opponent is stronger every larger table is lost too
+                for (int p = 1; p < numPlayers; p++) {
+                    int opponentStrength = batch.value(slot + p);
+                    if (opponentStrength > playerStrength) break;
+                    if (opponentStrength == playerStrength) sameStrengthOpponents++;
+                    counts[(p - 1) * SUMS + (sameStrengthOpponents == 0 ? WINS : TIES)] += weights[t];
+                }
+            }
+            done += trials;
         }
+    }
 
-        double winProb = winCount / (double) numTrials;
-        double tieProb = tieCount / (double) numTrials;
-        double ev = (winProb * totalPot) + (tieProb * totalPot / 2) - totalContribution;
+    // Scores ranked trials, each trial's player hand followed by its opponents' hands
+    private static void scoreBatch(HandBatch batch, int trials, int numPlayers, double[] weights, double[] counts) {
+        int slot = 0;
+        for (int t = 0; t < trials; t++) {
+            int playerStrength = batch.value(slot++);
+            int strongerOpponents = 0;
+            int sameStrengthOpponents = 0;
+            for (int p = 1; p < numPlayers; p++) {
+                int opponentStrength = batch.value(slot++);
+                if (opponentStrength > playerStrength) {
+                    strongerOpponents++;
+                } else if (opponentStrength == playerStrength) {
+                    sameStrengthOpponents++;
+                }
+            }
+            score(strongerOpponents, sameStrengthOpponents, weights[t], counts, 0);
+        }
+    }
 
-        return new PokerEVResult(winProb, tieProb, ev);
+    /**
+     * Deals one trial: the ranged opponents, then every other opponent's hole cards, then the rest of
+     * the board
+     *
+     * @param opponents filled with each opponent's hole cards
+     * @param weights   weights[trial] is set to the trial's weight (dealRanges), 1 without ranges
+     * @return card set of the complete five-card board
+     */
+    static long deal(Deck deck, long communityCards, int boardSize, RangeSampler[] ranges, long[] opponents, double[] weights, int trial, SplittableRandom random) {
+        deck.reset();
+
+        weights[trial] = 1.0;
+        if (ranges != null) {
+            weights[trial] = dealRanges(ranges, opponents, random);
+            for (int p = 0; p < ranges.length; p++) {
+                if (ranges[p] == null) continue;
+                deck.remove(CardSet.first(opponents[p]));
+                deck.remove(CardSet.first(opponents[p] & (opponents[p] - 1)));
+            }
+        }
+
+        // Deal hole cards to all opponents without a range
+        for (int p = 0; p < opponents.length; p++) {
+            if (ranges == null || ranges[p] == null) {
+                opponents[p] = CardSet.bit(deck.draw(random)) | CardSet.bit(deck.draw(random));
+            }
+        }
+
+        // Complete the community cards
+        long fullBoard = communityCards;
+        for (int k = boardSize; k < 5; k++) {
+            fullBoard |= CardSet.bit(deck.draw(random));
+        }
+        return fullBoard;
+    }
+
+    // A trial is won when no opponent is stronger and none is as strong, tied when some are as strong
+    private static void score(int strongerOpponents, int sameStrengthOpponents, double weight, double[] counts, int at) {
+        counts[at + WEIGHT] += weight;
+        if (strongerOpponents == 0) {
+            if (sameStrengthOpponents == 0) {
+                counts[at + WINS] += weight;
+            } else {
+                counts[at + TIES] += weight;
+            }
+        }
+    }
+
+    /**
+     * Draws a hand for every ranged opponent in seat order, each from the combos of its range the
+     * earlier seats left live. That favours the hands of earlier seats over the joint distribution
+     * (each deal in proportion to the product of its hands' weights) by the inverse of the live shares,
+     * so the deal is weighted by their product to undo it. A seat left without a live combo starts
+     * the deal over, which only scales every weight alike
+     *
+     * @return the deal's weight, the product of each seat's live share of its range
+     * @throws IllegalArgumentException if MAX_RANGE_DEALS deals in a row run out of combos
+     */
+    static double dealRanges(RangeSampler[] ranges, long[] opponents, SplittableRandom random) {
+        for (int attempt = 0; attempt < MAX_RANGE_DEALS; attempt++) {
+            long dealt = 0L;
+            double weight = 1.0;
+            int p = 0;
+            for (; p < ranges.length; p++) {
+                if (ranges[p] == null) continue;
+                double share = ranges[p].liveShare(dealt);
+                long hand = share > 0 ? ranges[p].sample(random, dealt, share) : 0L;
+                if (hand == 0) break;
+                weight *= share;
+                dealt |= hand;
+                opponents[p] = hand;
+            }
+            if (p == ranges.length) return weight;
+        }
+        throw new IllegalArgumentException("Opponent ranges can't be dealt without sharing cards.");
     }
 
     /**
-     * Builds a full 52-card deck
+     * Fork/join task over a range of trial batches, returning the SUMS, or by table size the SUMS of
+     * every table size one after another (runTableSizeTrials)
      */
-    private static List<Card> createDeck() {
-        List<Card> deck = new ArrayList<>();
-        for (String suit : SUITS) {
-            for (int rank : RANKS) {
-                deck.add(new Card(suit, rank));
+    private static final class TrialBatches extends RecursiveTask<double[]> {
+        private final long holeCards;
+        private final long communityCards;
+        private final int numPlayers;
+        private final RangeSampler[] ranges;
+        private final Sampling sampling;
+        private final boolean byTableSize;
+        private final int numTrials;
+        private final SplittableRandom[] streams;
+        private final SimulationListener listener;
+        private final int from;
+        private final int to;
+
+        TrialBatches(long holeCards, long communityCards, int numPlayers, RangeSampler[] ranges, Sampling sampling, boolean byTableSize, int numTrials, SplittableRandom[] streams, SimulationListener listener, int from, int to) {
+            this.holeCards = holeCards;
+            this.communityCards = communityCards;
+            this.numPlayers = numPlayers;
+            this.ranges = ranges;
+            this.sampling = sampling;
+            this.byTableSize = byTableSize;
+            this.numTrials = numTrials;
+            this.streams = streams;
+            this.listener = listener;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from == 1) {
+                int tables = byTableSize ? numPlayers - 1 : 1;
+                double[] counts = new double[tables * SUMS];
+                if (listener != null && listener.isCancelled()) return counts;
+                int trials = Math.min(TRIALS_PER_BATCH, numTrials - from * TRIALS_PER_BATCH);
+                if (byTableSize) {
+                    runTableSizeTrials(holeCards, communityCards, numPlayers, ranges, trials, streams[from], counts);
+                } else {
+                    runTrials(holeCards, communityCards, numPlayers, ranges, sampling, trials, streams[from], counts);
+                }
+                for (int table = 0; table < counts.length; table += SUMS) {
+                    double wins = counts[table + WINS];
+                    double weight = counts[table + WEIGHT];
+                    counts[table + WINS_SQUARED] = wins * wins;
+                    counts[table + WINS_BY_WEIGHT] = wins * weight;
+                    counts[table + WEIGHT_SQUARED] = weight * weight;
+                    counts[table + BATCHES] = 1;
+                }
+                return counts;
+            }
+
+            int mid = (from + to) >>> 1;
+            TrialBatches left = new TrialBatches(holeCards, communityCards, numPlayers, ranges, sampling, byTableSize, numTrials, streams, listener, from, mid);
+            TrialBatches right = new TrialBatches(holeCards, communityCards, numPlayers, ranges, sampling, byTableSize, numTrials, streams, listener, mid, to);
+            left.fork();
+            double[] counts = right.compute();
+            double[] leftCounts = left.join();
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += leftCounts[i];
             }
+            return counts;
         }
-        return deck;
     }
 }
@@ -1,7 +1,6 @@
 package com.sraddhasurya.poker;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Evaluates and classifies 5 card poker hands, assigns numerical strengths for comparison 
@@ -26,37 +25,7 @@ public class PokerHandEvaluator {
      * @return
      */
     public static String classifyHand(List<Card> hand) {
-        List<Integer> values = hand.stream().map(Card::getNumber).sorted().collect(Collectors.toList());
-        List<String> suits = hand.stream().map(Card::getSuit).collect(Collectors.toList());
-        Map<Integer, Long> counts = values.stream().collect(Collectors.groupingBy(v -> v, Collectors.counting()));      // Counts how many times each card value appears 
-        Collection<Long> freqs = counts.values();
-
-        boolean isFlush = new HashSet<>(suits).size() == 1;
-        boolean isStraight = isConsecutive(values);
-
-        // Determines the hand ranking based on patterns 
-        if (isFlush && isStraight) return "Straight Flush";
-        if (freqs.contains(4L)) return "Four of a Kind";
-        if (freqs.contains(3L) && freqs.contains(2L)) return "Full House";
-        if (isFlush) return "Flush";
-        if (isStraight) return "Straight";
-        if (freqs.contains(3L)) return "Three of a Kind";
-        if (Collections.frequency(freqs, 2L) == 2) return "Two Pair";
-        if (freqs.contains(2L)) return "One Pair";
-        return "High Card";
-    }
-
-    /**
-     * Checks whether a list of card values contains a straight 
-     */
-    private static boolean isConsecutive(List<Integer> values) {
-        Set<Integer> set = new TreeSet<>(values);
-        List<Integer> list = new ArrayList<>(set);
-        for (int i = 0; i <= list.size() - 5; i++) {
-            if (list.get(i + 4) - list.get(i) == 4) return true;
-        }
-        // Ace-low straight
-        return set.containsAll(Set.of(2, 3, 4, 5, 14));
+        return SevenCardEvaluator.categoryName(SevenCardEvaluator.evaluate(hand));
     }
 
     public static int getHandStrength(String hand) {
@@ -0,0 +1,149 @@
+package com.sraddhasurya.poker;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Micrometer meters for the equity hot path, exported through Actuator (/actuator/prometheus)
+ *
+ * poker.equity           timer per street and cache hit/miss, the latency of every spot lookup
+ * poker.simulation       timer per street and mode, the time spent computing a cache miss
+ * poker.simulation.trials summary per street and mode, trials (or combinations) per computed spot
+ * poker.trials           counter of Monte Carlo trials and exact combinations, rate() gives trials/sec
+ * poker.evaluations      counter of seven-card evaluations, rate() gives evals/sec
+ * poker.errors           counter per endpoint and reason (invalid_input, rejected)
+ * poker.scheduler.*      simulation pool size, running, queue depth, utilization and rejections
+ * executor.*, cache.*    batch worker pool and spot cache, from Micrometer's binders
+ *
+ * Per-endpoint latency comes from Spring's http.server.requests timer. The simulator itself stays
+ * free of framework code, so it is measured from EquityService, which gets every result
+ */
+@Component
+public class PokerMetrics {
+    private final MeterRegistry registry;
+
+    public PokerMetrics(MeterRegistry registry, SimulationScheduler scheduler) {
+        this.registry = registry;
+
+        Gauge.builder("poker.scheduler.parallelism", scheduler, SimulationScheduler::getParallelism)
+                .description("Threads in the simulation pool").register(registry);
+        Gauge.builder("poker.scheduler.running", scheduler, SimulationScheduler::getRunning)
+                .description("Simulations running").register(registry);
+        Gauge.builder("poker.scheduler.queue.depth", scheduler, SimulationScheduler::getQueueDepth)
+                .description("Simulations admitted and waiting for a thread").register(registry);
+        Gauge.builder("poker.scheduler.queue.capacity", scheduler, SimulationScheduler::getQueueCapacity)
+                .register(registry);
+        Gauge.builder("poker.scheduler.utilization", scheduler, s -> s.getRunning() / (double) s.getParallelism())
+                .description("Share of simulation threads busy").register(registry);
+        FunctionCounter.builder("poker.scheduler.rejected", scheduler, SimulationScheduler::getRejected)
+                .description("Simulations turned away with 429").register(registry);
+        FunctionCounter.builder("poker.scheduler.completed", scheduler, SimulationScheduler::getCompleted)
+                .register(registry);
+        FunctionCounter.builder("poker.scheduler.deadline.exceeded", scheduler, SimulationScheduler::getDeadlinesExceeded)
+                .description("Simulations cut short by their deadline").register(registry);
+    }
+
+    /**
+     * Names the street from the number of community cards
+     */
+    static String street(long communityCards) {
+        return switch (CardSet.size(communityCards)) {
+            case 0 -> "preflop";
+            case 3 -> "flop";
+            case 4 -> "turn";
+            case 5 -> "river";
+            default -> "other";
+        };
+    }
+
+    void monitorCache(Cache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+
+    /**
+     * Wraps an executor so its pool size, active threads and queued tasks are measured
+     */
+    ExecutorService monitorExecutor(ExecutorService executor, String name) {
+        return ExecutorServiceMetrics.monitor(registry, executor, name);
+    }
+
+    /**
+     * Records one spot lookup, served from the cache or computed
+     */
+    void recordLookup(long communityCards, boolean cached, long nanos) {
+        Timer.builder("poker.equity")
+                .description("Latency of equity lookups")
+                .tag("street", street(communityCards))
+                .tag("cache", cached ? "hit" : "miss")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(Duration.ofNanos(nanos));
+    }
+
+    /**
+     * Records a computed spot: its time, trials and seven-card evaluations
+     */
+    void recordSimulation(long holeCards, long communityCards, int numPlayers, PokerEVResult result, long nanos) {
+        String street = street(communityCards);
+        String mode = result.getMode();
+        Timer.builder("poker.simulation")
+                .description("Time to compute a spot")
+                .tag("street", street)
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(Duration.ofNanos(nanos));
+        if (mode.equals(PokerEVResult.PRECOMPUTED)) return;
+
+        DistributionSummary.builder("poker.simulation.trials")
+                .description("Trials, or combinations when exact, per computed spot")
+                .tag("street", street)
+                .tag("mode", mode)
+                .register(registry)
+                .record(result.getTrials());
+        Counter.builder("poker.trials").tag("mode", mode).register(registry).increment(result.getTrials());
+        Counter.builder("poker.evaluations").tag("mode", mode).register(registry)
+                .increment(evaluations(holeCards, communityCards, numPlayers, result));
+    }
+
+    /**
+     * Seven-card evaluations behind a result: one per player per trial when sampling; when exact, one
+     * for the player plus one per possible opponent hand for every runout
+     */
+    static double evaluations(long holeCards, long communityCards, int numPlayers, PokerEVResult result) {
+        if (result.getMode().equals(PokerEVResult.MONTE_CARLO)) {
+            return (double) result.getTrials() * numPlayers;
+        }
+        int unseen = CardSet.DECK_SIZE - CardSet.size(holeCards | communityCards);
+        int toReveal = 5 - CardSet.size(communityCards);
+        double opponentHands = numPlayers > 1 ? ExactEquity.choose(unseen - toReveal, 2) : 0;
+        return ExactEquity.choose(unseen, toReveal) * (1 + opponentHands);
+    }
+
+    /**
+     * Counts a failed request
+     *
+     * @param reason invalid_input or rejected
+     */
+    public void recordError(String endpoint, String reason) {
+        Counter.builder("poker.errors")
+                .description("Requests that failed")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+}
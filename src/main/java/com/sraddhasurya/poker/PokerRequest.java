@@ -6,12 +6,29 @@ import java.util.List;
  * Represents the request body structure sent from frontend to backend when calculating poker probabilities and EV
  */
 public class PokerRequest {
+    private String id;      // Optional, echoed back to tag results in batch responses
     private List<String> holeCards;
     private List<String> communityCards;
     private int potSize;
     private int callAmount;
     private int numPlayers;
     private int raiseAmount;
+    private List<String> opponentRanges;    // Optional, one range per opponent (e.g. "QQ+, AKs, 76s-54s:0.5"), blank = random hand
+    private Long seed;      // Optional, makes the simulation reproducible
+    private String sampling;        // Optional, "uniform" (default), "stratified" or "quasi-random" deals
+    private Double targetStandardError;     // Optional, stop once the win probability's standard error is this small
+    private Long timeBudgetMillis;          // Optional, stop sampling after this long
+    private Long deadlineMillis;            // Optional, answer with the estimate so far after this long (default poker.scheduler.deadline)
+    private Integer progressTrials;         // Optional, streamed estimates at least this many trials apart
+    private Long progressMillis;            // Optional, or at least this long apart
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
 
     public int getNumPlayers() {
         return numPlayers;
@@ -49,12 +66,59 @@ public class PokerRequest {
     public void setCallAmount(int callAmount){
         this.callAmount=callAmount;
     }
-    public void setRaiseAmount(){
+    public void setRaiseAmount(int raiseAmount){
         this.raiseAmount=raiseAmount;
     }
     public int getRaiseAmount(){
         return raiseAmount;
     }
+    public List<String> getOpponentRanges() {
+        return opponentRanges;
+    }
+    public void setOpponentRanges(List<String> opponentRanges) {
+        this.opponentRanges = opponentRanges;
+    }
+    public Long getSeed() {
+        return seed;
+    }
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+    public String getSampling() {
+        return sampling;
+    }
+    public void setSampling(String sampling) {
+        this.sampling = sampling;
+    }
+    public Double getTargetStandardError() {
+        return targetStandardError;
+    }
+    public void setTargetStandardError(Double targetStandardError) {
+        this.targetStandardError = targetStandardError;
+    }
+    public Long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+    public void setTimeBudgetMillis(Long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+    public Long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+    public void setDeadlineMillis(Long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+    public Integer getProgressTrials() {
+        return progressTrials;
+    }
+    public void setProgressTrials(Integer progressTrials) {
+        this.progressTrials = progressTrials;
+    }
+    public Long getProgressMillis() {
+        return progressMillis;
+    }
+    public void setProgressMillis(Long progressMillis) {
+        this.progressMillis = progressMillis;
+    }
     
 }
-
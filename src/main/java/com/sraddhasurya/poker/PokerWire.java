@@ -0,0 +1,194 @@
+package com.sraddhasurya.poker;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Binary encoding of /probabilities requests and results, for clients sending Content-Type and Accept
+ * application/x-poker instead of JSON
+ *
+ * Frames are fixed width and big-endian, so a body of n request frames is answered by n result
+ * frames in the same order (a body of one frame is a single request). Cards are one byte each
+ * (the 0..51 card index, 0xFF for none), so a frame decodes straight into card sets.
+ *
+ * Request frame, 56 bytes:
+ *   0  version (1)          1  flags: 1 seed, 2 deadlineMillis, 4 targetStandardError, 8 timeBudgetMillis
+ *   2  numPlayers           3  unused
+ *   4  hole cards (2 bytes), board cards (5 bytes)       11  unused
+ *  12  potSize, callAmount, raiseAmount (int32 each)
+ *  24  seed (int64)        32  deadlineMillis (int64)
+ *  40  targetStandardError (float64)                    48  timeBudgetMillis (int64)
+ *
+ * Result frame, 88 bytes:
+ *   0  status: 0 ok, 1 invalid input, 2 too many requests
+ *   1  mode: 0 monte-carlo, 1 exact, 2 precomputed       2  flags: 1 deadline exceeded     3  unused
+ *   4  retry after seconds (int32, status 2 only)
+ *   8  trials (int64)
+ *  16  winProbability, tieProbability, expectedValue, standardError (float64 each)
+ *  48  hand category probabilities, High Card ... Straight Flush (9 x float32)        84  unused
+ */
+public final class PokerWire {
+
+    public static final String MEDIA_TYPE = "application/x-poker";
+    public static final int VERSION = 1;
+    public static final int REQUEST_BYTES = 56;
+    public static final int RESULT_BYTES = 88;
+
+    public static final int FLAG_SEED = 1;
+    public static final int FLAG_DEADLINE = 2;
+    public static final int FLAG_TARGET_ERROR = 4;
+    public static final int FLAG_TIME_BUDGET = 8;
+
+    public static final int OK = 0;
+    public static final int INVALID_INPUT = 1;
+    public static final int TOO_MANY_REQUESTS = 2;
+
+    private static final int NO_CARD = 0xFF;
+    private static final String[] MODES = {PokerEVResult.MONTE_CARLO, PokerEVResult.EXACT, PokerEVResult.PRECOMPUTED};
+
+    private PokerWire() {
+    }
+
+    /**
+     * A decoded request frame: its card sets and the request's other fields (cards left null)
+     */
+    public record Spot(long holeCards, long communityCards, PokerRequest request) {
+    }
+
+    /**
+     * Decodes the request frame at offset
+     *
+     * @throws IllegalArgumentException if the version or a card byte is unknown, there aren't 2 hole
+     *                                  cards, or a card is repeated
+     */
+    public static Spot readRequest(ByteBuffer buffer, int offset) {
+        if (buffer.get(offset) != VERSION) {
+            throw new IllegalArgumentException("Unknown wire version");
+        }
+        int flags = buffer.get(offset + 1);
+        long hole = readCards(buffer, offset + 4, 2);
+        long board = readCards(buffer, offset + 6, 5);
+        if (CardSet.size(hole) != 2) {
+            throw new IllegalArgumentException("Must provide exactly 2 hole cards.");
+        }
+        if ((hole & board) != 0) {
+            throw new IllegalArgumentException("Hole card repeated on the board");
+        }
+
+        PokerRequest request = new PokerRequest();
+        request.setNumPlayers(buffer.get(offset + 2) & 0xFF);
+        request.setPotSize(buffer.getInt(offset + 12));
+        request.setCallAmount(buffer.getInt(offset + 16));
+        request.setRaiseAmount(buffer.getInt(offset + 20));
+        if ((flags & FLAG_SEED) != 0) request.setSeed(buffer.getLong(offset + 24));
+        if ((flags & FLAG_DEADLINE) != 0) request.setDeadlineMillis(buffer.getLong(offset + 32));
+        if ((flags & FLAG_TARGET_ERROR) != 0) request.setTargetStandardError(buffer.getDouble(offset + 40));
+        if ((flags & FLAG_TIME_BUDGET) != 0) request.setTimeBudgetMillis(buffer.getLong(offset + 48));
+        return new Spot(hole, board, request);
+    }
+
+    private static long readCards(ByteBuffer buffer, int offset, int slots) {
+        long cards = 0L;
+        for (int i = 0; i < slots; i++) {
+            int card = buffer.get(offset + i) & 0xFF;
+            if (card == NO_CARD) continue;
+            if (card >= CardSet.DECK_SIZE || (cards & CardSet.bit(card)) != 0) {
+                throw new IllegalArgumentException("Invalid card byte: " + card);
+            }
+            cards |= CardSet.bit(card);
+        }
+        return cards;
+    }
+
+    /**
+     * Encodes a request frame at offset; the inverse of readRequest, for clients and tests
+     */
+    public static void writeRequest(ByteBuffer buffer, int offset, long holeCards, long communityCards, PokerRequest request) {
+        int flags = (request.getSeed() != null ? FLAG_SEED : 0)
+                | (request.getDeadlineMillis() != null ? FLAG_DEADLINE : 0)
+                | (request.getTargetStandardError() != null ? FLAG_TARGET_ERROR : 0)
+                | (request.getTimeBudgetMillis() != null ? FLAG_TIME_BUDGET : 0);
+        buffer.put(offset, (byte) VERSION);
+        buffer.put(offset + 1, (byte) flags);
+        buffer.put(offset + 2, (byte) request.getNumPlayers());
+        buffer.put(offset + 3, (byte) 0);
+        writeCards(buffer, offset + 4, holeCards, 2);
+        writeCards(buffer, offset + 6, communityCards, 5);
+        buffer.put(offset + 11, (byte) 0);
+        buffer.putInt(offset + 12, request.getPotSize());
+        buffer.putInt(offset + 16, request.getCallAmount());
+        buffer.putInt(offset + 20, request.getRaiseAmount());
+        buffer.putLong(offset + 24, request.getSeed() != null ? request.getSeed() : 0);
+        buffer.putLong(offset + 32, request.getDeadlineMillis() != null ? request.getDeadlineMillis() : 0);
+        buffer.putDouble(offset + 40, request.getTargetStandardError() != null ? request.getTargetStandardError() : 0);
+        buffer.putLong(offset + 48, request.getTimeBudgetMillis() != null ? request.getTimeBudgetMillis() : 0);
+    }
+
+    private static void writeCards(ByteBuffer buffer, int offset, long cards, int slots) {
+        for (int i = 0; i < slots; i++) {
+            int card = NO_CARD;
+            if (cards != 0) {
+                card = CardSet.first(cards);
+                cards &= cards - 1;
+            }
+            buffer.put(offset + i, (byte) card);
+        }
+    }
+
+    /**
+     * Encodes a result frame at offset
+     */
+    public static void writeResult(ByteBuffer buffer, int offset, SpotResult spot) {
+        PokerEVResult result = spot.getEvResult();
+        int mode = 0;
+        for (int m = 0; m < MODES.length; m++) {
+            if (MODES[m].equals(result.getMode())) mode = m;
+        }
+        buffer.put(offset, (byte) OK);
+        buffer.put(offset + 1, (byte) mode);
+        buffer.put(offset + 2, (byte) (spot.isDeadlineExceeded() ? 1 : 0));
+        buffer.put(offset + 3, (byte) 0);
+        buffer.putInt(offset + 4, 0);
+        buffer.putLong(offset + 8, result.getTrials());
+        buffer.putDouble(offset + 16, result.getWinProbability());
+        buffer.putDouble(offset + 24, result.getTieProbability());
+        buffer.putDouble(offset + 32, result.getExpectedValue());
+        buffer.putDouble(offset + 40, result.getStandardError());
+        Map<String, Double> probabilities = spot.getProbabilities();
+        for (int c = 0; c < HandDistribution.CATEGORY_KEYS.length; c++) {
+            Double probability = probabilities.get(HandDistribution.CATEGORY_KEYS[c]);
+            buffer.putFloat(offset + 48 + 4 * c, probability == null ? 0f : probability.floatValue());
+        }
+        buffer.putInt(offset + 84, 0);
+    }
+
+    /**
+     * Encodes a failed result frame at offset
+     *
+     * @param status            INVALID_INPUT or TOO_MANY_REQUESTS
+     * @param retryAfterSeconds when to retry a TOO_MANY_REQUESTS frame
+     */
+    public static void writeError(ByteBuffer buffer, int offset, int status, int retryAfterSeconds) {
+        for (int i = 0; i < RESULT_BYTES; i += 4) {
+            buffer.putInt(offset + i, 0);
+        }
+        buffer.put(offset, (byte) status);
+        buffer.putInt(offset + 4, retryAfterSeconds);
+    }
+
+    public static int status(ByteBuffer buffer, int offset) {
+        return buffer.get(offset);
+    }
+
+    public static String mode(ByteBuffer buffer, int offset) {
+        return MODES[buffer.get(offset + 1)];
+    }
+
+    public static double winProbability(ByteBuffer buffer, int offset) {
+        return buffer.getDouble(offset + 16);
+    }
+
+    public static double expectedValue(ByteBuffer buffer, int offset) {
+        return buffer.getDouble(offset + 32);
+    }
+}
@@ -0,0 +1,139 @@
+package com.sraddhasurya.poker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Precomputed preflop win/tie probabilities for all 169 starting hands against 1 to 8 random opponents,
+ * and the exact final hand category distribution of each starting hand
+ *
+ * Preflop equity only depends on the canonical starting hand and the number of players, so the table
+ * generated by PreflopTableGenerator answers every preflop request with a single lookup. The file is a
+ * 20 byte header (magic, version, hands, max opponents, trials per spot) followed by a win and a tie
+ * probability per (hand, opponents) cell, each an unsigned 16-bit fraction of 65535, then per hand the
+ * number of the 2,118,760 runouts ending in each category as 32-bit ints
+ */
+@Component
+public class PreflopEquityTable {
+    public static final String RESOURCE = "preflop-equity.bin";
+
+    static final int MAGIC = 0x50464551;        // "PFEQ"
+    static final int VERSION = 2;
+    static final int HANDS = 169;
+    static final int MAX_OPPONENTS = 8;
+    static final int HEADER_BYTES = 20;
+    static final int CATEGORIES = HandDistribution.CATEGORY_KEYS.length;
+    static final int BYTES = HEADER_BYTES + HANDS * MAX_OPPONENTS * 4 + HANDS * CATEGORIES * 4;
+    static final double SCALE = 65535.0;
+
+    private final ByteBuffer table;
+    private final int trialsPerSpot;
+
+    /**
+     * Loads the table shipped on the classpath, memory-mapping it when it is a plain file
+     */
+    public PreflopEquityTable() {
+        this(load());
+    }
+
+    PreflopEquityTable(ByteBuffer table) {
+        if (table.getInt(0) != MAGIC || table.getInt(4) != VERSION
+                || table.getInt(8) != HANDS || table.getInt(12) != MAX_OPPONENTS) {
+            throw new IllegalStateException("Unrecognized preflop equity table");
+        }
+        this.table = table;
+        this.trialsPerSpot = table.getInt(16);
+    }
+
+    private static ByteBuffer load() {
+        URL url = PreflopEquityTable.class.getClassLoader().getResource(RESOURCE);
+        if (url == null) {
+            throw new IllegalStateException("Missing resource " + RESOURCE);
+        }
+        try {
+            if ("file".equals(url.getProtocol())) {
+                try (FileChannel channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            }
+            // Inside a jar the entry can't be mapped, so it is copied off-heap once instead
+            try (InputStream in = url.openStream()) {
+                byte[] bytes = in.readAllBytes();
+                return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * True when the table has an entry for this many players
+     */
+    public boolean covers(int numPlayers) {
+        return numPlayers >= 2 && numPlayers <= MAX_OPPONENTS + 1;
+    }
+
+    /**
+     * Maps two hole cards to their starting hand class 0..168, laid out as the usual 13x13 grid:
+     * pairs on the diagonal, suited hands at (high, low) and offsuit hands at (low, high)
+     */
+    public static int handClass(long holeCards) {
+        int first = CardSet.first(holeCards);
+        int second = CardSet.first(holeCards & (holeCards - 1));
+        int high = Math.max(CardSet.rank(first), CardSet.rank(second)) - 2;
+        int low = Math.min(CardSet.rank(first), CardSet.rank(second)) - 2;
+        boolean suited = CardSet.suit(first) == CardSet.suit(second);
+        return suited ? high * 13 + low : low * 13 + high;
+    }
+
+    public double winProbability(long holeCards, int numPlayers) {
+        return table.getChar(offset(handClass(holeCards), numPlayers)) / SCALE;
+    }
+
+    public double tieProbability(long holeCards, int numPlayers) {
+        return table.getChar(offset(handClass(holeCards), numPlayers) + 2) / SCALE;
+    }
+
+    /**
+     * Exact chance of finishing with each hand category, as HandDistribution.distribution gives preflop
+     * without walking the runouts
+     */
+    public double[] distribution(long holeCards) {
+        long[] counts = new long[CATEGORIES];
+        int offset = distributionOffset(handClass(holeCards));
+        for (int c = 0; c < CATEGORIES; c++) {
+            counts[c] = table.getInt(offset + c * 4);
+        }
+        return HandDistribution.normalize(counts);
+    }
+
+    /**
+     * Builds the EV result of a preflop spot straight from the table
+     */
+    public PokerEVResult lookup(long holeCards, int numPlayers, int potSize, int callAmount, int raiseAmount) {
+        double winProb = winProbability(holeCards, numPlayers);
+        double tieProb = tieProbability(holeCards, numPlayers);
+        double ev = PokerEVResult.expectedValue(winProb, tieProb, potSize, callAmount, raiseAmount);
+        double stdError = Math.sqrt(winProb * (1 - winProb) / trialsPerSpot);
+        return new PokerEVResult(winProb, tieProb, ev, PokerEVResult.PRECOMPUTED, trialsPerSpot, stdError);
+    }
+
+    static int offset(int handClass, int numPlayers) {
+        return HEADER_BYTES + (handClass * MAX_OPPONENTS + numPlayers - 2) * 4;
+    }
+
+    static int distributionOffset(int handClass) {
+        return HEADER_BYTES + HANDS * MAX_OPPONENTS * 4 + handClass * CATEGORIES * 4;
+    }
+}
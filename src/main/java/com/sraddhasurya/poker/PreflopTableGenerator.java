@@ -0,0 +1,72 @@
+package com.sraddhasurya.poker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Build-time generator for the preflop equity table read by PreflopEquityTable
+ *
+ * Run with the Maven profile: ./mvnw -Ppreflop-table process-classes
+ * It simulates one representative of each of the 169 starting hands against 1 to 8 random opponents
+ * with a fixed seed, so regenerating the table gives the same file, and walks every runout of each
+ * representative for its category counts
+ */
+public class PreflopTableGenerator {
+
+    static final int DEFAULT_TRIALS = 100_000;
+    private static final long SEED = 169L;
+
+    public static void main(String[] args) throws IOException {
+        Path output = Path.of(args.length > 0 ? args[0] : "src/main/resources/" + PreflopEquityTable.RESOURCE);
+        int trials = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TRIALS;
+
+        ByteBuffer table = generate(trials);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.write(output, table.array());
+        System.out.println("Wrote " + output + " (" + trials + " trials per spot)");
+    }
+
+    static ByteBuffer generate(int trials) {
+        ByteBuffer table = ByteBuffer.allocate(PreflopEquityTable.BYTES);
+        table.putInt(PreflopEquityTable.MAGIC);
+        table.putInt(PreflopEquityTable.VERSION);
+        table.putInt(PreflopEquityTable.HANDS);
+        table.putInt(PreflopEquityTable.MAX_OPPONENTS);
+        table.putInt(trials);
+
+        for (int high = 0; high < 13; high++) {
+            for (int low = 0; low <= high; low++) {
+                // Hearts for the high card; the low card is hearts too when suited, diamonds otherwise
+                long suited = CardSet.of(CardSet.card(0, high + 2), CardSet.card(0, low + 2));
+                long offsuit = CardSet.of(CardSet.card(0, high + 2), CardSet.card(1, low + 2));
+                if (high != low) {
+                    fill(table, suited, trials);
+                }
+                fill(table, offsuit, trials);
+            }
+        }
+        return table;
+    }
+
+    private static void fill(ByteBuffer table, long holeCards, int trials) {
+        int handClass = PreflopEquityTable.handClass(holeCards);
+        for (int numPlayers = 2; numPlayers <= PreflopEquityTable.MAX_OPPONENTS + 1; numPlayers++) {
+            SimulationOptions options = new SimulationOptions(trials);
+            options.setSeed(SEED + handClass * 16L + numPlayers);
+            options.setMaxExactCombinations(0);
+            PokerEVResult result = PokerEVSimulator.simulateEV(holeCards, 0L, 0, 0, 0, numPlayers, options);
+
+            int offset = PreflopEquityTable.offset(handClass, numPlayers);
+            table.putChar(offset, (char) Math.round(result.getWinProbability() * PreflopEquityTable.SCALE));
+            table.putChar(offset + 2, (char) Math.round(result.getTieProbability() * PreflopEquityTable.SCALE));
+        }
+
+        long[] counts = HandDistribution.countRunouts(holeCards, 0L);
+        int offset = PreflopEquityTable.distributionOffset(handClass);
+        for (int c = 0; c < counts.length; c++) {
+            table.putInt(offset + c * 4, (int) counts[c]);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.sraddhasurya.poker;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deals trials from a randomly shifted low-discrepancy sequence instead of independent draws
+ *
+ * Each card drawn in a trial is one coordinate of a point of the R_d sequence (x_n = shift + n * alpha
+ * mod 1, alpha from the powers of the generalized golden ratio), turned into the card at that fraction
+ * of the cards left. Neighbouring points land far apart in every coordinate, so the trials of a batch
+ * cover the runouts (and with QUASI_RANDOM the opponents' hands) more evenly than independent draws
+ * would. Coordinates past the sequence's dimensions, and ranged opponents, come from the random
+ * generator, which also picks the shift
+ *
+ * One deal serves one batch of trials on one worker; it isn't thread-safe
+ */
+final class QuasiRandomDeal {
+    private final int[] cards;      // Cards not in the hole cards or on the board, in index order between trials
+    private final int[] taken;      // Position of each card drawn this trial, to undo the swaps
+    private final int boardSize;
+    private final double[] alpha;
+    private final double[] shift;
+    private final SplittableRandom random;
+    private int trial;
+    private int size;
+    private int drawn;
+    private double weight;
+
+    /**
+     * @param dead      hole cards and board
+     * @param ranges    per opponent, null for a random hand; null when every opponent is random
+     * @param sampling  STRATIFIED to spread the runouts only, QUASI_RANDOM to spread every card
+     */
+    QuasiRandomDeal(long dead, int boardSize, RangeSampler[] ranges, int numOpponents, Sampling sampling, SplittableRandom random) {
+        this.cards = CardSet.toArray(CardSet.FULL_DECK & ~dead);
+        this.taken = new int[cards.length];
+        this.boardSize = boardSize;
+        this.random = random;
+
+        int dims = 5 - boardSize;
+        if (sampling == Sampling.QUASI_RANDOM) {
+            for (int p = 0; p < numOpponents; p++) {
+                if (ranges == null || ranges[p] == null) dims += 2;
+            }
+        }
+        // The generalized golden ratio is the root of g^(dims + 1) = g + 1
+        double g = 2.0;
+        for (int i = 0; i < 32; i++) {
+            g = Math.pow(1.0 + g, 1.0 / (dims + 1));
+        }
+        alpha = new double[dims];
+        shift = new double[dims];
+        double power = 1.0;
+        for (int d = 0; d < dims; d++) {
+            power /= g;
+            alpha[d] = power;
+            shift[d] = random.nextDouble();
+        }
+    }
+
+    /**
+     * Deals the next trial: ranged opponents, then the rest of the board, then every other opponent
+     *
+     * @param opponents filled with each opponent's hole cards
+     * @return card set of the complete five-card board
+     */
+    long deal(long communityCards, RangeSampler[] ranges, long[] opponents) {
+        long ranged = 0L;
+        weight = 1.0;
+        if (ranges != null) {
+            weight = PokerEVSimulator.dealRanges(ranges, opponents, random);
+            for (int p = 0; p < ranges.length; p++) {
+                if (ranges[p] != null) ranged |= opponents[p];
+            }
+        }
+        size = cards.length;
+        drawn = 0;
+        int d = 0;
+
+        long fullBoard = communityCards;
+        for (int k = boardSize; k < 5; k++) {
+            fullBoard |= draw(d++, ranged);
+        }
+        for (int p = 0; p < opponents.length; p++) {
+            if (ranges == null || ranges[p] == null) {
+                opponents[p] = draw(d++, ranged) | draw(d++, ranged);
+            }
+        }
+
+        // Swapping the drawn cards back in reverse order restores index order for the next trial's point
+        while (drawn > 0) {
+            swap(taken[--drawn], size++);
+        }
+        trial++;
+        return fullBoard;
+    }
+
+    /**
+     * Weight of the last trial dealt (PokerEVSimulator.dealRanges), 1 without ranges
+     */
+    double weight() {
+        return weight;
+    }
+
+    /**
+     * Draws the card at coordinate d's fraction of the cards left. One already dealt to a ranged
+     * opponent is redrawn at random, which keeps the draw uniform over the cards really left
+     */
+    private long draw(int d, long ranged) {
+        int j = d < alpha.length ? position(d) : random.nextInt(size);
+        while ((ranged & CardSet.bit(cards[j])) != 0) {
+            j = random.nextInt(size);
+        }
+        long card = CardSet.bit(cards[j]);
+        swap(j, --size);
+        taken[drawn++] = j;
+        return card;
+    }
+
+    // This trial's point in coordinate d, scaled to the cards left
+    private int position(int d) {
+        double u = shift[d] + trial * alpha[d];
+        return (int) ((u - Math.floor(u)) * size);
+    }
+
+    private void swap(int i, int j) {
+        int card = cards[i];
+        cards[i] = cards[j];
+        cards[j] = card;
+    }
+}
@@ -0,0 +1,159 @@
+package com.sraddhasurya.poker;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws weighted combos from a HandRange in constant time with Vose's alias method
+ *
+ * Combos that touch the known dead cards (hole cards and board) are dropped once when the table is
+ * built. Cards dealt to other players during a trial are avoided by drawing among the combos still
+ * live, whose share of the range's weight liveShare() gives from per-card weights. The tables are
+ * read-only after construction, so one sampler is shared by every worker
+ */
+final class RangeSampler {
+    // Below this live share of the weight a draw walks the live combos instead of redrawing collisions
+    private static final double REDRAW_SHARE = 0.125;
+
+    private final long[] combos;
+    private final double[] weights;
+    private final double total;
+    private final double[] probability;     // Chance of keeping column i rather than taking its alias
+    private final int[] alias;
+    private final double[] cardWeight = new double[CardSet.DECK_SIZE];     // Weight of the combos holding each card
+    private final double[] comboWeight = new double[CardSet.DECK_SIZE * CardSet.DECK_SIZE];   // By lower card, then higher card
+
+    /**
+     * @throws IllegalArgumentException if every combo in the range uses a dead card
+     */
+    RangeSampler(HandRange range, long dead) {
+        int live = 0;
+        for (int i = 0; i < range.size(); i++) {
+            if ((range.combo(i) & dead) == 0) live++;
+        }
+        if (live == 0) {
+            throw new IllegalArgumentException("No combo in the range is left after card removal");
+        }
+
+        combos = new long[live];
+        weights = new double[live];
+        double sum = 0;
+        int n = 0;
+        for (int i = 0; i < range.size(); i++) {
+            if ((range.combo(i) & dead) == 0) {
+                combos[n] = range.combo(i);
+                weights[n] = range.weight(i);
+                int low = CardSet.first(combos[n]);
+                int high = CardSet.first(combos[n] & (combos[n] - 1));
+                cardWeight[low] += weights[n];
+                cardWeight[high] += weights[n];
+                comboWeight[low * CardSet.DECK_SIZE + high] += weights[n];
+                sum += weights[n++];
+            }
+        }
+        total = sum;
+
+        probability = new double[live];
+        alias = new int[live];
+        double[] scaled = new double[live];
+        int[] small = new int[live];
+        int[] large = new int[live];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < live; i++) {
+            scaled[i] = weights[i] * live / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] -= 1.0 - scaled[less];
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left is 1 up to rounding
+        while (largeCount > 0) probability[large[--largeCount]] = 1.0;
+        while (smallCount > 0) probability[small[--smallCount]] = 1.0;
+    }
+
+    int size() {
+        return combos.length;
+    }
+
+    /**
+     * One random long picks both the column (high 32 bits, scaled to the table size) and the coin
+     * flip against its probability (low 32 bits)
+     */
+    long sample(RandomGenerator random) {
+        long bits = random.nextLong();
+        int i = (int) (((bits >>> 32) * combos.length) >>> 32);
+        double coin = (bits & 0xFFFFFFFFL) * 0x1.0p-32;
+        return coin < probability[i] ? combos[i] : combos[alias[i]];
+    }
+
+    /**
+     * Share of the range's weight in combos that don't touch the dealt cards: the weight of the combos
+     * holding each dealt card, less the combos made of two dealt cards, which were counted twice, or
+     * for a range smaller than those pairs the live combos' weight added up
+     */
+    double liveShare(long dealt) {
+        if (dealt == 0) return 1.0;
+        int n = Long.bitCount(dealt);
+        if (combos.length < n * (n - 1) / 2) {
+            // A small range is quicker to add up than the pairs of many dealt cards
+            double live = 0;
+            for (int i = 0; i < combos.length; i++) {
+                if ((combos[i] & dealt) == 0) live += weights[i];
+            }
+            return live / total;
+        }
+        double touching = 0;
+        for (long cards = dealt; cards != 0; cards &= cards - 1) {
+            int low = CardSet.first(cards);
+            touching += cardWeight[low];
+            for (long higher = cards & (cards - 1); higher != 0; higher &= higher - 1) {
+                touching -= comboWeight[low * CardSet.DECK_SIZE + CardSet.first(higher)];
+            }
+        }
+        double share = 1.0 - touching / total;
+        // Whatever rounding leaves of a range the dealt cards cover is nothing
+        return share < 1e-9 ? 0.0 : share;
+    }
+
+    /**
+     * Draws a combo that doesn't touch the dealt cards, in proportion to its weight among those combos
+     *
+     * @param share liveShare(dealt), above 0
+     * @return the combo, or 0 if rounding left no combo live after all
+     */
+    long sample(RandomGenerator random, long dealt, double share) {
+        if (share >= REDRAW_SHARE) {
+            long hand = sample(random);
+            while ((hand & dealt) != 0) {
+                hand = sample(random);
+            }
+            return hand;
+        }
+        double left = random.nextDouble() * share * total;
+        long last = 0L;
+        for (int i = 0; i < combos.length; i++) {
+            if ((combos[i] & dealt) != 0) continue;
+            last = combos[i];
+            left -= weights[i];
+            if (left < 0) break;
+        }
+        return last;
+    }
+
+    long combo(int i) {
+        return combos[i];
+    }
+}
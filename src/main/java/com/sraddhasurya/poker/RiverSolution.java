@@ -0,0 +1,112 @@
+package com.sraddhasurya.poker;
+
+import java.util.List;
+
+/**
+ * Average strategies and values of a solved river spot. Player 0 is out of position, player 1 in
+ * position; hands are indexed per player in range order, leaving out those that clash with the board
+ */
+public class RiverSolution {
+
+    private final RiverTree tree;
+    private final int[][] offsets;
+    private final long[][] hands;
+    private final double[][] weights;
+    private final double[][] strategies;
+    private final double[][] handValues;
+    private final double[] values;
+    private final int iterations;
+    private final double exploitability;
+    private final boolean deadlineExceeded;
+
+    RiverSolution(RiverTree tree, int[][] offsets, long[][] hands, double[][] weights, double[][] strategies,
+            double[][] handValues, double[] values, int iterations, double exploitability, boolean deadlineExceeded) {
+        this.tree = tree;
+        this.offsets = offsets;
+        this.hands = hands;
+        this.weights = weights;
+        this.strategies = strategies;
+        this.handValues = handValues;
+        this.values = values;
+        this.iterations = iterations;
+        this.exploitability = exploitability;
+        this.deadlineExceeded = deadlineExceeded;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Mean gain, in chips, of each player's best response against the other's strategy
+     */
+    public double getExploitability() {
+        return exploitability;
+    }
+
+    /**
+     * True when the deadline stopped the solve before it reached the target exploitability
+     */
+    public boolean isDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+
+    /**
+     * Chips a player's range wins on the river on average, the two adding up to the pot
+     */
+    public double expectedValue(int player) {
+        return values[player];
+    }
+
+    public int handCount(int player) {
+        return hands[player].length;
+    }
+
+    /**
+     * Card set of a player's hand
+     */
+    public long hand(int player, int hand) {
+        return hands[player][hand];
+    }
+
+    public double weight(int player, int hand) {
+        return weights[player][hand];
+    }
+
+    /**
+     * Chips a hand wins on the river on average, over the opponent's hands it doesn't share a card with
+     */
+    public double handExpectedValue(int player, int hand) {
+        return handValues[player][hand];
+    }
+
+    public int nodeCount() {
+        return tree.size();
+    }
+
+    /**
+     * Player to act at a node, -1 at the end of the hand
+     */
+    public int nodePlayer(int node) {
+        return Math.max(-1, tree.player[node]);
+    }
+
+    /**
+     * Actions taken from the root to a node, e.g. ["check", "bet 50"]
+     */
+    public List<String> nodePath(int node) {
+        return tree.path(node);
+    }
+
+    public List<String> nodeActions(int node) {
+        return List.of(tree.actions[node]);
+    }
+
+    /**
+     * Chance the acting player takes an action with one of its hands
+     */
+    public double strategy(int node, int hand, int action) {
+        int player = tree.player[node];
+        return strategies[player][offsets[player][node] + hand * tree.children[node].length + action];
+    }
+}
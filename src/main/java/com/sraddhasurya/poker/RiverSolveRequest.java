@@ -0,0 +1,117 @@
+package com.sraddhasurya.poker;
+
+import java.util.List;
+
+/**
+ * Request body of /river/solve: a heads-up river spot, the bet sizes each player may use and both ranges
+ */
+public class RiverSolveRequest {
+    private List<String> communityCards;    // The five board cards
+    private int potSize;
+    private int stackSize;                  // Effective stack behind at the start of the river
+    private List<Double> betSizes = List.of(0.5, 1.0);     // Bets as fractions of the pot
+    private List<Double> raiseSizes = List.of(1.0);        // Raises as fractions of the pot after calling
+    private int maxRaises = 2;
+    private boolean allIn = true;           // Also offer the all-in at every bet and raise
+    private String oopRange;                // Range of the player first to act (e.g. "QQ+, AKs, 76s-54s:0.5")
+    private String ipRange;                 // Range of the player in position
+    private double targetExploitability = 0.005;    // Stop once the strategies are this exploitable, as a fraction of the pot
+    private int maxIterations = 1000;
+    private Long deadlineMillis;            // Optional, answer with the strategy so far after this long (default poker.scheduler.deadline)
+
+    public List<String> getCommunityCards() {
+        return communityCards;
+    }
+
+    public void setCommunityCards(List<String> communityCards) {
+        this.communityCards = communityCards;
+    }
+
+    public int getPotSize() {
+        return potSize;
+    }
+
+    public void setPotSize(int potSize) {
+        this.potSize = potSize;
+    }
+
+    public int getStackSize() {
+        return stackSize;
+    }
+
+    public void setStackSize(int stackSize) {
+        this.stackSize = stackSize;
+    }
+
+    public List<Double> getBetSizes() {
+        return betSizes;
+    }
+
+    public void setBetSizes(List<Double> betSizes) {
+        this.betSizes = betSizes;
+    }
+
+    public List<Double> getRaiseSizes() {
+        return raiseSizes;
+    }
+
+    public void setRaiseSizes(List<Double> raiseSizes) {
+        this.raiseSizes = raiseSizes;
+    }
+
+    public int getMaxRaises() {
+        return maxRaises;
+    }
+
+    public void setMaxRaises(int maxRaises) {
+        this.maxRaises = maxRaises;
+    }
+
+    public boolean isAllIn() {
+        return allIn;
+    }
+
+    public void setAllIn(boolean allIn) {
+        this.allIn = allIn;
+    }
+
+    public String getOopRange() {
+        return oopRange;
+    }
+
+    public void setOopRange(String oopRange) {
+        this.oopRange = oopRange;
+    }
+
+    public String getIpRange() {
+        return ipRange;
+    }
+
+    public void setIpRange(String ipRange) {
+        this.ipRange = ipRange;
+    }
+
+    public double getTargetExploitability() {
+        return targetExploitability;
+    }
+
+    public void setTargetExploitability(double targetExploitability) {
+        this.targetExploitability = targetExploitability;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public Long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    public void setDeadlineMillis(Long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+}
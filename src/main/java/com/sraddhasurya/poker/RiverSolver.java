@@ -0,0 +1,604 @@
+package com.sraddhasurya.poker;
+
+import java.util.*;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Heads-up river subgame solver: discounted CFR over a RiverTree, one range of hands per player
+ *
+ * Every iteration updates each player in turn against the other's current strategy, in vector form:
+ * a pass over the tree computes the opponent's reach of every hand at every node, then each terminal
+ * sums that reach into prefix sums in hand-strength order, so the showdown value of a hand is a few
+ * lookups (the hands it beats and loses to, less those sharing one of its cards, from per-card
+ * prefix sums) rather than a loop over the opponent's range. The traversal for the updating player
+ * splits into independent chunks of its hands, which fork/join runs in parallel. Hand strengths
+ * come from SevenCardEvaluator once per board
+ *
+ * Regrets and strategy sums are flat arrays per player, indexed node offset + hand * actions + action.
+ * Accumulated positive regrets are discounted by t^1.5 / (t^1.5 + 1), negative ones by 1/2 and the
+ * average strategy by (t / (t + 1))^2, the parameters the DCFR paper recommends. Every CHECK_EVERY
+ * iterations the average strategy's exploitability (the mean of what each player's best response gains
+ * over the game value) is measured, and the solve stops once it reaches the target. Past its deadline
+ * the solve measures and returns the average strategy it has after the current iteration
+ *
+ * Values are chips won on the river: the share of the pot and the opponent's river bets a hand takes,
+ * less its own river bets, so the two players' values add up to the starting pot
+ */
+final class RiverSolver {
+    static final int CHECK_EVERY = 10;
+    private static final double ALPHA = 1.5;
+    private static final double GAMMA = 2.0;
+    // Hands per parallel chunk of a traversal
+    private static final int CHUNK = 32;
+
+    private static final int UPDATE = 0;
+    private static final int BEST_RESPONSE = 1;
+    private static final int EVALUATE = 2;
+
+    private final RiverTree tree;
+    private final int potSize;
+    private final Range[] ranges = new Range[2];
+    private final Matchup[] matchups = new Matchup[2];
+    private final int[] terminalIndex;       // Per node, its index among the terminals, -1 at action nodes
+    private final int[] terminals;           // Node of each terminal
+    private final int[][] offsets;           // Per player and node, start of the node's block in regrets and strategySums
+    private final double[][] regrets = new double[2][];
+    private final double[][] strategySums = new double[2][];
+    private final double[][] reach = new double[2][];           // Per player, node * hands + hand
+    private final double[][] prefix = new double[2][];          // Per player, terminal * (hands + 1) + k, in strength order
+    private final double[][] cardPrefix = new double[2][];      // Per player, terminal * cardSpan + per-card prefix sums
+    private final double[][] rootValues = new double[2][];
+    private final Scratch[][] scratches = new Scratch[2][];     // Per player, one per chunk of its hands
+    private final double pairWeight;         // Weight of every pair of non-overlapping hands
+
+    private double positiveDiscount;
+    private double negativeDiscount;
+    private double strategyDiscount;
+
+    private RiverSolver(RiverTree tree, long board, int potSize, HandRange oopRange, HandRange ipRange) {
+        this.tree = tree;
+        this.potSize = potSize;
+        ranges[0] = new Range(oopRange, board);
+        ranges[1] = new Range(ipRange, board);
+        matchups[0] = new Matchup(ranges[0], ranges[1]);
+        matchups[1] = new Matchup(ranges[1], ranges[0]);
+
+        int nodes = tree.size();
+        terminalIndex = new int[nodes];
+        int terminals = 0;
+        offsets = new int[2][nodes];
+        int[] blocks = new int[2];
+        for (int node = 0; node < nodes; node++) {
+            if (tree.isTerminal(node)) {
+                terminalIndex[node] = terminals++;
+            } else {
+                terminalIndex[node] = -1;
+                int p = tree.player[node];
+                offsets[p][node] = blocks[p];
+                blocks[p] += ranges[p].size * tree.children[node].length;
+            }
+        }
+        for (int p = 0; p < 2; p++) {
+            regrets[p] = new double[blocks[p]];
+            strategySums[p] = new double[blocks[p]];
+            reach[p] = new double[nodes * ranges[p].size];
+            prefix[p] = new double[terminals * (ranges[p].size + 1)];
+            cardPrefix[p] = new double[terminals * ranges[p].cardSpan];
+            rootValues[p] = new double[ranges[p].size];
+            scratches[p] = new Scratch[(ranges[p].size + CHUNK - 1) / CHUNK];
+            for (int chunk = 0; chunk < scratches[p].length; chunk++) {
+                scratches[p][chunk] = new Scratch(tree, Math.min(CHUNK, ranges[p].size - chunk * CHUNK));
+            }
+        }
+        this.terminals = new int[terminals];
+        for (int node = 0; node < nodes; node++) {
+            if (terminalIndex[node] >= 0) this.terminals[terminalIndex[node]] = node;
+        }
+
+        double pairs = 0;
+        for (int h = 0; h < ranges[0].size; h++) {
+            pairs += ranges[0].weights[h] * matchups[0].compatibleWeight[h];
+        }
+        if (pairs <= 0) {
+            throw new IllegalArgumentException("No pair of hands from the two ranges fits on the board.");
+        }
+        this.pairWeight = pairs;
+    }
+
+    /**
+     * Solves a river spot
+     *
+     * @param board                card set of the five community cards
+     * @param tree                 betting tree built for potSize
+     * @param oopRange             hands of the player first to act
+     * @param ipRange              hands of the player in position
+     * @param targetExploitability stop once the average strategy is this exploitable, in chips
+     * @param maxIterations        stop after this many iterations regardless
+     * @throws IllegalArgumentException if no hand of a range, or no pair of hands, fits on the board
+     */
+    static RiverSolution solve(long board, RiverTree tree, int potSize, HandRange oopRange, HandRange ipRange,
+            double targetExploitability, int maxIterations) {
+        return solve(board, tree, potSize, oopRange, ipRange, targetExploitability, maxIterations, Long.MAX_VALUE);
+    }
+
+    /**
+     * Solves a river spot, stopping early at a deadline
+     *
+     * @param deadlineNanos System.nanoTime() after which the solve returns its average strategy so far,
+     *                      flagged as cut short unless it already met the target
+     */
+    static RiverSolution solve(long board, RiverTree tree, int potSize, HandRange oopRange, HandRange ipRange,
+            double targetExploitability, int maxIterations, long deadlineNanos) {
+        RiverSolver solver = new RiverSolver(tree, board, potSize, oopRange, ipRange);
+        int iterations = 0;
+        double exploitability = Double.POSITIVE_INFINITY;
+        boolean deadlineExceeded = false;
+        while (iterations < maxIterations) {
+            iterations++;
+            solver.discount(iterations);
+            solver.traverse(0, UPDATE);
+            solver.traverse(1, UPDATE);
+            boolean late = System.nanoTime() >= deadlineNanos;
+            if (late || iterations % CHECK_EVERY == 0 || iterations == maxIterations) {
+                exploitability = solver.exploitability();
+                if (exploitability <= targetExploitability) break;
+                if (late) {
+                    deadlineExceeded = true;
+                    break;
+                }
+            }
+        }
+        return solver.solution(iterations, exploitability, deadlineExceeded);
+    }
+
+    // Factors on the sums accumulated before iteration t
+    private void discount(int t) {
+        double previous = Math.pow(t - 1, ALPHA);
+        positiveDiscount = previous / (previous + 1);
+        negativeDiscount = 0.5;
+        strategyDiscount = Math.pow((t - 1) / (double) t, GAMMA);
+    }
+
+    /**
+     * Mean gain of each player's best response against the other's average strategy, in chips
+     */
+    private double exploitability() {
+        double bestResponses = 0;
+        for (int p = 0; p < 2; p++) {
+            traverse(p, BEST_RESPONSE);
+            bestResponses += value(p);
+        }
+        return Math.max(0.0, (bestResponses - potSize) / 2);
+    }
+
+    // Value of a player's range from the last traversal, averaged over every deal of the two ranges
+    private double value(int p) {
+        double sum = 0;
+        for (int h = 0; h < ranges[p].size; h++) {
+            sum += ranges[p].weights[h] * rootValues[p][h];
+        }
+        return sum / pairWeight;
+    }
+
+    /**
+     * One pass for player p: the opponent's reach and terminal prefix sums, then p's hands in parallel
+     * chunks. UPDATE plays the current strategies, the others the average ones
+     */
+    private void traverse(int p, int mode) {
+        int opponent = 1 - p;
+        boolean average = mode != UPDATE;
+        Range range = ranges[opponent];
+        forEachChunk((range.size + CHUNK - 1) / CHUNK, chunk -> opponentReach(opponent, average, chunk * CHUNK, Math.min(range.size, (chunk + 1) * CHUNK)));
+        forEachChunk(terminals.length, terminal -> prefixSums(opponent, terminal));
+
+        int hands = ranges[p].size;
+        forEachChunk(scratches[p].length, chunk -> {
+            int from = chunk * CHUNK;
+            int to = Math.min(hands, from + CHUNK);
+            Scratch scratch = scratches[p][chunk];
+            for (int h = from; h < to; h++) {
+                scratch.reach[0][h - from] = ranges[p].weights[h];
+            }
+            traverse(p, mode, 0, from, to, scratch);
+            System.arraycopy(scratch.values[0], 0, rootValues[p], from, to - from);
+        });
+    }
+
+    // Reach of hands [from, to) of player p at every node, parents before children
+    private void opponentReach(int p, boolean average, int from, int to) {
+        int hands = ranges[p].size;
+        double[] r = reach[p];
+        System.arraycopy(ranges[p].weights, from, r, from, to - from);
+        double[] source = average ? strategySums[p] : regrets[p];
+        for (int node = 0; node < tree.size(); node++) {
+            int[] children = tree.children[node];
+            if (children.length == 0) continue;
+            if (tree.player[node] != p) {
+                for (int child : children) {
+                    System.arraycopy(r, node * hands + from, r, child * hands + from, to - from);
+                }
+                continue;
+            }
+            int actions = children.length;
+            for (int h = from; h < to; h++) {
+                int offset = offsets[p][node] + h * actions;
+                double total = positiveSum(source, offset, actions);
+                double parentReach = r[node * hands + h];
+                for (int a = 0; a < actions; a++) {
+                    r[children[a] * hands + h] = parentReach * probability(source, offset, actions, a, total);
+                }
+            }
+        }
+    }
+
+    // Player p's reach at a terminal summed in strength order, overall and per card
+    private void prefixSums(int p, int terminal) {
+        Range range = ranges[p];
+        int node = terminals[terminal];
+        double[] r = reach[p];
+        int base = node * range.size;
+
+        double[] sums = prefix[p];
+        int start = terminal * (range.size + 1);
+        sums[start] = 0;
+        for (int k = 0; k < range.size; k++) {
+            sums[start + k + 1] = sums[start + k] + r[base + range.order[k]];
+        }
+
+        double[] cards = cardPrefix[p];
+        int cardBase = terminal * range.cardSpan;
+        for (int c = 0; c < 52; c++) {
+            int offset = cardBase + range.cardStart[c] + c;
+            int length = range.cardStart[c + 1] - range.cardStart[c];
+            cards[offset] = 0;
+            for (int k = 0; k < length; k++) {
+                cards[offset + k + 1] = cards[offset + k] + r[base + range.cardHands[range.cardStart[c] + k]];
+            }
+        }
+    }
+
+    /**
+     * Fills scratch.values[node] with the counterfactual value of hands [from, to) of player p, given
+     * their reach in scratch.reach[node] and the opponent's reach already summed at the terminals
+     */
+    private void traverse(int p, int mode, int node, int from, int to, Scratch scratch) {
+        int count = to - from;
+        double[] values = scratch.values[node];
+        if (tree.isTerminal(node)) {
+            terminalValues(p, node, from, to, values);
+            return;
+        }
+
+        int[] children = tree.children[node];
+        int actions = children.length;
+        if (tree.player[node] != p) {
+            Arrays.fill(values, 0, count, 0.0);
+            for (int child : children) {
+                System.arraycopy(scratch.reach[node], 0, scratch.reach[child], 0, count);
+                traverse(p, mode, child, from, to, scratch);
+                for (int k = 0; k < count; k++) {
+                    values[k] += scratch.values[child][k];
+                }
+            }
+            return;
+        }
+
+        double[] source = mode == UPDATE ? regrets[p] : strategySums[p];
+        double[] strategy = scratch.strategy[node];
+        for (int k = 0; k < count; k++) {
+            int offset = offsets[p][node] + (from + k) * actions;
+            double total = positiveSum(source, offset, actions);
+            for (int a = 0; a < actions; a++) {
+                strategy[k * actions + a] = probability(source, offset, actions, a, total);
+            }
+        }
+        for (int a = 0; a < actions; a++) {
+            int child = children[a];
+            for (int k = 0; k < count; k++) {
+                scratch.reach[child][k] = scratch.reach[node][k] * strategy[k * actions + a];
+            }
+            traverse(p, mode, child, from, to, scratch);
+        }
+
+        for (int k = 0; k < count; k++) {
+            double value = mode == BEST_RESPONSE ? Double.NEGATIVE_INFINITY : 0.0;
+            for (int a = 0; a < actions; a++) {
+                double childValue = scratch.values[children[a]][k];
+                value = mode == BEST_RESPONSE ? Math.max(value, childValue) : value + strategy[k * actions + a] * childValue;
+            }
+            values[k] = value;
+        }
+        if (mode != UPDATE) return;
+
+        double[] regret = regrets[p];
+        double[] sums = strategySums[p];
+        for (int k = 0; k < count; k++) {
+            int offset = offsets[p][node] + (from + k) * actions;
+            double handReach = scratch.reach[node][k];
+            for (int a = 0; a < actions; a++) {
+                double r = regret[offset + a];
+                regret[offset + a] = r * (r > 0 ? positiveDiscount : negativeDiscount) + scratch.values[children[a]][k] - values[k];
+                sums[offset + a] = sums[offset + a] * strategyDiscount + handReach * strategy[k * actions + a];
+            }
+        }
+    }
+
+    private void terminalValues(int p, int node, int from, int to, double[] values) {
+        int opponent = 1 - p;
+        Range range = ranges[p];
+        Range other = ranges[opponent];
+        Matchup matchup = matchups[p];
+        int terminal = terminalIndex[node];
+        double[] sums = prefix[opponent];
+        double[] cards = cardPrefix[opponent];
+        int start = terminal * (other.size + 1);
+        int cardBase = terminal * other.cardSpan;
+        double total = sums[start + other.size];
+        int kind = tree.player[node];
+        int mine = p == 0 ? tree.contribution0[node] : tree.contribution1[node];
+        int theirs = p == 0 ? tree.contribution1[node] : tree.contribution0[node];
+
+        for (int h = from; h < to; h++) {
+            int first = range.first[h];
+            int second = range.second[h];
+            int firstStart = cardBase + other.cardStart[first] + first;
+            int secondStart = cardBase + other.cardStart[second] + second;
+            double firstTotal = cards[firstStart + other.cardStart[first + 1] - other.cardStart[first]];
+            double secondTotal = cards[secondStart + other.cardStart[second + 1] - other.cardStart[second]];
+            int same = matchup.same[h];
+            double compatible = total - firstTotal - secondTotal + (same >= 0 ? reach[opponent][node * other.size + same] : 0.0);
+
+            double value;
+            if (kind == RiverTree.SHOWDOWN) {
+                double beaten = sums[start + matchup.weaker[h]]
+                        - cards[firstStart + matchup.firstWeaker[h]] - cards[secondStart + matchup.secondWeaker[h]];
+                double beating = total - sums[start + matchup.notStronger[h]]
+                        - (firstTotal - cards[firstStart + matchup.firstNotStronger[h]])
+                        - (secondTotal - cards[secondStart + matchup.secondNotStronger[h]]);
+                double tied = compatible - beaten - beating;
+                value = (potSize + mine) * beaten - mine * beating + potSize / 2.0 * tied;
+            } else {
+                boolean folded = (kind == RiverTree.OOP_FOLDS) == (p == 0);
+                value = (folded ? -mine : potSize + theirs) * compatible;
+            }
+            values[h - from] = value;
+        }
+    }
+
+    private static double positiveSum(double[] source, int offset, int actions) {
+        double total = 0;
+        for (int a = 0; a < actions; a++) {
+            total += Math.max(0.0, source[offset + a]);
+        }
+        return total;
+    }
+
+    // Regret matching on regrets, normalizing on strategy sums; uniform when nothing is positive
+    private static double probability(double[] source, int offset, int actions, int a, double total) {
+        return total > 0 ? Math.max(0.0, source[offset + a]) / total : 1.0 / actions;
+    }
+
+    private RiverSolution solution(int iterations, double exploitability, boolean deadlineExceeded) {
+        double[][] handValues = new double[2][];
+        double[] values = new double[2];
+        long[][] combos = new long[2][];
+        double[][] strategies = new double[2][];
+        for (int p = 0; p < 2; p++) {
+            traverse(p, EVALUATE);
+            values[p] = value(p);
+            Range range = ranges[p];
+            combos[p] = range.combos;
+            handValues[p] = new double[range.size];
+            for (int h = 0; h < range.size; h++) {
+                double compatible = matchups[p].compatibleWeight[h];
+                handValues[p][h] = compatible > 0 ? rootValues[p][h] / compatible : 0.0;
+            }
+
+            strategies[p] = new double[strategySums[p].length];
+            for (int node = 0; node < tree.size(); node++) {
+                if (tree.player[node] != p) continue;
+                int actions = tree.children[node].length;
+                for (int h = 0; h < range.size; h++) {
+                    int offset = offsets[p][node] + h * actions;
+                    double total = positiveSum(strategySums[p], offset, actions);
+                    for (int a = 0; a < actions; a++) {
+                        strategies[p][offset + a] = probability(strategySums[p], offset, actions, a, total);
+                    }
+                }
+            }
+        }
+        return new RiverSolution(tree, offsets, combos, new double[][] {ranges[0].weights, ranges[1].weights},
+                strategies, handValues, values, iterations, exploitability, deadlineExceeded);
+    }
+
+    /**
+     * Runs body for every index below count on the fork/join pool of the caller
+     */
+    private static void forEachChunk(int count, IntConsumer body) {
+        if (count == 1) {
+            body.accept(0);
+        } else if (count > 1) {
+            new Chunks(body, 0, count).invoke();
+        }
+    }
+
+    private static final class Chunks extends RecursiveAction {
+        private final IntConsumer body;
+        private final int from;
+        private final int to;
+
+        Chunks(IntConsumer body, int from, int to) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Chunks(body, from, mid), new Chunks(body, mid, to));
+        }
+    }
+
+    /**
+     * Per-node buffers of one chunk's traversal, kept across iterations
+     */
+    private static final class Scratch {
+        final double[][] reach;
+        final double[][] values;
+        final double[][] strategy;
+
+        Scratch(RiverTree tree, int count) {
+            reach = new double[tree.size()][count];
+            values = new double[tree.size()][count];
+            strategy = new double[tree.size()][];
+            for (int node = 0; node < tree.size(); node++) {
+                strategy[node] = new double[count * tree.children[node].length];
+            }
+        }
+    }
+
+    /**
+     * A player's hands that fit on the board, their strengths, and the hands holding each card, in
+     * strength order
+     */
+    private static final class Range {
+        final int size;
+        final long[] combos;
+        final double[] weights;
+        final int[] first;
+        final int[] second;
+        final int[] strength;
+        final int[] order;           // Hands from weakest to strongest
+        final int[] sortedStrength;
+        final int[] cardStart;       // Per card, start of its hands in cardHands; 53 entries
+        final int[] cardHands;       // Hands holding each card, weakest first
+        final int cardSpan;          // Per-card prefix sums of one terminal: one more slot than hands per card
+
+        Range(HandRange range, long board) {
+            int n = 0;
+            for (int i = 0; i < range.size(); i++) {
+                if ((range.combo(i) & board) == 0) n++;
+            }
+            if (n == 0) {
+                throw new IllegalArgumentException("No hand of a range fits on the board.");
+            }
+            size = n;
+            combos = new long[n];
+            weights = new double[n];
+            first = new int[n];
+            second = new int[n];
+            strength = new int[n];
+            for (int i = 0, h = 0; i < range.size(); i++) {
+                long combo = range.combo(i);
+                if ((combo & board) != 0) continue;
+                combos[h] = combo;
+                weights[h] = range.weight(i);
+                first[h] = CardSet.first(combo);
+                second[h] = CardSet.first(combo & (combo - 1));
+                strength[h] = SevenCardEvaluator.evaluate(board | combo);
+                h++;
+            }
+
+            order = new int[n];
+            long[] keyed = new long[n];
+            for (int h = 0; h < n; h++) {
+                keyed[h] = (long) strength[h] << 32 | h;
+            }
+            Arrays.sort(keyed);
+            sortedStrength = new int[n];
+            int[] rankOf = new int[n];
+            for (int k = 0; k < n; k++) {
+                order[k] = (int) keyed[k];
+                sortedStrength[k] = strength[order[k]];
+                rankOf[order[k]] = k;
+            }
+
+            cardStart = new int[53];
+            for (int h = 0; h < n; h++) {
+                cardStart[first[h] + 1]++;
+                cardStart[second[h] + 1]++;
+            }
+            for (int c = 0; c < 52; c++) {
+                cardStart[c + 1] += cardStart[c];
+            }
+            cardHands = new int[2 * n];
+            int[] fill = Arrays.copyOf(cardStart, 52);
+            for (int k = 0; k < n; k++) {
+                int h = order[k];
+                cardHands[fill[first[h]]++] = h;
+                cardHands[fill[second[h]]++] = h;
+            }
+            cardSpan = 2 * n + 52;
+        }
+    }
+
+    /**
+     * Where each of a player's hands falls among the opponent's: how many of the opponent's hands are
+     * weaker and not stronger, overall and among those holding each of its cards, and the opponent's
+     * identical hand
+     */
+    private static final class Matchup {
+        final int[] weaker;
+        final int[] notStronger;
+        final int[] firstWeaker;
+        final int[] firstNotStronger;
+        final int[] secondWeaker;
+        final int[] secondNotStronger;
+        final int[] same;
+        final double[] compatibleWeight;     // Weight of the opponent's hands sharing no card
+
+        Matchup(Range range, Range other) {
+            int n = range.size;
+            weaker = new int[n];
+            notStronger = new int[n];
+            firstWeaker = new int[n];
+            firstNotStronger = new int[n];
+            secondWeaker = new int[n];
+            secondNotStronger = new int[n];
+            same = new int[n];
+            compatibleWeight = new double[n];
+
+            int[] cardStrength = new int[other.cardHands.length];
+            for (int k = 0; k < cardStrength.length; k++) {
+                cardStrength[k] = other.strength[other.cardHands[k]];
+            }
+            Map<Long, Integer> index = new HashMap<>();
+            for (int o = 0; o < other.size; o++) {
+                index.put(other.combos[o], o);
+            }
+
+            for (int h = 0; h < n; h++) {
+                int s = range.strength[h];
+                weaker[h] = bound(other.sortedStrength, 0, other.size, s);
+                notStronger[h] = bound(other.sortedStrength, 0, other.size, s + 1);
+                int a = range.first[h];
+                int b = range.second[h];
+                firstWeaker[h] = bound(cardStrength, other.cardStart[a], other.cardStart[a + 1], s) - other.cardStart[a];
+                firstNotStronger[h] = bound(cardStrength, other.cardStart[a], other.cardStart[a + 1], s + 1) - other.cardStart[a];
+                secondWeaker[h] = bound(cardStrength, other.cardStart[b], other.cardStart[b + 1], s) - other.cardStart[b];
+                secondNotStronger[h] = bound(cardStrength, other.cardStart[b], other.cardStart[b + 1], s + 1) - other.cardStart[b];
+                same[h] = index.getOrDefault(range.combos[h], -1);
+
+                for (int o = 0; o < other.size; o++) {
+                    if ((other.combos[o] & range.combos[h]) == 0) compatibleWeight[h] += other.weights[o];
+                }
+            }
+        }
+
+        // First index in [from, to) of a sorted array whose value is at least key
+        private static int bound(int[] sorted, int from, int to, int key) {
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (sorted[mid] < key) from = mid + 1;
+                else to = mid;
+            }
+            return from;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.sraddhasurya.poker;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Validates river solves and runs them on the SimulationScheduler's pool, under its admission control
+ *
+ * A solve forks its traversals across the whole pool while holding one permit, so each is bounded
+ * twice: its work (tree nodes times the hands of both ranges times iterations) is capped up front,
+ * and a deadline from arrival cuts it short with the average strategy so far
+ */
+@Service
+public class RiverSolverService {
+
+    private static final int MAX_SIZES = 8;
+
+    private final SimulationScheduler scheduler;
+    private final int maxIterations;
+    private final int maxNodes;
+    private final long maxWork;
+    private final Duration defaultDeadline;
+
+    public RiverSolverService(SimulationScheduler scheduler,
+            @Value("${poker.river.max-iterations:10000}") int maxIterations,
+            @Value("${poker.river.max-nodes:1000}") int maxNodes,
+            @Value("${poker.river.max-work:500000000}") long maxWork,
+            @Value("${poker.scheduler.deadline:5s}") Duration defaultDeadline) {
+        this.scheduler = scheduler;
+        this.maxIterations = maxIterations;
+        this.maxNodes = maxNodes;
+        this.maxWork = maxWork;
+        this.defaultDeadline = defaultDeadline;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the board, amounts, sizes or ranges are invalid, or the tree or the work is too large
+     * @throws SimulationRejectedException if the simulation queue is full
+     */
+    public RiverSolution solve(RiverSolveRequest request) {
+        // The deadline runs from arrival, so time spent queued counts against it
+        long start = System.nanoTime();
+        long deadline = start + (request.getDeadlineMillis() != null
+                ? request.getDeadlineMillis() * 1_000_000L : defaultDeadline.toNanos());
+        if (request.getCommunityCards() == null || request.getCommunityCards().size() != 5) {
+            throw new IllegalArgumentException("Must provide the 5 river cards.");
+        }
+        long board = CardParser.parseSet(request.getCommunityCards());
+        if (CardSet.size(board) != 5) {
+            throw new IllegalArgumentException("Board card repeated");
+        }
+        if (request.getPotSize() < 1 || request.getStackSize() < 0 || request.getStackSize() > 100_000_000) {
+            throw new IllegalArgumentException("Invalid pot or stack");
+        }
+        if (request.getMaxRaises() < 0 || request.getMaxRaises() > 4) {
+            throw new IllegalArgumentException("Raise count out of range");
+        }
+        if (request.getMaxIterations() < 1 || request.getMaxIterations() > maxIterations
+                || !(request.getTargetExploitability() >= 0)) {
+            throw new IllegalArgumentException("Iteration count or target out of range");
+        }
+        if (request.getOopRange() == null || request.getIpRange() == null) {
+            throw new IllegalArgumentException("Must provide both ranges.");
+        }
+        HandRange oopRange = HandRange.parse(request.getOopRange());
+        HandRange ipRange = HandRange.parse(request.getIpRange());
+        RiverTree tree = RiverTree.build(request.getPotSize(), request.getStackSize(), sizes(request.getBetSizes()),
+                sizes(request.getRaiseSizes()), request.getMaxRaises(), request.isAllIn(), maxNodes);
+        long work = (long) tree.size() * (oopRange.size() + ipRange.size()) * request.getMaxIterations();
+        if (work > maxWork) {
+            throw new IllegalArgumentException("Solve too large; use fewer iterations, sizes or hands");
+        }
+
+        double target = request.getTargetExploitability() * request.getPotSize();
+        return scheduler.run(() -> {
+            RiverSolution solution = RiverSolver.solve(board, tree, request.getPotSize(), oopRange, ipRange,
+                    target, request.getMaxIterations(), deadline);
+            if (solution.isDeadlineExceeded()) {
+                scheduler.recordDeadlineExceeded();
+            }
+            return solution;
+        });
+    }
+
+    private static double[] sizes(List<Double> fractions) {
+        if (fractions == null) {
+            return new double[0];
+        }
+        if (fractions.size() > MAX_SIZES) {
+            throw new IllegalArgumentException("At most " + MAX_SIZES + " sizes.");
+        }
+        double[] sizes = new double[fractions.size()];
+        for (int s = 0; s < sizes.length; s++) {
+            Double size = fractions.get(s);
+            if (size == null || !(size > 0) || size > 100) {
+                throw new IllegalArgumentException("Sizes must be positive fractions of the pot.");
+            }
+            sizes[s] = size;
+        }
+        return sizes;
+    }
+}
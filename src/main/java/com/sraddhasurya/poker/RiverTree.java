@@ -0,0 +1,162 @@
+package com.sraddhasurya.poker;
+
+import java.util.*;
+
+/**
+ * Heads-up river betting tree over a bet-size abstraction, stored as flat per-node arrays
+ *
+ * The out-of-position player (0) acts first: check or bet. Facing a bet a player folds, calls or, while
+ * fewer than maxRaises raises have been made, raises. Bets are fractions of the pot at the node,
+ * raises fractions of the pot after calling, both capped at the stack, so a size at or past the
+ * stack is the all-in; two sizes landing on the same amount are one action. Contributions are the
+ * chips each player has put in on the river, on top of the pot both already share
+ */
+final class RiverTree {
+    static final int SHOWDOWN = -1;
+    static final int OOP_FOLDS = -2;
+    static final int IP_FOLDS = -3;
+
+    // Per node: the player to act (0 or 1) or the terminal kind, each player's contribution, the
+    // children in action order with their labels, and the node's path from the root
+    final int[] player;
+    final int[] contribution0;
+    final int[] contribution1;
+    final int[][] children;
+    final String[][] actions;
+    final int[] parent;
+    final int[] parentAction;
+
+    private RiverTree(List<int[]> nodes, List<int[]> children, List<String[]> actions) {
+        int n = nodes.size();
+        player = new int[n];
+        contribution0 = new int[n];
+        contribution1 = new int[n];
+        parent = new int[n];
+        parentAction = new int[n];
+        this.children = children.toArray(new int[0][]);
+        this.actions = actions.toArray(new String[0][]);
+        Arrays.fill(parent, -1);
+        for (int i = 0; i < n; i++) {
+            player[i] = nodes.get(i)[0];
+            contribution0[i] = nodes.get(i)[1];
+            contribution1[i] = nodes.get(i)[2];
+            for (int a = 0; a < this.children[i].length; a++) {
+                parent[this.children[i][a]] = i;
+                parentAction[this.children[i][a]] = a;
+            }
+        }
+    }
+
+    /**
+     * @param potSize    pot at the start of the river
+     * @param stackSize  chips each player has behind (the effective stack)
+     * @param betSizes   bets as fractions of the pot
+     * @param raiseSizes raises as fractions of the pot after calling
+     * @param allIn      also offer the all-in at every bet and raise
+     * @param maxNodes   largest tree to build
+     * @throws IllegalArgumentException if the tree would have more than maxNodes nodes
+     */
+    static RiverTree build(int potSize, int stackSize, double[] betSizes, double[] raiseSizes, int maxRaises, boolean allIn, int maxNodes) {
+        Builder builder = new Builder(potSize, stackSize, betSizes, raiseSizes, maxRaises, allIn, maxNodes);
+        builder.action(0, 0, 0, 0);
+        return new RiverTree(builder.nodes, builder.children, builder.actions);
+    }
+
+    int size() {
+        return player.length;
+    }
+
+    boolean isTerminal(int node) {
+        return player[node] < 0;
+    }
+
+    /**
+     * Action labels from the root down to a node
+     */
+    List<String> path(int node) {
+        LinkedList<String> path = new LinkedList<>();
+        for (int n = node; parent[n] >= 0; n = parent[n]) {
+            path.addFirst(actions[parent[n]][parentAction[n]]);
+        }
+        return path;
+    }
+
+    private static final class Builder {
+        private final int potSize;
+        private final int stackSize;
+        private final double[] betSizes;
+        private final double[] raiseSizes;
+        private final int maxRaises;
+        private final boolean allIn;
+        private final int maxNodes;
+        private final List<int[]> nodes = new ArrayList<>();
+        private final List<int[]> children = new ArrayList<>();
+        private final List<String[]> actions = new ArrayList<>();
+
+        Builder(int potSize, int stackSize, double[] betSizes, double[] raiseSizes, int maxRaises, boolean allIn, int maxNodes) {
+            this.potSize = potSize;
+            this.stackSize = stackSize;
+            this.betSizes = betSizes;
+            this.raiseSizes = raiseSizes;
+            this.maxRaises = maxRaises;
+            this.allIn = allIn;
+            this.maxNodes = maxNodes;
+        }
+
+        private int add(int player, int c0, int c1) {
+            if (nodes.size() == maxNodes) {
+                throw new IllegalArgumentException("Betting tree has more than " + maxNodes + " nodes.");
+            }
+            nodes.add(new int[] {player, c0, c1});
+            children.add(new int[0]);
+            actions.add(new String[0]);
+            return nodes.size() - 1;
+        }
+
+        // Adds the node where player p acts with the contributions so far, and the subtree below it
+        int action(int p, int c0, int c1, int raises) {
+            int node = add(p, c0, c1);
+            int mine = p == 0 ? c0 : c1;
+            int theirs = p == 0 ? c1 : c0;
+            List<Integer> kids = new ArrayList<>();
+            List<String> labels = new ArrayList<>();
+
+            if (mine == theirs) {
+                labels.add("check");
+                kids.add(p == 0 ? action(1, c0, c1, raises) : add(SHOWDOWN, c0, c1));
+                for (int target : targets(betSizes, mine, potSize + c0 + c1)) {
+                    labels.add("bet " + target);
+                    kids.add(action(1 - p, p == 0 ? target : c0, p == 0 ? c1 : target, raises));
+                }
+            } else {
+                labels.add("fold");
+                kids.add(add(p == 0 ? OOP_FOLDS : IP_FOLDS, c0, c1));
+                labels.add("call");
+                kids.add(add(SHOWDOWN, theirs, theirs));
+                if (raises < maxRaises && theirs < stackSize) {
+                    for (int target : targets(raiseSizes, theirs, potSize + 2 * theirs)) {
+                        labels.add("raise " + target);
+                        kids.add(action(1 - p, p == 0 ? target : c0, p == 0 ? c1 : target, raises + 1));
+                    }
+                }
+            }
+            children.set(node, kids.stream().mapToInt(Integer::intValue).toArray());
+            actions.set(node, labels.toArray(new String[0]));
+            return node;
+        }
+
+        // Contributions after betting each fraction of the pot on top of base, capped at the stack
+        private SortedSet<Integer> targets(double[] sizes, int base, int pot) {
+            SortedSet<Integer> targets = new TreeSet<>();
+            for (double size : sizes) {
+                long amount = Math.max(1, Math.round(size * pot));
+                targets.add((int) Math.min(stackSize, base + amount));
+            }
+            if (allIn) {
+                targets.add(stackSize);
+            }
+            targets.removeIf(target -> target <= base);
+            return targets;
+        }
+    }
+}
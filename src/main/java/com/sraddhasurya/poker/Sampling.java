@@ -0,0 +1,33 @@
+package com.sraddhasurya.poker;
+
+import java.util.Locale;
+
+/**
+ * How a Monte Carlo simulation picks its deals
+ *
+ * UNIFORM draws every card independently. STRATIFIED spreads each batch's runouts (the board cards
+ * still to come, the next one first) evenly over the deck with a randomly shifted low-discrepancy
+ * sequence and draws the opponents' cards independently; QUASI_RANDOM does the same for every card
+ * dealt. Each batch gets its own random shift, so every trial is still a fair deal and the batches
+ * are independent estimates whose spread gives the standard error
+ */
+public enum Sampling {
+    UNIFORM,
+    STRATIFIED,
+    QUASI_RANDOM;
+
+    /**
+     * Parses a request's sampling name ("uniform", "stratified" or "quasi-random")
+     *
+     * @return the named sampling, UNIFORM when name is null or blank
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static Sampling parse(String name) {
+        if (name == null || name.isBlank()) return UNIFORM;
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sampling: " + name);
+        }
+    }
+}
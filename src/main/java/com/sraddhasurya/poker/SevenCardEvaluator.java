@@ -0,0 +1,193 @@
+package com.sraddhasurya.poker;
+
+import java.util.List;
+
+/**
+ * Table driven evaluator for 5, 6 or 7 card poker hands
+ *
+ * Cards are packed into a CardSet long with one 13-bit rank mask per suit, so a hand is evaluated with a few
+ * bitwise operations and lookups into precomputed 8192-entry tables. The returned int orders hands
+ * completely: the category (0 = High Card ... 8 = Straight Flush) sits above the kickers, so a larger
+ * value is always the stronger hand and equal values are a split
+ */
+public class SevenCardEvaluator {
+
+    public static final int HIGH_CARD = 0;
+    public static final int ONE_PAIR = 1;
+    public static final int TWO_PAIR = 2;
+    public static final int THREE_OF_A_KIND = 3;
+    public static final int STRAIGHT = 4;
+    public static final int FLUSH = 5;
+    public static final int FULL_HOUSE = 6;
+    public static final int FOUR_OF_A_KIND = 7;
+    public static final int STRAIGHT_FLUSH = 8;
+
+    // Category names, indexed by category, matching PokerHandEvaluator's strings
+    private static final String[] CATEGORY_NAMES = {
+        "High Card", "One Pair", "Two Pair", "Three of a Kind", "Straight",
+        "Flush", "Full House", "Four of a Kind", "Straight Flush"
+    };
+
+    private static final int CATEGORY_SHIFT = 20;
+    private static final int RANK_MASK = 0x1FFF;
+    private static final int WHEEL = 0x100F;       // A, 5, 4, 3, 2
+
+    // Flush suit hints for evaluate(s0, s1, s2, s3, flushSuit)
+    static final int ANY_SUIT = 4;
+    static final int NO_FLUSH = -1;
+
+    // Rank index (0 = deuce ... 12 = ace) of the highest straight in a rank mask, plus one; 0 if none
+    private static final byte[] STRAIGHT_TOP = new byte[1 << 13];
+    // The five highest rank indexes of a mask packed as nibbles, highest first in bits 16-19 (also
+    // gathered by VectorBatchEvaluator)
+    static final int[] TOP_FIVE = new int[1 << 13];
+
+    static {
+        for (int mask = 0; mask < (1 << 13); mask++) {
+            for (int top = 12; top >= 4; top--) {
+                int run = 0x1F << (top - 4);
+                if ((mask & run) == run) {
+                    STRAIGHT_TOP[mask] = (byte) (top + 1);
+                    break;
+                }
+            }
+            if (STRAIGHT_TOP[mask] == 0 && (mask & WHEEL) == WHEEL) {
+                STRAIGHT_TOP[mask] = 4;     // five-high straight
+            }
+
+            int packed = 0;
+            int shift = 16;
+            for (int bit = 12; bit >= 0 && shift >= 0; bit--) {
+                if ((mask & (1 << bit)) != 0) {
+                    packed |= bit << shift;
+                    shift -= 4;
+                }
+            }
+            TOP_FIVE[mask] = packed;
+        }
+    }
+
+    /**
+     * Evaluates a hand packed as four 13-bit suit masks (suit s occupies bits 13*s to 13*s + 12)
+     *
+     * @param cards: packed hand of 5 to 7 distinct cards
+     * @return hand value, larger is stronger
+     */
+    public static int evaluate(long cards) {
+        int s0 = (int) cards & RANK_MASK;
+        int s1 = (int) (cards >>> 13) & RANK_MASK;
+        int s2 = (int) (cards >>> 26) & RANK_MASK;
+        int s3 = (int) (cards >>> 39) & RANK_MASK;
+        return evaluate(s0, s1, s2, s3);
+    }
+
+    /**
+     * Evaluates a hand given as one rank mask per suit
+     */
+    static int evaluate(int s0, int s1, int s2, int s3) {
+        return evaluate(s0, s1, s2, s3, ANY_SUIT);
+    }
+
+    /**
+     * Evaluates a hand given as one rank mask per suit, when it is already known which suit could
+     * hold a flush (a board of five or fewer cards leaves at most one suit with three)
+     *
+     * @param flushSuit the only suit that can hold a flush, NO_FLUSH if none can, or ANY_SUIT
+     */
+    static int evaluate(int s0, int s1, int s2, int s3, int flushSuit) {
+        int ranks = s0 | s1 | s2 | s3;
+
+        int quads = s0 & s1 & s2 & s3;
+        if (quads != 0) {
+            int kickers = ranks & ~quads;
+            return (FOUR_OF_A_KIND << CATEGORY_SHIFT) | (topBit(quads) << 16) | (topBit(kickers) << 12);
+        }
+
+        int odd = s0 ^ s1 ^ s2 ^ s3;
+        int trips = ((s0 & s1) | (s2 & s3)) & ((s0 & s2) | (s1 & s3));
+        int pairs = ranks & ~odd;
+
+        if (trips != 0) {
+            int trip = topBit(trips);
+            int rest = pairs | (trips & ~(1 << trip));
+            if (rest != 0) {
+                return (FULL_HOUSE << CATEGORY_SHIFT) | (trip << 16) | (topBit(rest) << 12);
+            }
+        }
+
+        // With at most seven cards a flush can't coexist with quads or a full house
+        int flush = switch (flushSuit) {
+            case NO_FLUSH -> 0;
+            case 0 -> Integer.bitCount(s0) >= 5 ? s0 : 0;
+            case 1 -> Integer.bitCount(s1) >= 5 ? s1 : 0;
+            case 2 -> Integer.bitCount(s2) >= 5 ? s2 : 0;
+            case 3 -> Integer.bitCount(s3) >= 5 ? s3 : 0;
+            default -> flushMask(s0, s1, s2, s3);
+        };
+        if (flush != 0) {
+            int top = STRAIGHT_TOP[flush];
+            if (top != 0) {
+                return (STRAIGHT_FLUSH << CATEGORY_SHIFT) | ((top - 1) << 16);
+            }
+            return (FLUSH << CATEGORY_SHIFT) | TOP_FIVE[flush];
+        }
+
+        int top = STRAIGHT_TOP[ranks];
+        if (top != 0) {
+            return (STRAIGHT << CATEGORY_SHIFT) | ((top - 1) << 16);
+        }
+
+        if (trips != 0) {
+            int kickers = ranks & ~trips;
+            return (THREE_OF_A_KIND << CATEGORY_SHIFT) | (topBit(trips) << 16) | ((TOP_FIVE[kickers] & 0xFF000) >> 4);
+        }
+
+        if (pairs != 0) {
+            int high = topBit(pairs);
+            int others = pairs & ~(1 << high);
+            if (others != 0) {
+                int low = topBit(others);
+                int kickers = ranks & ~(1 << high) & ~(1 << low);
+                return (TWO_PAIR << CATEGORY_SHIFT) | (high << 16) | (low << 12) | (topBit(kickers) << 8);
+            }
+            int kickers = ranks & ~pairs;
+            return (ONE_PAIR << CATEGORY_SHIFT) | (high << 16) | ((TOP_FIVE[kickers] & 0xFFF00) >> 4);
+        }
+
+        return (HIGH_CARD << CATEGORY_SHIFT) | TOP_FIVE[ranks];
+    }
+
+    /**
+     * Evaluates a list of 5 to 7 Card objects
+     */
+    public static int evaluate(List<Card> cards) {
+        return evaluate(CardSet.of(cards));
+    }
+
+    /**
+     * Extracts the hand category (0 = High Card ... 8 = Straight Flush) from a hand value,
+     * on the same scale as PokerHandEvaluator.getHandStrength
+     */
+    public static int category(int handValue) {
+        return handValue >>> CATEGORY_SHIFT;
+    }
+
+    /**
+     * Returns the category name of a hand value, e.g. "Full House"
+     */
+    public static String categoryName(int handValue) {
+        return CATEGORY_NAMES[category(handValue)];
+    }
+
+    private static int flushMask(int s0, int s1, int s2, int s3) {
+        if (Integer.bitCount(s0) >= 5) return s0;
+        if (Integer.bitCount(s1) >= 5) return s1;
+        if (Integer.bitCount(s2) >= 5) return s2;
+        if (Integer.bitCount(s3) >= 5) return s3;
+        return 0;
+    }
+
+    private static int topBit(int mask) {
+        return 31 - Integer.numberOfLeadingZeros(mask);
+    }
+}
@@ -0,0 +1,136 @@
+package com.sraddhasurya.poker;
+
+import java.util.*;
+
+/**
+ * Ranks hole cards against one shared board
+ *
+ * The board's suit masks and the one suit that could still make a flush are worked out once, so each
+ * player's hand is two cards or'ed into the board masks and a single evaluation. Used by /evaluate-winner
+ * and by the simulators' opponent loops, where the same runout is evaluated for every player; a loop
+ * over many runouts resets one Showdown to each board rather than allocating one per runout
+ */
+public final class Showdown {
+
+    private static final int RANK_MASK = 0x1FFF;
+
+    private long board;
+    private int s0;
+    private int s1;
+    private int s2;
+    private int s3;
+    private int flushSuit;
+
+    /**
+     * @param board card set of 3 to 5 community cards
+     */
+    public Showdown(long board) {
+        reset(board);
+    }
+
+    /**
+     * Moves this showdown to another board
+     *
+     * @param board card set of 3 to 5 community cards
+     */
+    public void reset(long board) {
+        this.board = board;
+        this.s0 = (int) board & RANK_MASK;
+        this.s1 = (int) (board >>> 13) & RANK_MASK;
+        this.s2 = (int) (board >>> 26) & RANK_MASK;
+        this.s3 = (int) (board >>> 39) & RANK_MASK;
+        // Two hole cards can only complete a flush in a suit the board already shows three times
+        int suit = SevenCardEvaluator.NO_FLUSH;
+        for (int s = 0; s < 4; s++) {
+            if (CardSet.suitCount(board, s) >= 3) {
+                suit = s;
+            }
+        }
+        this.flushSuit = suit;
+    }
+
+    public long getBoard() {
+        return board;
+    }
+
+    /**
+     * Hand value of hole cards with this board, on SevenCardEvaluator's scale
+     *
+     * @param holeCards card set of the player's hole cards, not overlapping the board
+     */
+    public int rank(long holeCards) {
+        return SevenCardEvaluator.evaluate(
+                s0 | (int) holeCards & RANK_MASK,
+                s1 | (int) (holeCards >>> 13) & RANK_MASK,
+                s2 | (int) (holeCards >>> 26) & RANK_MASK,
+                s3 | (int) (holeCards >>> 39) & RANK_MASK,
+                flushSuit);
+    }
+
+    /**
+     * Ranks every player's hand against the board
+     *
+     * @param holeCards card set of each player's two hole cards
+     * @throws IllegalArgumentException if the board doesn't hold 3 to 5 cards, there are no players, a
+     *                                  player doesn't hold exactly 2 cards, or a card is dealt twice
+     */
+    public static ShowdownResult rank(long board, long[] holeCards) {
+        if (CardSet.size(board) < 3 || CardSet.size(board) > 5) {
+            throw new IllegalArgumentException("Must provide 3 to 5 community cards.");
+        }
+        if (holeCards.length == 0) {
+            throw new IllegalArgumentException("Must provide at least one player.");
+        }
+        long dealt = board;
+        for (long hole : holeCards) {
+            if (CardSet.size(hole) != 2) {
+                throw new IllegalArgumentException("Must provide exactly 2 hole cards.");
+            }
+            if ((dealt & hole) != 0) {
+                throw new IllegalArgumentException("Card dealt twice");
+            }
+            dealt |= hole;
+        }
+
+        Showdown showdown = new Showdown(board);
+        int players = holeCards.length;
+        int[] ranks = new int[players];
+        long[] bestFive = new long[players];
+        Integer[] order = new Integer[players];
+        for (int p = 0; p < players; p++) {
+            ranks[p] = showdown.rank(holeCards[p]);
+            bestFive[p] = bestFive(holeCards[p] | board, ranks[p]);
+            order[p] = p;
+        }
+        // Stable, so equal hands keep seat order
+        Arrays.sort(order, (a, b) -> Integer.compare(ranks[b], ranks[a]));
+
+        List<List<Integer>> groups = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            if (i == 0 || ranks[order[i]] != ranks[order[i - 1]]) {
+                groups.add(new ArrayList<>());
+            }
+            groups.get(groups.size() - 1).add(order[i]);
+        }
+        return new ShowdownResult(ranks, Arrays.stream(order).mapToInt(Integer::intValue).toArray(), groups, bestFive);
+    }
+
+    /**
+     * The five of 5 to 7 cards that make up a hand value
+     */
+    static long bestFive(long cards, int rank) {
+        int size = CardSet.size(cards);
+        if (size == 7) {
+            return BestFiveCards.bestOf(cards);
+        }
+        if (size == 6) {
+            for (long left = cards; left != 0; left &= left - 1) {
+                long hand = cards & ~(left & -left);
+                if (SevenCardEvaluator.evaluate(hand) == rank) {
+                    return hand;
+                }
+            }
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,44 @@
+package com.sraddhasurya.poker;
+
+import java.util.List;
+
+/**
+ * Outcome of a showdown: every player's hand value, the players from best to worst hand, and the
+ * groups of players who split each pot
+ */
+public class ShowdownResult {
+    private final int[] ranks;                  // Hand value per player, on SevenCardEvaluator's scale
+    private final int[] order;                  // Player indexes from best hand to worst, ties in seat order
+    private final List<List<Integer>> groups;   // Players with equal hands, best group first
+    private final long[] bestFive;              // Card set of each player's best five cards
+
+    public ShowdownResult(int[] ranks, int[] order, List<List<Integer>> groups, long[] bestFive) {
+        this.ranks = ranks;
+        this.order = order;
+        this.groups = groups;
+        this.bestFive = bestFive;
+    }
+
+    public int[] getRanks() {
+        return ranks;
+    }
+
+    public int[] getOrder() {
+        return order;
+    }
+
+    public List<List<Integer>> getGroups() {
+        return groups;
+    }
+
+    public long[] getBestFive() {
+        return bestFive;
+    }
+
+    /**
+     * Players who split the main pot
+     */
+    public List<Integer> getWinners() {
+        return groups.get(0);
+    }
+}
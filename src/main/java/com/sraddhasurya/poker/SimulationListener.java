@@ -0,0 +1,20 @@
+package com.sraddhasurya.poker;
+
+/**
+ * Receives running estimates from a Monte Carlo simulation and can stop it early
+ */
+public interface SimulationListener {
+
+    /**
+     * Called between rounds of trials with the estimate from every trial run so far
+     */
+    void onProgress(PokerEVResult estimate);
+
+    /**
+     * Polled by the workers; once true the simulation drops the round in flight and returns the
+     * estimate from the rounds already completed
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
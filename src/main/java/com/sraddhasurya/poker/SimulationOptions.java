@@ -0,0 +1,150 @@
+package com.sraddhasurya.poker;
+
+/**
+ * Settings for one EV simulation: how many trials to run, when to stop early and how to seed it
+ */
+public class SimulationOptions {
+    // Upper bound on trials when stopping on a target error or a time budget
+    public static final int DEFAULT_MAX_TRIALS = 1_000_000;
+
+    private int numTrials;
+    private int maxTrials = DEFAULT_MAX_TRIALS;
+    private Long seed;
+    private long maxExactCombinations = PokerEVSimulator.DEFAULT_MAX_EXACT_COMBINATIONS;
+    private Double targetStandardError;
+    private Long timeBudgetMillis;
+    private Long deadlineNanos;         // System.nanoTime() after which no further round starts
+    private SimulationListener listener;
+    private HandRange[] opponentRanges;     // Per opponent, null entries hold random hands
+    private Sampling sampling = Sampling.UNIFORM;
+    private Integer progressTrials;     // Report at least this many trials apart
+    private Long progressMillis;        // Or at least this long apart
+
+    /**
+     * @param numTrials: trials to run when neither a target error nor a time budget is set
+     */
+    public SimulationOptions(int numTrials) {
+        this.numTrials = numTrials;
+    }
+
+    /**
+     * True when the simulation should run in rounds and stop as soon as it is precise enough or out of time
+     */
+    public boolean isAdaptive() {
+        return targetStandardError != null || timeBudgetMillis != null;
+    }
+
+    /**
+     * True when the trials run in rounds, to stop early, meet a deadline or report progress between rounds
+     */
+    public boolean isIncremental() {
+        return isAdaptive() || deadlineNanos != null || listener != null;
+    }
+
+    public int getNumTrials() {
+        return numTrials;
+    }
+
+    public void setNumTrials(int numTrials) {
+        this.numTrials = numTrials;
+    }
+
+    public int getMaxTrials() {
+        return maxTrials;
+    }
+
+    public void setMaxTrials(int maxTrials) {
+        this.maxTrials = maxTrials;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public long getMaxExactCombinations() {
+        return maxExactCombinations;
+    }
+
+    public void setMaxExactCombinations(long maxExactCombinations) {
+        this.maxExactCombinations = maxExactCombinations;
+    }
+
+    public Double getTargetStandardError() {
+        return targetStandardError;
+    }
+
+    public void setTargetStandardError(Double targetStandardError) {
+        this.targetStandardError = targetStandardError;
+    }
+
+    public Long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    public void setTimeBudgetMillis(Long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    public Long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * Hard stop: unlike a time budget it doesn't make the run adaptive, it only cuts it short, returning
+     * the estimate from the rounds finished by then (always at least one)
+     */
+    public void setDeadlineNanos(Long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public SimulationListener getListener() {
+        return listener;
+    }
+
+    public void setListener(SimulationListener listener) {
+        this.listener = listener;
+    }
+
+    public Integer getProgressTrials() {
+        return progressTrials;
+    }
+
+    public void setProgressTrials(Integer progressTrials) {
+        this.progressTrials = progressTrials;
+    }
+
+    public Long getProgressMillis() {
+        return progressMillis;
+    }
+
+    public void setProgressMillis(Long progressMillis) {
+        this.progressMillis = progressMillis;
+    }
+
+    public Sampling getSampling() {
+        return sampling;
+    }
+
+    /**
+     * Deals the trials independently (UNIFORM) or spread evenly per batch (STRATIFIED, QUASI_RANDOM),
+     * which reaches a target standard error in fewer trials
+     */
+    public void setSampling(Sampling sampling) {
+        this.sampling = sampling;
+    }
+
+    public HandRange[] getOpponentRanges() {
+        return opponentRanges;
+    }
+
+    /**
+     * Deals opponent p from opponentRanges[p] instead of a random hand; ranged spots are never enumerated
+     */
+    public void setOpponentRanges(HandRange[] opponentRanges) {
+        this.opponentRanges = opponentRanges;
+    }
+}
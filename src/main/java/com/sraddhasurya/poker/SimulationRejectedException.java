@@ -0,0 +1,17 @@
+package com.sraddhasurya.poker;
+
+/**
+ * Thrown when the simulation queue is full; the request should be retried after retryAfterSeconds
+ */
+public class SimulationRejectedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public SimulationRejectedException(long retryAfterSeconds) {
+        super("Simulation queue is full");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
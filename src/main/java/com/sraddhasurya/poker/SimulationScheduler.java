@@ -0,0 +1,190 @@
+package com.sraddhasurya.poker;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs simulations on a dedicated, bounded fork/join pool with admission control
+ *
+ * Each simulation is one top-level task on the pool, and its trial batches fork inside the same pool,
+ * so simulations never use more than the pool's threads however many requests arrive. Up to
+ * queueCapacity simulations may wait for a thread; beyond that run() rejects at once with a
+ * Retry-After estimate rather than letting latency grow for everyone. Callers wait on the pool, which
+ * is cheap on the virtual threads that handle requests
+ */
+@Component
+public class SimulationScheduler {
+    // Weight of the newest run in the average simulation time
+    private static final double AVERAGE_WEIGHT = 0.1;
+
+    private final ForkJoinPool pool;
+    private final int queueCapacity;
+    // One permit per pool thread plus one per queue slot, held from admission until the simulation ends
+    private final Semaphore admitted;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong deadlinesExceeded = new AtomicLong();
+    // Average simulation time in milliseconds, as Double.doubleToLongBits so pool threads can update it with a CAS
+    private final AtomicLong averageMillis = new AtomicLong(Double.doubleToLongBits(0.0));
+
+    public SimulationScheduler(@Value("${poker.scheduler.threads:0}") int threads,
+            @Value("${poker.scheduler.queue-capacity:32}") int queueCapacity) {
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism, p -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("poker-sim-" + threadCount.incrementAndGet());
+            return thread;
+        }, null, false);
+        this.queueCapacity = queueCapacity;
+        this.admitted = new Semaphore(parallelism + queueCapacity);
+    }
+
+    /**
+     * Runs a simulation on the pool and waits for its result, rejecting it if the queue is full
+     *
+     * @throws SimulationRejectedException if every thread is busy and the queue is full
+     */
+    public <T> T run(Supplier<T> simulation) {
+        if (!admitted.tryAcquire()) {
+            rejected.incrementAndGet();
+            throw new SimulationRejectedException(retryAfterSeconds());
+        }
+        return submit(simulation);
+    }
+
+    /**
+     * Runs a simulation on the pool, waiting for a queue slot instead of rejecting. For callers that
+     * already bound their own concurrency, like batches
+     */
+    public <T> T runWhenQueued(Supplier<T> simulation) {
+        try {
+            admitted.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted waiting for a simulation slot");
+        }
+        return submit(simulation);
+    }
+
+    private <T> T submit(Supplier<T> simulation) {
+        ForkJoinTask<T> task;
+        try {
+            task = pool.submit(() -> {
+                running.incrementAndGet();
+                long start = System.nanoTime();
+                try {
+                    return simulation.get();
+                } finally {
+                    double millis = (System.nanoTime() - start) / 1e6;
+                    recordMillis(millis);
+                    completed.incrementAndGet();
+                    running.decrementAndGet();
+                    admitted.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            admitted.release();
+            throw e;
+        }
+        return task.join();
+    }
+
+    /**
+     * Folds a run's time into the average, retrying when another thread updated it in between
+     */
+    private void recordMillis(double millis) {
+        long bits;
+        double updated;
+        do {
+            bits = averageMillis.get();
+            double average = Double.longBitsToDouble(bits);
+            updated = average + AVERAGE_WEIGHT * (millis - average);
+        } while (!averageMillis.compareAndSet(bits, Double.doubleToLongBits(updated)));
+    }
+
+    private double averageMillis() {
+        return Double.longBitsToDouble(averageMillis.get());
+    }
+
+    /**
+     * Counts a simulation cut short by its deadline
+     */
+    void recordDeadlineExceeded() {
+        deadlinesExceeded.incrementAndGet();
+    }
+
+    /**
+     * Seconds until the queued simulations are likely to have drained, at least 1
+     */
+    long retryAfterSeconds() {
+        int pending = pool.getParallelism() + queueCapacity - admitted.availablePermits();
+        double drainMillis = pending * averageMillis() / pool.getParallelism();
+        return Math.max(1, (long) Math.ceil(drainMillis / 1000));
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Simulations admitted but still waiting for a pool thread
+     */
+    public int getQueueDepth() {
+        int pending = pool.getParallelism() + queueCapacity - admitted.availablePermits();
+        return Math.max(0, pending - running.get());
+    }
+
+    public int getRunning() {
+        return running.get();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getDeadlinesExceeded() {
+        return deadlinesExceeded.get();
+    }
+
+    /**
+     * Queue depth, pool usage and rejection counters
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("parallelism", getParallelism());
+        stats.put("running", getRunning());
+        stats.put("queueDepth", getQueueDepth());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("completed", getCompleted());
+        stats.put("rejected", getRejected());
+        stats.put("deadlinesExceeded", getDeadlinesExceeded());
+        stats.put("averageMillis", averageMillis());
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
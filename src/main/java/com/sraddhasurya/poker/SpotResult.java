@@ -0,0 +1,34 @@
+package com.sraddhasurya.poker;
+
+import java.util.Map;
+
+/**
+ * Everything /probabilities reports for one spot: the hand category chances and the EV result
+ */
+public class SpotResult {
+    private final Map<String, Double> probabilities;
+    private final PokerEVResult evResult;
+    private final boolean deadlineExceeded;     // The simulation was cut short, evResult is the estimate so far
+
+    public SpotResult(Map<String, Double> probabilities, PokerEVResult evResult) {
+        this(probabilities, evResult, false);
+    }
+
+    public SpotResult(Map<String, Double> probabilities, PokerEVResult evResult, boolean deadlineExceeded) {
+        this.probabilities = probabilities;
+        this.evResult = evResult;
+        this.deadlineExceeded = deadlineExceeded;
+    }
+
+    public Map<String, Double> getProbabilities() {
+        return probabilities;
+    }
+
+    public PokerEVResult getEvResult() {
+        return evResult;
+    }
+
+    public boolean isDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+}
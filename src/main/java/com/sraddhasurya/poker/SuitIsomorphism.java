@@ -0,0 +1,60 @@
+package com.sraddhasurya.poker;
+
+/**
+ * Maps spots that only differ by relabeling suits onto one canonical representative
+ *
+ * Equity doesn't change when the four suits are permuted consistently across hole cards and board,
+ * so of the 24 relabelings the one with the smallest (board, hole) masks is taken as canonical
+ */
+public final class SuitIsomorphism {
+
+    private static final int[][] PERMUTATIONS = new int[24][];
+    // The relabeling that leaves every suit in place
+    public static final int IDENTITY = 0;
+
+    static {
+        int next = 0;
+        for (int a = 0; a < 4; a++)
+            for (int b = 0; b < 4; b++)
+                for (int c = 0; c < 4; c++)
+                    for (int d = 0; d < 4; d++)
+                        if (a != b && a != c && a != d && b != c && b != d && c != d) {
+                            PERMUTATIONS[next++] = new int[] {a, b, c, d};
+                        }
+    }
+
+    private SuitIsomorphism() {
+    }
+
+    /**
+     * Index of the suit relabeling that sends this spot to its canonical form
+     */
+    public static int canonicalPermutation(long holeCards, long communityCards) {
+        int best = 0;
+        long bestBoard = communityCards;
+        long bestHole = holeCards;
+        for (int p = 1; p < PERMUTATIONS.length; p++) {
+            long board = permute(communityCards, p);
+            if (board > bestBoard) continue;
+            long hole = permute(holeCards, p);
+            if (board < bestBoard || hole < bestHole) {
+                best = p;
+                bestBoard = board;
+                bestHole = hole;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Applies a suit relabeling: the cards of suit s move to suit PERMUTATIONS[permutation][s]
+     */
+    public static long permute(long cards, int permutation) {
+        int[] target = PERMUTATIONS[permutation];
+        long result = 0L;
+        for (int suit = 0; suit < 4; suit++) {
+            result |= (long) CardSet.suitMask(cards, suit) << (13 * target[suit]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package com.sraddhasurya.poker;
+
+/**
+ * Everything /probabilities/table-sizes reports: one EV result per table size from heads-up
+ */
+public class TableSizesResult {
+    private final PokerEVResult[] tables;       // Index 0 for heads-up
+    private final boolean deadlineExceeded;     // The simulation was cut short, the tables are the estimates so far
+
+    public TableSizesResult(PokerEVResult[] tables, boolean deadlineExceeded) {
+        this.tables = tables;
+        this.deadlineExceeded = deadlineExceeded;
+    }
+
+    public PokerEVResult[] getTables() {
+        return tables;
+    }
+
+    public boolean isDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+}
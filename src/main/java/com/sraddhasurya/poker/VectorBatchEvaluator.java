@@ -0,0 +1,210 @@
+package com.sraddhasurya.poker;
+
+import static jdk.incubator.vector.VectorOperators.*;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SevenCardEvaluator across SIMD lanes, one hand per lane (jdk.incubator.vector)
+ *
+ * The scalar evaluator branches to the first category that applies. Lanes can't branch, so every
+ * category's test runs in every lane on the suit masks (quads, trips and pairs from and/xor of the
+ * masks, flushes by popcount, straights as five shifted copies of a rank mask and'ed together) and
+ * each lane's value is blended lowest category first, so the last blend that applies is the highest
+ * category the hand makes, as the scalar evaluator finds it.
+ *
+ * The work runs as passes over the batch, each a loop of its own: C2 stops inlining into a method once
+ * its graph grows too large, and a vector passed to or returned from a call that isn't inlined is
+ * boxed on the heap. The passes hand over through the values array instead. Until the last pass,
+ * lanes whose category has kickers (high card, one pair, trips, flush) hold the category and leading
+ * rank in bits 16-23 and the mask the kickers come from in bits 0-12; the last pass gathers those
+ * kickers from the scalar evaluator's TOP_FIVE table
+ */
+final class VectorBatchEvaluator implements HandBatch.Evaluator {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int CATEGORY_SHIFT = 20;
+    private static final int RANK_MASK = 0x1FFF;
+
+    /**
+     * Worth using only when a vector holds at least 8 hands (256-bit AVX2 or wider)
+     */
+    static boolean isSupported() {
+        return SPECIES.length() >= 8;
+    }
+
+    private interface Pass {
+        void run(int[] s0, int[] s1, int[] s2, int[] s3, int[] values, int bound);
+    }
+
+    // In category order. Categories a later pass blends in can't share seven cards with the higher
+    // ones an earlier pass found (a straight needs five ranks, leaving two cards, too few for a full
+    // house or quads besides; a flush leaves two cards of other suits). Called through the interface
+    // so the call site is megamorphic and C2 compiles each pass on its own rather than inlining them
+    private static final Pass[] PASSES = {
+        VectorBatchEvaluator::pairs,
+        VectorBatchEvaluator::twoPairs,
+        VectorBatchEvaluator::tripsAndFullHouses,
+        VectorBatchEvaluator::straightsAndQuads,
+        VectorBatchEvaluator::flushes,
+        (s0, s1, s2, s3, values, bound) -> kickers(values, bound)
+    };
+
+    @Override
+    public void evaluate(int[] s0, int[] s1, int[] s2, int[] s3, int[] values, int count) {
+        int bound = SPECIES.loopBound(count);
+        for (Pass pass : PASSES) {
+            pass.run(s0, s1, s2, s3, values, bound);
+        }
+        // Fewer hands than lanes are left
+        for (int i = bound; i < count; i++) {
+            values[i] = SevenCardEvaluator.evaluate(s0[i], s1[i], s2[i], s3[i]);
+        }
+    }
+
+    // High card and one pair
+    private static void pairs(int[] s0, int[] s1, int[] s2, int[] s3, int[] values, int bound) {
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            IntVector c0 = IntVector.fromArray(SPECIES, s0, i);
+            IntVector c1 = IntVector.fromArray(SPECIES, s1, i);
+            IntVector c2 = IntVector.fromArray(SPECIES, s2, i);
+            IntVector c3 = IntVector.fromArray(SPECIES, s3, i);
+            IntVector ranks = c0.or(c1).or(c2).or(c3);
+            IntVector pairs = ranks.lanewise(AND_NOT, c0.lanewise(XOR, c1).lanewise(XOR, c2).lanewise(XOR, c3));
+
+            ranks.blend(category(SevenCardEvaluator.ONE_PAIR).or(topBit(pairs).lanewise(LSHL, 16))
+                    .or(ranks.lanewise(AND_NOT, pairs)), nonZero(pairs)).intoArray(values, i);
+        }
+    }
+
+    // Two pair, whose one kicker goes in directly
+    private static void twoPairs(int[] s0, int[] s1, int[] s2, int[] s3, int[] values, int bound) {
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            IntVector c0 = IntVector.fromArray(SPECIES, s0, i);
+            IntVector c1 = IntVector.fromArray(SPECIES, s1, i);
+            IntVector c2 = IntVector.fromArray(SPECIES, s2, i);
+            IntVector c3 = IntVector.fromArray(SPECIES, s3, i);
+            IntVector value = IntVector.fromArray(SPECIES, values, i);
+            IntVector ranks = c0.or(c1).or(c2).or(c3);
+            IntVector pairs = ranks.lanewise(AND_NOT, c0.lanewise(XOR, c1).lanewise(XOR, c2).lanewise(XOR, c3));
+            IntVector high = topBit(pairs);
+            IntVector others = pairs.lanewise(AND_NOT, bit(high));
+            IntVector low = topBit(others);
+
+            IntVector kicker = topBit(ranks.lanewise(AND_NOT, bit(high)).lanewise(AND_NOT, bit(low)));
+            value = value.blend(category(SevenCardEvaluator.TWO_PAIR).or(high.lanewise(LSHL, 16))
+                    .or(low.lanewise(LSHL, 12)).or(kicker.lanewise(LSHL, 8)), nonZero(others));
+            value.intoArray(values, i);
+        }
+    }
+
+    private static void tripsAndFullHouses(int[] s0, int[] s1, int[] s2, int[] s3, int[] values, int bound) {
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            IntVector c0 = IntVector.fromArray(SPECIES, s0, i);
+            IntVector c1 = IntVector.fromArray(SPECIES, s1, i);
+            IntVector c2 = IntVector.fromArray(SPECIES, s2, i);
+            IntVector c3 = IntVector.fromArray(SPECIES, s3, i);
+            IntVector value = IntVector.fromArray(SPECIES, values, i);
+            IntVector ranks = c0.or(c1).or(c2).or(c3);
+            IntVector trips = c0.and(c1).or(c2.and(c3)).and(c0.and(c2).or(c1.and(c3)));
+            IntVector pairs = ranks.lanewise(AND_NOT, c0.lanewise(XOR, c1).lanewise(XOR, c2).lanewise(XOR, c3));
+            IntVector trip = topBit(trips);
+            IntVector rest = pairs.or(trips.lanewise(AND_NOT, bit(trip)));
+
+            VectorMask<Integer> hasTrips = nonZero(trips);
+            value = value.blend(category(SevenCardEvaluator.THREE_OF_A_KIND).or(trip.lanewise(LSHL, 16))
+                    .or(ranks.lanewise(AND_NOT, trips)), hasTrips);
+            value = value.blend(category(SevenCardEvaluator.FULL_HOUSE).or(trip.lanewise(LSHL, 16))
+                    .or(topBit(rest).lanewise(LSHL, 12)), hasTrips.and(nonZero(rest)));
+            value.intoArray(values, i);
+        }
+    }
+
+    private static void straightsAndQuads(int[] s0, int[] s1, int[] s2, int[] s3, int[] values, int bound) {
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            IntVector c0 = IntVector.fromArray(SPECIES, s0, i);
+            IntVector c1 = IntVector.fromArray(SPECIES, s1, i);
+            IntVector c2 = IntVector.fromArray(SPECIES, s2, i);
+            IntVector c3 = IntVector.fromArray(SPECIES, s3, i);
+            IntVector value = IntVector.fromArray(SPECIES, values, i);
+            IntVector ranks = c0.or(c1).or(c2).or(c3);
+            IntVector quads = c0.and(c1).and(c2).and(c3);
+
+            IntVector straight = straightRuns(ranks);
+            value = value.blend(category(SevenCardEvaluator.STRAIGHT).or(topBit(straight).sub(1).lanewise(LSHL, 16)), nonZero(straight));
+            value = value.blend(category(SevenCardEvaluator.FOUR_OF_A_KIND).or(topBit(quads).lanewise(LSHL, 16))
+                    .or(topBit(ranks.lanewise(AND_NOT, quads)).lanewise(LSHL, 12)), nonZero(quads));
+            value.intoArray(values, i);
+        }
+    }
+
+    // Flushes and straight flushes. With at most seven cards only one suit can hold five
+    private static void flushes(int[] s0, int[] s1, int[] s2, int[] s3, int[] values, int bound) {
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            IntVector c0 = IntVector.fromArray(SPECIES, s0, i);
+            IntVector c1 = IntVector.fromArray(SPECIES, s1, i);
+            IntVector c2 = IntVector.fromArray(SPECIES, s2, i);
+            IntVector c3 = IntVector.fromArray(SPECIES, s3, i);
+            IntVector value = IntVector.fromArray(SPECIES, values, i);
+
+            IntVector flush = IntVector.zero(SPECIES)
+                    .blend(c0, c0.lanewise(BIT_COUNT).compare(GE, 5))
+                    .blend(c1, c1.lanewise(BIT_COUNT).compare(GE, 5))
+                    .blend(c2, c2.lanewise(BIT_COUNT).compare(GE, 5))
+                    .blend(c3, c3.lanewise(BIT_COUNT).compare(GE, 5));
+            value = value.blend(category(SevenCardEvaluator.FLUSH).or(flush), nonZero(flush));
+            IntVector straightFlush = straightRuns(flush);
+            value = value.blend(category(SevenCardEvaluator.STRAIGHT_FLUSH).or(topBit(straightFlush).sub(1).lanewise(LSHL, 16)), nonZero(straightFlush));
+            value.intoArray(values, i);
+        }
+    }
+
+    // Swaps the kicker mask of high cards, pairs, trips and flushes for its top ranks: all five for a
+    // high card or flush, three for a pair and two for trips, moved down below the leading rank
+    private static void kickers(int[] values, int bound) {
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            IntVector value = IntVector.fromArray(SPECIES, values, i);
+            IntVector category = value.lanewise(LSHR, CATEGORY_SHIFT);
+            // The gather's index array is this stretch of values, rewritten below
+            value.and(RANK_MASK).intoArray(values, i);
+            IntVector topFive = IntVector.fromArray(SPECIES, SevenCardEvaluator.TOP_FIVE, 0, values, i);
+
+            VectorMask<Integer> five = category.compare(EQ, SevenCardEvaluator.HIGH_CARD).or(category.compare(EQ, SevenCardEvaluator.FLUSH));
+            VectorMask<Integer> three = category.compare(EQ, SevenCardEvaluator.ONE_PAIR);
+            VectorMask<Integer> two = category.compare(EQ, SevenCardEvaluator.THREE_OF_A_KIND);
+            IntVector kickers = topFive
+                    .blend(topFive.and(0xFFF00).lanewise(LSHR, 4), three)
+                    .blend(topFive.and(0xFF000).lanewise(LSHR, 4), two);
+            value.blend(value.lanewise(AND_NOT, RANK_MASK).or(kickers), five.or(three).or(two)).intoArray(values, i);
+        }
+    }
+
+    /**
+     * Bit (rank index + 1) of the top card of every five-card run in a rank mask, the ace also
+     * counting low below the deuce
+     */
+    private static IntVector straightRuns(IntVector ranks) {
+        IntVector shifted = ranks.lanewise(LSHL, 1).or(ranks.lanewise(LSHR, 12).and(1));
+        return shifted.and(shifted.lanewise(LSHL, 1)).and(shifted.lanewise(LSHL, 2))
+                .and(shifted.lanewise(LSHL, 3)).and(shifted.lanewise(LSHL, 4));
+    }
+
+    // Index of the highest set bit, -1 for an empty mask
+    private static IntVector topBit(IntVector mask) {
+        return IntVector.broadcast(SPECIES, 31).sub(mask.lanewise(LEADING_ZEROS_COUNT));
+    }
+
+    private static IntVector bit(IntVector index) {
+        return IntVector.broadcast(SPECIES, 1).lanewise(LSHL, index);
+    }
+
+    private static VectorMask<Integer> nonZero(IntVector mask) {
+        return mask.compare(NE, 0);
+    }
+
+    private static IntVector category(int category) {
+        return IntVector.broadcast(SPECIES, category << CATEGORY_SHIFT);
+    }
+}
@@ -0,0 +1,71 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BatchServiceTests {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final SimulationScheduler scheduler = new SimulationScheduler(2, 8);
+	private final PokerMetrics metrics = new PokerMetrics(new SimpleMeterRegistry(), scheduler);
+	private final EquityService equityService = new EquityService(new PreflopEquityTable(), scheduler, metrics, 2_000_000, Duration.ofSeconds(30), 100, Duration.ofMinutes(1));
+	private final BatchService batchService = new BatchService(equityService, mapper, metrics, 2, 4);
+
+	private Map<String, JsonNode> run(String body) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		batchService.evaluate(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+		Map<String, JsonNode> byId = new HashMap<>();
+		for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+			JsonNode node = mapper.readTree(line);
+			byId.put(node.get("id").asText(), node);
+		}
+		return byId;
+	}
+
+	@Test
+	void everyScenarioGetsOneTaggedLine() throws Exception {
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < 20; i++) {
+			body.append("{\"id\":\"s").append(i).append("\",\"holeCards\":[\"AH\",\"KH\"],\"communityCards\":[\"2H\",\"7S\",\"9D\",\"QC\"],\"numPlayers\":2,\"potSize\":100,\"callAmount\":10}\n");
+		}
+		body.append("{\"id\":\"bad\",\"holeCards\":[\"AH\",\"ZZ\"],\"communityCards\":[],\"numPlayers\":2}\n");
+
+		Map<String, JsonNode> results = run(body.toString());
+
+		assertEquals(21, results.size());
+		assertEquals("Invalid input", results.get("bad").get("error").asText());
+		assertEquals("exact", results.get("s0").get("mode").asText());
+	}
+
+	@Test
+	void duplicateScenariosAreComputedOnce() throws Exception {
+		String scenario = "{\"holeCards\":[\"QS\",\"QD\"],\"communityCards\":[\"2H\",\"7S\",\"9D\",\"KC\"],\"numPlayers\":3,\"potSize\":100,\"callAmount\":10}\n";
+		Map<String, JsonNode> results = run(scenario.repeat(10));
+
+		assertEquals(10, results.size());
+		assertEquals(1L, equityService.cacheStats().get("misses"));
+		assertEquals(9L, equityService.cacheStats().get("hits"));
+	}
+
+	@Test
+	void jsonArrayBodyIsAccepted() throws Exception {
+		String body = "[{\"id\":\"a\",\"holeCards\":[\"AH\",\"AD\"],\"communityCards\":[],\"numPlayers\":2},"
+				+ "{\"id\":\"b\",\"holeCards\":[\"7C\",\"2D\"],\"communityCards\":[],\"numPlayers\":2}]";
+		Map<String, JsonNode> results = run(body);
+
+		assertTrue(results.get("a").get("winProbability").asDouble() > results.get("b").get("winProbability").asDouble());
+	}
+}
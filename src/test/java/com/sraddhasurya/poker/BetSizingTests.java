@@ -0,0 +1,76 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class BetSizingTests {
+
+	private static final long ACES = CardParser.parseSet(List.of("AS", "AH"));
+	private static final long JACK_TEN = CardParser.parseSet(List.of("JD", "10D"));
+	private static final long FLOP = CardParser.parseSet(List.of("9D", "2C", "KS"));
+
+	@Test
+	void callingMatchesTheSimulatorsEv() {
+		// Nobody folds to a plain call, so both score the same trials of the same seed
+		BetSizingResult sizing = BetSizing.simulate(JACK_TEN, FLOP, 100, 20, new int[] {0}, 3, new FoldModel(false, 1.0), 40000, 5L);
+		PokerEVResult ev = PokerEVSimulator.simulateEV(JACK_TEN, FLOP, 100, 20, 0, 40000, 3, 5L, 0);
+
+		assertEquals(0.0, sizing.foldProbability(0));
+		assertEquals(ev.getExpectedValue(), sizing.expectedValue(0), 1e-9);
+	}
+
+	@Test
+	void randomFoldsFollowThePotOdds() {
+		FoldModel model = new FoldModel(false, 1.0);
+		int[] raises = {60, 120, 240};
+		BetSizingResult result = BetSizing.simulate(ACES, 0L, 100, 20, raises, 4, model, 50000, 11L);
+
+		for (int s = 0; s < raises.length; s++) {
+			double everyoneFolds = Math.pow(1 - model.continueProbability(100, 20, raises[s]), 3);
+			assertEquals(everyoneFolds, result.foldProbability(s), 0.01);
+		}
+	}
+
+	@Test
+	void weakestFirstFoldsLeaveStrongerCallers() {
+		int[] raises = {0, 120};
+		BetSizingResult random = BetSizing.simulate(JACK_TEN, FLOP, 100, 20, raises, 2, new FoldModel(false, 1.0), 30000, 3L);
+		BetSizingResult weakest = BetSizing.simulate(JACK_TEN, FLOP, 100, 20, raises, 2, FoldModel.parse("weakest-first", 1.0), 30000, 3L);
+
+		assertEquals(random.foldProbability(1), weakest.foldProbability(1), 0.02);
+		// The same folds cost the raiser more when only the hands ahead continue
+		assertTrue(weakest.expectedValue(1) < random.expectedValue(1));
+	}
+
+	@Test
+	void bestSizeHasTheHighestEv() {
+		BetSizingResult result = BetSizing.simulate(ACES, FLOP, 100, 0, new int[] {0, 25, 50, 100, 200}, 3, new FoldModel(false, 1.0), 20000, 1L);
+
+		int best = result.bestSize();
+		for (int s = 0; s < result.size(); s++) {
+			assertTrue(result.expectedValue(best) >= result.expectedValue(s));
+		}
+		assertEquals(20000, result.getTrials());
+	}
+
+	@Test
+	void seedMakesTheCurveReproducible() {
+		int[] raises = {0, 50, 100};
+		FoldModel model = FoldModel.parse("weakest-first", 2.0);
+		BetSizingResult first = BetSizing.simulate(ACES, FLOP, 100, 20, raises, 5, model, 5000, 8L);
+		BetSizingResult second = BetSizing.simulate(ACES, FLOP, 100, 20, raises, 5, model, 5000, 8L);
+
+		for (int s = 0; s < raises.length; s++) {
+			assertEquals(first.expectedValue(s), second.expectedValue(s));
+		}
+	}
+
+	@Test
+	void rejectsUnknownFoldModels() {
+		assertThrows(IllegalArgumentException.class, () -> FoldModel.parse("tight", 1.0));
+		assertThrows(IllegalArgumentException.class, () -> new FoldModel(false, -1.0));
+	}
+}
@@ -0,0 +1,99 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+class BotMatchTests {
+
+	private static final PreflopEquityTable PREFLOP = new PreflopEquityTable();
+
+	// Moves all in every time it acts
+	private static final BotStrategy SHOVE = (table, seat) -> Integer.MAX_VALUE;
+
+	private static BotMatchRequest settings(Long seed, String... bots) {
+		BotMatchRequest request = new BotMatchRequest();
+		request.setBots(List.of(bots));
+		request.setSeed(seed);
+		return request;
+	}
+
+	private static BotMatchResult play(BotMatchRequest request) {
+		BotStrategy[] strategies = request.getBots().stream().map(name -> Bots.create(name, PREFLOP)).toArray(BotStrategy[]::new);
+		return BotMatch.play(strategies, request.getBots().toArray(new String[0]), request, PREFLOP);
+	}
+
+	@Test
+	void handsNeverCreateOrLoseChips() {
+		BotStrategy[] bots = {Bots.create("random", PREFLOP), Bots.create("equity", PREFLOP), Bots.create("calling", PREFLOP),
+				SHOVE, Bots.create("random", PREFLOP), Bots.create("equity", PREFLOP)};
+		HoldemTable table = new HoldemTable(bots, PREFLOP, new SplittableRandom(3));
+		int[] start = {2000, 150, 2000, 900, 45, 2000};
+		int total = Arrays.stream(start).sum();
+		for (int hand = 0; hand < 50_000; hand++) {
+			for (int s = 0; s < start.length; s++) table.setStack(s, start[s]);
+			table.setBlinds(10, 20);
+			assertTrue(table.playHand());
+
+			int sum = 0;
+			for (int s = 0; s < start.length; s++) sum += table.getStack(s);
+			assertEquals(total, sum);
+			// A short stack can only win what each opponent matched
+			assertTrue(table.getStack(4) <= 45 * start.length);
+		}
+	}
+
+	@Test
+	void seatsWithoutChipsSitOut() {
+		HoldemTable table = new HoldemTable(new BotStrategy[] {SHOVE, SHOVE, SHOVE}, PREFLOP, new SplittableRandom(5));
+		table.setBlinds(10, 20);
+		table.setStack(0, 500);
+		table.setStack(1, 0);
+		table.setStack(2, 500);
+		assertTrue(table.playHand());
+		assertEquals(0, table.getStack(1));
+		assertEquals(1000, table.getStack(0) + table.getStack(2));
+
+		table.setStack(0, 0);
+		table.setStack(2, 1000);
+		assertFalse(table.playHand());
+	}
+
+	@Test
+	void seededCashGameIsReproducibleAndZeroSum() {
+		BotMatchRequest request = settings(11L, "equity", "random", "calling", "random");
+		request.setHands(20_000);
+		BotMatchResult first = play(request);
+		BotMatchResult second = play(request);
+
+		assertEquals(20_000, first.getHands());
+		double total = 0;
+		for (int s = 0; s < first.getSeats(); s++) {
+			assertEquals(first.bigBlindsPer100(s), second.bigBlindsPer100(s));
+			assertTrue(first.bigBlindsPer100Margin(s) > 0);
+			total += first.bigBlindsPer100(s);
+		}
+		assertEquals(0, total, 1e-6);
+		// Folding weak hands beats the calling station by far more than the noise
+		assertTrue(first.bigBlindsPer100(0) - first.bigBlindsPer100Margin(0) > first.bigBlindsPer100(2) + first.bigBlindsPer100Margin(2));
+	}
+
+	@Test
+	void tournamentsHaveOneWinnerEach() {
+		BotMatchRequest request = settings(2L, "equity", "random", "calling");
+		request.setTournaments(40);
+		request.setStartingStack(500);
+		request.setBlindLevelHands(10);
+		BotMatchResult result = play(request);
+
+		assertEquals(40, result.getTournaments());
+		long wins = 0;
+		for (int s = 0; s < result.getSeats(); s++) {
+			wins += result.getWins(s);
+			assertTrue(result.averageFinish(s) >= 1 && result.averageFinish(s) <= 3);
+		}
+		assertEquals(40, wins);
+	}
+}
@@ -0,0 +1,78 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+class CardSetTests {
+
+	@Test
+	void cardIndexRoundTrips() {
+		for (int index = 0; index < CardSet.DECK_SIZE; index++) {
+			Card card = Card.fromIndex(index);
+			assertEquals(index, card.getIndex());
+			assertEquals(card, new Card(card.getSuit(), card.getNumber()));
+		}
+		assertEquals(CardParser.parse("10H"), new Card("Hearts", 10));
+	}
+
+	@Test
+	void parserHandsOutInternedCards() {
+		for (int index = 0; index < CardSet.DECK_SIZE; index++) {
+			String code = CardParser.format(index);
+			assertSame(Card.fromIndex(index), CardParser.parse(code));
+			assertSame(Card.fromIndex(index), CardParser.parse(code.toLowerCase()));
+		}
+		assertSame(CardParser.parse("qd"), Card.of("Diamonds", 12));
+
+		Card[] cards = new Card[4];
+		assertEquals(3, CardParser.parseInto(List.of("AH", "10s", "2C"), cards, 1));
+		assertNull(cards[0]);
+		assertSame(Card.of("spades", 10), cards[2]);
+		assertThrows(IllegalArgumentException.class, () -> CardParser.parseInto(List.of("AH", "KH"), cards, 3));
+
+		for (String code : List.of("", "A", "1H", "11H", "0H", "AX", "10", "+5H", "AHH", "ÁH")) {
+			assertThrows(IllegalArgumentException.class, () -> CardParser.parse(code), code);
+		}
+	}
+
+	@Test
+	void countsRanksAndSuitsByPopcount() {
+		long set = CardParser.parseSet(List.of("AH", "AD", "KH", "2H", "2S"));
+		assertEquals(5, CardSet.size(set));
+		assertEquals(2, CardSet.rankCount(set, 14));
+		assertEquals(2, CardSet.rankCount(set, 2));
+		assertEquals(3, CardSet.suitCount(set, 0));
+		assertEquals(0, CardSet.suitCount(set, 2));
+		assertEquals((1 << 12) | (1 << 11) | 1, CardSet.rankMask(set));
+		assertEquals(set, CardSet.of(CardSet.toCards(set)));
+	}
+
+	@Test
+	void rejectsDuplicateCards() {
+		assertThrows(IllegalArgumentException.class, () -> CardParser.parseSet(List.of("AH", "ah")));
+	}
+
+	@Test
+	void deckExcludesDeadCards() {
+		long dead = CardParser.parseSet(List.of("AH", "KD", "10H", "JH", "QH"));
+		Deck deck = new Deck(dead);
+		deck.shuffle(new Random(7));
+		assertEquals(47, deck.size());
+
+		long dealt = 0L;
+		while (deck.size() > 0) {
+			dealt |= CardSet.bit(deck.deal());
+		}
+		assertEquals(CardSet.FULL_DECK & ~dead, dealt);
+	}
+
+	@Test
+	void bestOfPicksFiveCardsFromSeven() {
+		long seven = CardParser.parseSet(List.of("AH", "KH", "10H", "JH", "QH", "2D", "3C"));
+		long best = BestFiveCards.bestOf(seven);
+		assertEquals(CardParser.parseSet(List.of("AH", "KH", "10H", "JH", "QH")), best);
+	}
+}
@@ -0,0 +1,116 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EquityServiceTests {
+
+	private final SimulationScheduler scheduler = new SimulationScheduler(2, 8);
+	private final EquityService service = new EquityService(new PreflopEquityTable(), scheduler,
+			new PokerMetrics(new SimpleMeterRegistry(), scheduler), 0, Duration.ofSeconds(30), 100, Duration.ofMinutes(1));
+
+	private static PokerRequest request(int potSize) {
+		PokerRequest request = new PokerRequest();
+		request.setNumPlayers(3);
+		request.setPotSize(potSize);
+		request.setCallAmount(10);
+		return request;
+	}
+
+	@Test
+	void suitRelabeledSpotsShareOneCanonicalForm() {
+		long hole = CardParser.parseSet(List.of("AH", "KH"));
+		long board = CardParser.parseSet(List.of("2H", "7S", "9D"));
+		long relabeledHole = CardParser.parseSet(List.of("AC", "KC"));
+		long relabeledBoard = CardParser.parseSet(List.of("2C", "7D", "9S"));
+
+		int p = SuitIsomorphism.canonicalPermutation(hole, board);
+		int q = SuitIsomorphism.canonicalPermutation(relabeledHole, relabeledBoard);
+		assertEquals(SuitIsomorphism.permute(hole, p), SuitIsomorphism.permute(relabeledHole, q));
+		assertEquals(SuitIsomorphism.permute(board, p), SuitIsomorphism.permute(relabeledBoard, q));
+	}
+
+	@Test
+	void isomorphicSpotIsServedFromCache() {
+		SpotResult first = service.calculate(CardParser.parseSet(List.of("AH", "KH")), CardParser.parseSet(List.of("2H", "7S", "9D")), request(100));
+		SpotResult second = service.calculate(CardParser.parseSet(List.of("AS", "KS")), CardParser.parseSet(List.of("2S", "7H", "9C")), request(300));
+
+		assertEquals(1L, service.cacheStats().get("hits"));
+		assertEquals(1L, service.cacheStats().get("misses"));
+		assertEquals(first.getEvResult().getWinProbability(), second.getEvResult().getWinProbability());
+		assertEquals(first.getProbabilities(), second.getProbabilities());
+		assertNotEquals(first.getEvResult().getExpectedValue(), second.getEvResult().getExpectedValue());
+	}
+
+	@Test
+	void preflopTableSizesComeFromThePrecomputedTable() {
+		PokerRequest request = request(100);
+		request.setHoleCards(List.of("AH", "AD"));
+		request.setNumPlayers(9);
+		PokerEVResult[] tables = service.calculateTableSizes(request).getTables();
+
+		assertEquals(8, tables.length);
+		assertEquals(PokerEVResult.PRECOMPUTED, tables[0].getMode());
+		assertEquals(0.85, tables[0].getWinProbability() + tables[0].getTieProbability() / 2, 0.02);
+		assertTrue(tables[7].getWinProbability() < tables[0].getWinProbability());
+	}
+
+	@Test
+	void tableSizesAreCutShortAtTheRequestDeadline() {
+		PokerRequest request = request(100);
+		request.setHoleCards(List.of("AH", "AD"));
+		request.setCommunityCards(List.of("2C", "7D", "JS"));
+		request.setNumPlayers(6);
+		request.setDeadlineMillis(0L);
+		TableSizesResult result = service.calculateTableSizes(request);
+
+		assertTrue(result.isDeadlineExceeded());
+		assertEquals(5, result.getTables().length);
+		assertTrue(result.getTables()[4].getTrials() < 10000);
+	}
+
+	@Test
+	void undealableSpotsAreRejectedBeforeSimulating() {
+		long hole = CardParser.parseSet(List.of("AH", "AD"));
+		long flop = CardParser.parseSet(List.of("2C", "7D", "JS"));
+		assertEquals(Double.POSITIVE_INFINITY, ExactEquity.combinations(hole, flop, 0));
+		assertEquals(Double.POSITIVE_INFINITY, ExactEquity.combinations(hole, flop, 30));
+
+		for (int numPlayers : new int[] {0, 1, 24, 30}) {
+			PokerRequest request = request(100);
+			request.setNumPlayers(numPlayers);
+			assertThrows(IllegalArgumentException.class, () -> service.calculate(hole, flop, request));
+			request.setHoleCards(List.of("AH", "AD"));
+			request.setCommunityCards(List.of("2C", "7D", "JS"));
+			assertThrows(IllegalArgumentException.class, () -> service.calculateTableSizes(request));
+		}
+
+		// The JSON route passes parsed card sets straight in
+		long threeHoleCards = CardParser.parseSet(List.of("AH", "AD", "KC"));
+		long river = CardParser.parseSet(List.of("2C", "7D", "JS", "3H", "4H"));
+		assertThrows(IllegalArgumentException.class, () -> service.calculate(threeHoleCards, river, request(100)));
+		assertThrows(IllegalArgumentException.class, () -> service.calculate(CardParser.parseSet(List.of("AH")), river, request(100)));
+
+		PokerRequest sixCards = request(100);
+		sixCards.setHoleCards(List.of("AH", "AD"));
+		sixCards.setCommunityCards(List.of("2C", "7D", "JS", "3H", "4H", "5H"));
+		assertThrows(IllegalArgumentException.class, () -> service.calculate(sixCards));
+		assertThrows(IllegalArgumentException.class, () -> service.calculateTableSizes(sixCards));
+	}
+
+	@Test
+	void partlyEnteredFlopsAreSimulated() {
+		long hole = CardParser.parseSet(List.of("AH", "AD"));
+		for (List<String> board : List.of(List.of("2C"), List.of("2C", "7D"))) {
+			SpotResult result = service.calculate(hole, CardParser.parseSet(board), request(100));
+			assertEquals(PokerEVResult.MONTE_CARLO, result.getEvResult().getMode());
+			assertTrue(result.getEvResult().getWinProbability() > 0.5);
+		}
+	}
+}
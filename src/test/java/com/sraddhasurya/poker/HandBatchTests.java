@@ -0,0 +1,72 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+class HandBatchTests {
+
+	private static long set(String... codes) {
+		return CardParser.parseSet(List.of(codes));
+	}
+
+	@Test
+	void vectorLanesMatchTheScalarEvaluator() {
+		assumeTrue(HandBatch.isVectorized(), "Vector API not available");
+		HandBatch batch = new HandBatch(100_003);
+		List<Long> hands = new ArrayList<>(List.of(
+				set("AH", "2D", "3C", "4S", "5H", "KD", "QC"),          // wheel
+				set("AH", "2H", "3H", "4H", "5H", "6H", "KD"),          // six-high straight flush
+				set("AH", "AD", "AC", "AS", "KH", "KD", "KC"),          // quads over trips
+				set("QH", "QD", "QC", "JH", "JD", "JC", "2S"),          // two trips
+				set("9H", "9D", "8C", "8S", "7H", "7D", "AC"),          // three pairs
+				set("AH", "KH", "QH", "JH", "9H", "10D", "2C"),         // flush beside a straight
+				set("2H", "7D", "9C", "JS", "KH")));                    // five cards
+		SplittableRandom random = new SplittableRandom(3);
+		while (hands.size() < 100_003) {
+			Deck deck = new Deck(0L);
+			long hand = 0L;
+			for (int k = 0; k < 7; k++) {
+				hand |= CardSet.bit(deck.draw(random));
+			}
+			hands.add(hand);
+		}
+
+		for (long hand : hands) {
+			batch.add(hand);
+		}
+		batch.evaluate();
+		for (int i = 0; i < hands.size(); i++) {
+			assertEquals(SevenCardEvaluator.evaluate(hands.get(i)), batch.value(i), CardParser.formatSet(hands.get(i)).toString());
+		}
+	}
+
+	@Test
+	void batchedTrialsMatchOneByOne() {
+		long hole = set("AH", "KH");
+		for (long board : new long[] {0L, set("2H", "7H", "QD"), set("2H", "7H", "QD", "JS", "10C")}) {
+			for (int players : new int[] {2, 6, 9}) {
+				double[] oneByOne = new double[3];
+				double[] batched = new double[3];
+				PokerEVSimulator.runTrialsOneByOne(hole, board, players, null, 5000, new SplittableRandom(11), oneByOne);
+				PokerEVSimulator.runTrialsInBatches(hole, board, players, null, 5000, new SplittableRandom(11), batched);
+				assertArrayEquals(oneByOne, batched);
+			}
+		}
+	}
+
+	@Test
+	void scalarBatchRanksEachSlot() {
+		HandBatch batch = new HandBatch(2);
+		int flush = batch.add(set("AH", "KH", "QH", "JH", "9H", "10D", "2C"));
+		int pair = batch.add(set("9H", "9D", "8C", "5S", "3H", "2D", "AC"));
+		batch.evaluate(HandBatch.SCALAR);
+		assertEquals(SevenCardEvaluator.FLUSH, SevenCardEvaluator.category(batch.value(flush)));
+		assertEquals(SevenCardEvaluator.ONE_PAIR, SevenCardEvaluator.category(batch.value(pair)));
+		batch.clear();
+		assertEquals(0, batch.size());
+	}
+}
@@ -0,0 +1,36 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+class HandDistributionTests {
+
+	private static final long ACES = CardParser.parseSet(List.of("AH", "AD"));
+
+	@Test
+	void preflopWalksEveryRunoutOnce() {
+		long[] counts = HandDistribution.countRunouts(ACES, 0L);
+		assertEquals(2118760L, Arrays.stream(counts).sum());
+		assertEquals(0L, counts[SevenCardEvaluator.HIGH_CARD]);
+		assertTrue(counts[SevenCardEvaluator.FOUR_OF_A_KIND] > 0);
+	}
+
+	@Test
+	void riverIsTheMadeHand() {
+		long board = CardParser.parseSet(List.of("AS", "7D", "7C", "2H", "9D"));
+		Map<String, Double> distribution = new HandProbabilities(ACES).distribution(board);
+		assertEquals(1.0, distribution.get("Full House"));
+		assertEquals(9, distribution.size());
+	}
+
+	@Test
+	void exactEquitySharesTheSameHistogram() {
+		long board = CardParser.parseSet(List.of("AS", "7D", "8D"));
+		long[] walked = HandDistribution.countRunouts(ACES, board);
+		long[] shared = ExactEquity.enumerate(ACES, board, 2);
+		assertArrayEquals(walked, Arrays.copyOfRange(shared, ExactEquity.CATEGORY_OFFSET, shared.length));
+	}
+}
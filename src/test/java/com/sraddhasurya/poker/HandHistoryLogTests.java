@@ -0,0 +1,113 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HandHistoryLogTests {
+
+	@TempDir
+	Path directory;
+
+	private static long set(String... codes) {
+		return CardParser.parseSet(List.of(codes));
+	}
+
+	private static PokerRequest request(int numPlayers) {
+		PokerRequest request = new PokerRequest();
+		request.setNumPlayers(numPlayers);
+		request.setPotSize(100);
+		request.setCallAmount(20);
+		return request;
+	}
+
+	private static SpotResult spot(double win) {
+		return new SpotResult(Map.of(), new PokerEVResult(win, 0.05, 12.5, PokerEVResult.EXACT, 1000, 0), true);
+	}
+
+	@Test
+	void recordsReadBackFieldByField() {
+		HandHistoryLog log = new HandHistoryLog(true, directory, 16);
+		long hole = set("AH", "KH");
+		long board = set("2H", "7S", "QD");
+		log.recordProbabilities(hole, board, request(6), spot(0.4), 1_500_000);
+
+		long[] players = {set("AS", "3D"), set("QC", "JD")};
+		long river = set("KH", "KD", "7C", "4S", "2H");
+		log.recordShowdown(river, players, Showdown.rank(river, players), 2_000);
+
+		long visited = log.scan(record -> true, record -> {
+			if (record.getType() == HandRecord.PROBABILITIES) {
+				assertEquals(6, record.getPlayers());
+				assertEquals(3, record.getBoardSize());
+				assertEquals(board, record.getBoard());
+				assertEquals(hole, record.getHoleCards(0));
+				assertEquals(0L, record.getHoleCards(1));
+				assertEquals(100, record.getPot());
+				assertEquals(20, record.getCall());
+				assertEquals(0.4f, record.getWinProbability());
+				assertEquals(12.5f, record.getExpectedValue());
+				assertEquals(HandRecord.DEADLINE_EXCEEDED | HandRecord.EXACT, record.getFlags());
+				assertEquals(1500, record.getLatencyMicros());
+			} else {
+				assertEquals(2, record.getPlayers());
+				assertEquals(players[1], record.getHoleCards(1));
+				assertEquals(0b01, record.getWinners());
+			}
+		});
+		assertEquals(2, visited);
+		assertEquals(1L, log.summarize(HandRecord.SHOWDOWN, 0, Long.MAX_VALUE, 0).get("records"));
+		log.close();
+	}
+
+	@Test
+	void concurrentWritersSpanSegmentsWithoutLosingRecords() throws Exception {
+		HandHistoryLog log = new HandHistoryLog(true, directory, 100);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<?>> writers = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			int players = t + 2;
+			writers.add(pool.submit(() -> {
+				for (int i = 0; i < 1000; i++) {
+					log.recordProbabilities(set("AH", "KH"), 0L, request(players), spot(0.5), 1000);
+				}
+			}));
+		}
+		for (Future<?> writer : writers) writer.get();
+		pool.shutdown();
+
+		assertEquals(8000, log.scan(record -> true, record -> { }));
+		assertEquals(1000, log.scan(record -> record.getPlayers() == 5, record -> { }));
+		log.close();
+	}
+
+	@Test
+	void reopeningContinuesAfterTheLastRecord() {
+		HandHistoryLog first = new HandHistoryLog(true, directory, 10);
+		for (int i = 0; i < 25; i++) {
+			first.recordProbabilities(set("AH", "KH"), 0L, request(2), spot(0.5), 0);
+		}
+		// Closing waits for the background mapping, so segment 3 (pre-mapped when segment 2 was first
+		// written) exists and is empty
+		first.close();
+		assertTrue(Files.exists(directory.resolve("segment-000003.log")));
+
+		HandHistoryLog second = new HandHistoryLog(true, directory, 10);
+		assertEquals(25, second.size());
+		second.recordProbabilities(set("2C", "2D"), 0L, request(3), spot(0.5), 0);
+		assertEquals(26, second.scan(record -> true, record -> { }));
+		second.close();
+	}
+
+	@Test
+	void segmentsPastAnIntOfBytesAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> new HandHistoryLog(false, directory, Integer.MAX_VALUE / HandRecord.BYTES + 1));
+		assertThrows(IllegalArgumentException.class, () -> new HandHistoryLog(false, directory, 0));
+	}
+}
@@ -0,0 +1,194 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+class HandRangeTests {
+
+	private static final long ACES = CardParser.parseSet(List.of("AH", "AD"));
+
+	@Test
+	void shorthandExpandsToTheRightCombos() {
+		assertEquals(18, HandRange.parse("QQ+").size());
+		assertEquals(24, HandRange.parse("99-66").size());
+		assertEquals(4, HandRange.parse("AKs").size());
+		assertEquals(12, HandRange.parse("AKo").size());
+		assertEquals(16, HandRange.parse("AK").size());
+		assertEquals(48, HandRange.parse("A2s+").size());
+		assertEquals(36, HandRange.parse("KTo+").size());
+		assertEquals(12, HandRange.parse("76s-54s").size());
+		assertEquals(16, HandRange.parse("KTs-K7s").size());
+		assertEquals(1, HandRange.parse("AhKh").size());
+		assertEquals(18 + 4 + 12, HandRange.parse("QQ+, AKs, 76s-54s").size());
+		assertTrue(HandRange.parse("QQ+, AKs").isSuitSymmetric());
+		assertFalse(HandRange.parse("QQ+, AhKh").isSuitSymmetric());
+	}
+
+	@Test
+	void laterEntriesReplaceWeights() {
+		HandRange range = HandRange.parse("AK, AKs:0.25, AKo:0");
+		assertEquals(4, range.size());
+		assertEquals(0.25, range.weight(0));
+	}
+
+	@Test
+	void rejectsMalformedEntries() {
+		for (String text : List.of("", "AX", "AAs", "76s-54o", "A5s-K2s", "AK:-1", "AhAh", "QQ:x")) {
+			assertThrows(IllegalArgumentException.class, () -> HandRange.parse(text), text);
+		}
+	}
+
+	@Test
+	void samplerFollowsWeightsAndCardRemoval() {
+		RangeSampler sampler = new RangeSampler(HandRange.parse("AA, KK:3"), ACES);
+		SplittableRandom random = new SplittableRandom(3);
+		int aces = 0;
+		for (int i = 0; i < 100_000; i++) {
+			long hand = sampler.sample(random);
+			assertEquals(0, hand & ACES);
+			if (CardSet.rankCount(hand, 14) == 2) aces++;
+		}
+		// One AA combo of weight 1 left against six KK combos of weight 3
+		assertEquals(1.0 / 19, aces / 100_000.0, 0.005);
+	}
+
+	@Test
+	void overlappingRangesAreDealtFromTheirJointDistribution() {
+		HandRange first = HandRange.parse("AhAd, KhKd");
+		HandRange second = HandRange.parse("AhAc, QQ");
+		RangeSampler[] samplers = {new RangeSampler(first, 0L), new RangeSampler(second, 0L)};
+
+		// Every pair of hands that doesn't share a card, weighted by the product of the weights
+		double pairs = 0;
+		double firstAces = 0;
+		for (int i = 0; i < first.size(); i++) {
+			for (int j = 0; j < second.size(); j++) {
+				if ((first.combo(i) & second.combo(j)) != 0) continue;
+				double weight = first.weight(i) * second.weight(j);
+				pairs += weight;
+				if (CardSet.rankCount(first.combo(i), 14) == 2) firstAces += weight;
+			}
+		}
+		assertEquals(6.0 / 13, firstAces / pairs, 1e-12);
+
+		// Seat by seat, weighted by the live shares
+		SplittableRandom random = new SplittableRandom(5);
+		long[] opponents = new long[2];
+		double total = 0;
+		double aces = 0;
+		for (int i = 0; i < 200_000; i++) {
+			double weight = PokerEVSimulator.dealRanges(samplers, opponents, random);
+			assertEquals(0, opponents[0] & opponents[1]);
+			total += weight;
+			if (CardSet.rankCount(opponents[0], 14) == 2) aces += weight;
+		}
+		assertEquals(firstAces / pairs, aces / total, 0.005);
+	}
+
+	@Test
+	void liveShareCountsOnlyCombosClearOfTheDealtCards() {
+		RangeSampler sampler = new RangeSampler(HandRange.parse("AA, KK:3"), 0L);
+		// Ah takes three AA combos, Ah and Ad together five of them
+		assertEquals(1 - 3.0 / 24, sampler.liveShare(CardParser.parseSet(List.of("AH"))), 1e-12);
+		assertEquals(1 - 5.0 / 24, sampler.liveShare(CardParser.parseSet(List.of("AH", "AD"))), 1e-12);
+		assertEquals(0.0, sampler.liveShare(CardParser.parseSet(List.of("AH", "AD", "AC", "KH", "KD", "KC"))));
+
+		SplittableRandom random = new SplittableRandom(2);
+		long dealt = CardParser.parseSet(List.of("AH", "AD", "KH", "KD", "KC"));
+		for (int i = 0; i < 1000; i++) {
+			// Only AcAs is left, whichever way the draw goes
+			assertEquals(CardParser.parseSet(List.of("AC", "AS")), sampler.sample(random, dealt, sampler.liveShare(dealt)));
+		}
+	}
+
+	@Test
+	void weightedSeatBySeatDealsMatchRejectedWholeDeals() {
+		long hole = CardParser.parseSet(List.of("QH", "QD"));
+		long board = CardParser.parseSet(List.of("2C", "7D", "JS"));
+		HandRange[] ranges = {HandRange.parse("AA, KK"), HandRange.parse("AK, KK"), HandRange.parse("AA, AK, JJ")};
+		SimulationOptions options = new SimulationOptions(200_000);
+		options.setSeed(6L);
+		options.setMaxExactCombinations(0);
+		options.setOpponentRanges(ranges);
+		PokerEVResult weighted = PokerEVSimulator.simulateEV(hole, board, 100, 20, 0, 4, options);
+
+		// Reference: draw every seat, start over on any shared card, then deal the turn and river
+		RangeSampler[] samplers = new RangeSampler[ranges.length];
+		for (int p = 0; p < ranges.length; p++) samplers[p] = new RangeSampler(ranges[p], hole | board);
+		SplittableRandom random = new SplittableRandom(7);
+		long[] opponents = new long[ranges.length];
+		int wins = 0;
+		int trials = 200_000;
+		for (int t = 0; t < trials; t++) {
+			long dealt;
+			do {
+				dealt = 0L;
+				for (int p = 0; p < samplers.length; p++) {
+					opponents[p] = samplers[p].sample(random);
+					dealt = (dealt & opponents[p]) != 0 ? -1L : dealt | opponents[p];
+					if (dealt == -1L) break;
+				}
+			} while (dealt == -1L);
+			Deck deck = new Deck(hole | board | dealt);
+			long fullBoard = board | CardSet.bit(deck.draw(random)) | CardSet.bit(deck.draw(random));
+			int player = SevenCardEvaluator.evaluate(hole | fullBoard);
+			boolean won = true;
+			for (long opponent : opponents) won &= SevenCardEvaluator.evaluate(opponent | fullBoard) < player;
+			if (won) wins++;
+		}
+		assertEquals(wins / (double) trials, weighted.getWinProbability(), 0.006);
+	}
+
+	@Test
+	void eightTightRangedOpponentsDealAsFastAsOpeningRanges() {
+		long board = CardParser.parseSet(List.of("2C", "7D", "JS"));
+		SimulationOptions tightOptions = rangedOptions("TT+, AQs+, AKo");
+		SimulationOptions openingOptions = rangedOptions("22+, A2s+, K9s+, QTs+, J9s+, T9s, 98s, 87s, ATo+, KJo+, QJo");
+
+		long tight = Long.MAX_VALUE;
+		long opening = Long.MAX_VALUE;
+		for (int i = 0; i < 10; i++) {
+			long start = System.nanoTime();
+			PokerEVResult result = PokerEVSimulator.simulateEV(ACES, board, 100, 20, 0, 9, tightOptions);
+			tight = Math.min(tight, System.nanoTime() - start);
+			assertEquals(10000, result.getTrials());
+			start = System.nanoTime();
+			PokerEVSimulator.simulateEV(ACES, board, 100, 20, 0, 9, openingOptions);
+			opening = Math.min(opening, System.nanoTime() - start);
+		}
+		// Whole-deal rejection slowed down as ranges collided more, and couldn't deal these at all
+		assertTrue(tight < 2 * opening, "tight " + tight / 1000 + " us against opening " + opening / 1000 + " us");
+	}
+
+	private static SimulationOptions rangedOptions(String range) {
+		HandRange[] ranges = new HandRange[8];
+		Arrays.fill(ranges, HandRange.parse(range));
+		SimulationOptions options = new SimulationOptions(10000);
+		options.setMaxExactCombinations(0);
+		options.setOpponentRanges(ranges);
+		return options;
+	}
+
+	@Test
+	void rangedOpponentChangesEquity() {
+		SimulationOptions options = new SimulationOptions(40000);
+		options.setSeed(9L);
+		options.setOpponentRanges(new HandRange[] {HandRange.parse("KK")});
+		PokerEVResult result = PokerEVSimulator.simulateEV(ACES, 0L, 100, 20, 0, 2, options);
+
+		// AA against KK is about 82% to 18%
+		assertEquals(PokerEVResult.MONTE_CARLO, result.getMode());
+		assertEquals(0.82, result.getWinProbability() + result.getTieProbability() / 2, 0.01);
+	}
+
+	@Test
+	void rangesThatCanNotBeDealtTogetherAreRejected() {
+		SimulationOptions options = new SimulationOptions(1000);
+		HandRange kings = HandRange.parse("KhKd");
+		options.setOpponentRanges(new HandRange[] {kings, kings});
+		assertThrows(IllegalArgumentException.class, () -> PokerEVSimulator.simulateEV(ACES, 0L, 100, 20, 0, 3, options));
+	}
+}
@@ -2,8 +2,10 @@ package com.sraddhasurya.poker;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
 
 @SpringBootTest
+@TestPropertySource(properties = "poker.history.enabled=false")
 class PokerApplicationTests {
 
 	@Test
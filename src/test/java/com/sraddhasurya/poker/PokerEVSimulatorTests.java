@@ -0,0 +1,270 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class PokerEVSimulatorTests {
+
+	private static final long ACES = CardParser.parseSet(List.of("AH", "AD"));
+
+	private static PokerEVResult simulateOn(int parallelism, long seed) throws Exception {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return pool.submit(() -> PokerEVSimulator.simulateEV(ACES, 0L, 100, 20, 0, 5000, 4, seed)).get();
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void seededResultDoesNotDependOnCoreCount() throws Exception {
+		PokerEVResult single = simulateOn(1, 42L);
+		PokerEVResult many = simulateOn(8, 42L);
+		assertEquals(single.getWinProbability(), many.getWinProbability());
+		assertEquals(single.getTieProbability(), many.getTieProbability());
+		assertEquals(single.getExpectedValue(), many.getExpectedValue());
+	}
+
+	@Test
+	void acesHeadsUpWinAboutEightyFivePercent() {
+		PokerEVResult result = PokerEVSimulator.simulateEV(ACES, 0L, 100, 20, 0, 20000, 2, 7L);
+		assertEquals(0.85, result.getWinProbability() + result.getTieProbability() / 2, 0.02);
+	}
+
+	@Test
+	void trialLoopDoesNotAllocate() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().threadId();
+		long board = CardParser.parseSet(List.of("2C", "7D", "JS"));
+		double[] counts = new double[3];
+		SplittableRandom random = new SplittableRandom(1);
+
+		// Warm up so the measured run is compiled code
+		for (int i = 0; i < 20; i++) {
+			PokerEVSimulator.runTrials(ACES, board, 9, 10000, random, counts);
+		}
+
+		long before = threads.getThreadAllocatedBytes(threadId);
+		PokerEVSimulator.runTrials(ACES, board, 9, 200000, random, counts);
+		long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+		// Only the per-call deck and opponent array, nothing per trial
+		assertTrue(allocated < 4096, "allocated " + allocated + " bytes");
+	}
+
+	@Test
+	void scalarTrialLoopDoesNotAllocate() {
+		// The loop used with -Dpoker.simd=false or without the Vector API module, called directly
+		// since surefire runs with the module
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().threadId();
+		long board = CardParser.parseSet(List.of("2C", "7D", "JS"));
+		double[] counts = new double[3];
+		SplittableRandom random = new SplittableRandom(1);
+
+		for (int i = 0; i < 20; i++) {
+			PokerEVSimulator.runTrialsOneByOne(ACES, board, 9, null, 10000, random, counts);
+		}
+
+		long before = threads.getThreadAllocatedBytes(threadId);
+		PokerEVSimulator.runTrialsOneByOne(ACES, board, 9, null, 200000, random, counts);
+		long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+		// Only the per-call deck, opponent array and showdown, nothing per trial
+		assertTrue(allocated < 4096, "allocated " + allocated + " bytes");
+	}
+
+	@Test
+	void smallSpotsAreEnumeratedExactly() {
+		long board = CardParser.parseSet(List.of("2C", "7D", "JS", "9H"));
+		assertEquals(46 * 990, ExactEquity.combinations(ACES, board, 2));
+
+		PokerEVResult exact = PokerEVSimulator.simulateEV(ACES, board, 100, 20, 0, 20000, 2, 3L);
+		PokerEVResult sampled = PokerEVSimulator.simulateEV(ACES, board, 100, 20, 0, 200000, 2, 3L, 0);
+		assertEquals(PokerEVResult.EXACT, exact.getMode());
+		assertEquals(PokerEVResult.MONTE_CARLO, sampled.getMode());
+		assertEquals(exact.getWinProbability(), sampled.getWinProbability(), 0.005);
+		assertEquals(exact.getTieProbability(), sampled.getTieProbability(), 0.005);
+	}
+
+	@Test
+	void exactCountsCoverEveryDeal() {
+		long board = CardParser.parseSet(List.of("2C", "7D", "JS", "9H", "KD"));
+		long[] counts = ExactEquity.enumerate(ACES, board, 3);
+		assertEquals(990L * 903, counts[2]);
+
+		PokerEVResult sampled = PokerEVSimulator.simulateEV(ACES, board, 100, 20, 0, 200000, 3, 5L, 0);
+		assertEquals(counts[0] / (double) counts[2], sampled.getWinProbability(), 0.005);
+	}
+
+	@Test
+	void spreadSamplingStaysUnbiased() {
+		long board = CardParser.parseSet(List.of("2C", "7D", "JS", "9H"));
+		long[] counts = ExactEquity.enumerate(ACES, board, 3);
+		double exact = counts[0] / (double) counts[2];
+		for (Sampling sampling : List.of(Sampling.STRATIFIED, Sampling.QUASI_RANDOM)) {
+			SimulationOptions options = new SimulationOptions(100000);
+			options.setSeed(9L);
+			options.setMaxExactCombinations(0);
+			options.setSampling(sampling);
+			PokerEVResult result = PokerEVSimulator.simulateEV(ACES, board, 100, 20, 0, 3, options);
+
+			assertTrue(result.getStandardError() > 0);
+			assertEquals(exact, result.getWinProbability(), 4 * result.getStandardError(), sampling.name());
+		}
+		assertEquals(Sampling.QUASI_RANDOM, Sampling.parse("quasi-random"));
+		assertEquals(Sampling.UNIFORM, Sampling.parse(null));
+		assertThrows(IllegalArgumentException.class, () -> Sampling.parse("sobol"));
+	}
+
+	@Test
+	void quasiRandomSamplingReachesTheTargetInFewerTrials() {
+		long hole = CardParser.parseSet(List.of("AH", "KH"));
+		long board = CardParser.parseSet(List.of("2H", "7H", "QD"));
+		long[] trials = new long[2];
+		for (Sampling sampling : List.of(Sampling.UNIFORM, Sampling.QUASI_RANDOM)) {
+			SimulationOptions options = new SimulationOptions(10000);
+			options.setSeed(13L);
+			options.setMaxExactCombinations(0);
+			options.setTargetStandardError(0.005);
+			options.setSampling(sampling);
+			PokerEVResult result = PokerEVSimulator.simulateEV(hole, board, 100, 20, 0, 6, options);
+
+			assertTrue(result.getStandardError() <= 0.005);
+			trials[sampling == Sampling.UNIFORM ? 0 : 1] = result.getTrials();
+			if (sampling == Sampling.QUASI_RANDOM) {
+				assertTrue(result.getEffectiveTrials() > result.getTrials(), result.getEffectiveTrials() + " effective trials");
+			} else {
+				assertEquals(result.getTrials(), result.getEffectiveTrials(), 1);
+			}
+		}
+		assertTrue(trials[1] < trials[0], trials[1] + " quasi-random trials against " + trials[0]);
+	}
+
+	@Test
+	void everyTableSizeComesFromOneNestedSimulation() {
+		long board = CardParser.parseSet(List.of("2C", "7D", "JS"));
+		SimulationOptions options = new SimulationOptions(20000);
+		options.setSeed(21L);
+		options.setMaxExactCombinations(0);
+		PokerEVResult[] tables = PokerEVSimulator.simulateEVByTableSize(ACES, board, 100, 20, 0, 6, options);
+		assertEquals(5, tables.length);
+
+		// The largest table is the plain simulation's trials; smaller ones agree within sampling error
+		PokerEVResult six = PokerEVSimulator.simulateEV(ACES, board, 100, 20, 0, 20000, 6, 21L, 0);
+		assertEquals(six.getWinProbability(), tables[4].getWinProbability());
+		assertEquals(six.getTieProbability(), tables[4].getTieProbability());
+		for (int players = 2; players < 6; players++) {
+			PokerEVResult alone = PokerEVSimulator.simulateEV(ACES, board, 100, 20, 0, 20000, players, 3L, 0);
+			assertEquals(alone.getWinProbability(), tables[players - 2].getWinProbability(), 0.02);
+			assertTrue(tables[players - 2].getWinProbability() >= tables[players - 1].getWinProbability());
+		}
+	}
+
+	@Test
+	void rangedSeatsPastATableDoNotTouchIt() {
+		// The third opponent holds spades only, which would take outs from a nested heads-up table
+		long hole = CardParser.parseSet(List.of("QS", "JS"));
+		long board = CardParser.parseSet(List.of("AS", "KS", "2C"));
+		SimulationOptions options = new SimulationOptions(40000);
+		options.setSeed(8L);
+		options.setMaxExactCombinations(0);
+		options.setOpponentRanges(new HandRange[] {null, null, HandRange.parse("9s8s,7s6s,5s4s")});
+		PokerEVResult[] tables = PokerEVSimulator.simulateEVByTableSize(hole, board, 100, 20, 0, 4, options);
+
+		for (int players = 2; players <= 3; players++) {
+			PokerEVResult alone = PokerEVSimulator.simulateEV(hole, board, 100, 20, 0, 40000, players, 4L, 0);
+			assertEquals(alone.getWinProbability(), tables[players - 2].getWinProbability(), 0.012);
+		}
+	}
+
+	@Test
+	void tableSizesStopAtTheDeadline() {
+		long board = CardParser.parseSet(List.of("2C", "7D", "JS"));
+		SimulationOptions options = new SimulationOptions(1_000_000);
+		options.setMaxExactCombinations(0);
+		options.setDeadlineNanos(System.nanoTime());
+		options.setOpponentRanges(new HandRange[] {null, null, HandRange.parse("KK,QQ")});
+		PokerEVResult[] tables = PokerEVSimulator.simulateEVByTableSize(ACES, board, 100, 20, 0, 4, options);
+
+		// One round for every table, the smaller ones dealt on their own
+		for (PokerEVResult table : tables) {
+			assertEquals(PokerEVSimulator.TRIALS_PER_BATCH * PokerEVSimulator.BATCHES_PER_ROUND, table.getTrials());
+		}
+	}
+
+	@Test
+	void headsUpFlopIsExactByDefault() {
+		long board = CardParser.parseSet(List.of("2C", "7D", "JS"));
+		assertEquals(1081 * 990, ExactEquity.combinations(ACES, board, 2));
+		assertEquals(PokerEVResult.EXACT, PokerEVSimulator.simulateEV(ACES, board, 100, 20, 0, 10000, 2, null).getMode());
+	}
+
+	@Test
+	void stopsOnceTargetErrorIsReached() {
+		SimulationOptions options = new SimulationOptions(10000);
+		options.setSeed(11L);
+		options.setTargetStandardError(0.005);
+		PokerEVResult result = PokerEVSimulator.simulateEV(ACES, 0L, 100, 20, 0, 2, options);
+
+		assertTrue(result.getStandardError() <= 0.005);
+		assertTrue(result.getTrials() < SimulationOptions.DEFAULT_MAX_TRIALS);
+		assertTrue(result.getConfidenceLow() < result.getWinProbability());
+		assertTrue(result.getConfidenceHigh() > result.getWinProbability());
+	}
+
+	@Test
+	void timeBudgetBoundsTheRun() {
+		SimulationOptions options = new SimulationOptions(10000);
+		options.setTargetStandardError(0.0);
+		options.setTimeBudgetMillis(50L);
+		long start = System.nanoTime();
+		PokerEVResult result = PokerEVSimulator.simulateEV(ACES, 0L, 100, 20, 0, 9, options);
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		assertTrue(result.getTrials() > 0);
+		assertTrue(elapsedMillis < 1000, "took " + elapsedMillis + " ms");
+	}
+
+	@Test
+	void listenerSeesGrowingEstimatesWithoutChangingTheSeededResult() {
+		List<Long> reported = new ArrayList<>();
+		SimulationOptions options = new SimulationOptions(20000);
+		options.setSeed(5L);
+		options.setProgressTrials(1000);
+		options.setListener(estimate -> reported.add(estimate.getTrials()));
+		PokerEVResult streamed = PokerEVSimulator.simulateEV(ACES, 0L, 100, 20, 0, 4, options);
+		PokerEVResult plain = PokerEVSimulator.simulateEV(ACES, 0L, 100, 20, 0, 20000, 4, 5L);
+
+		assertEquals(19, reported.size());
+		assertEquals(1024L, reported.get(0));
+		assertEquals(plain.getWinProbability(), streamed.getWinProbability());
+		assertEquals(20000, streamed.getTrials());
+	}
+
+	@Test
+	void cancellingStopsAfterTheCurrentRound() {
+		SimulationOptions options = new SimulationOptions(1_000_000);
+		options.setListener(new SimulationListener() {
+			private int rounds;
+
+			@Override
+			public void onProgress(PokerEVResult estimate) {
+				rounds++;
+			}
+
+			@Override
+			public boolean isCancelled() {
+				return rounds >= 2;
+			}
+		});
+		PokerEVResult result = PokerEVSimulator.simulateEV(ACES, 0L, 100, 20, 0, 9, options);
+
+		assertEquals(2 * PokerEVSimulator.TRIALS_PER_BATCH * PokerEVSimulator.BATCHES_PER_ROUND, result.getTrials());
+	}
+}
@@ -0,0 +1,45 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PokerMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final SimulationScheduler scheduler = new SimulationScheduler(1, 4);
+	private final PokerMetrics metrics = new PokerMetrics(registry, scheduler);
+
+	@Test
+	void exactRiverCountsOnePlayerAndEveryOpponentHand() {
+		long hole = CardParser.parseSet(List.of("AH", "AD"));
+		long board = CardParser.parseSet(List.of("2C", "7D", "JS", "9H", "KD"));
+		PokerEVResult exact = new PokerEVResult(0.9, 0.0, 0.0, PokerEVResult.EXACT, 990, 0.0);
+
+		assertEquals(1 + 990, PokerMetrics.evaluations(hole, board, 2, exact));
+		assertEquals("river", PokerMetrics.street(board));
+	}
+
+	@Test
+	void computedSpotsFeedTrialAndLatencyMeters() {
+		EquityService service = new EquityService(new PreflopEquityTable(), scheduler, metrics, 0, Duration.ofSeconds(30), 100, Duration.ofMinutes(1));
+		PokerRequest request = new PokerRequest();
+		request.setHoleCards(List.of("AH", "KH"));
+		request.setCommunityCards(List.of("2H", "7S", "9D"));
+		request.setNumPlayers(4);
+
+		service.calculate(request);
+		service.calculate(request);
+
+		assertEquals(10000, registry.get("poker.trials").tag("mode", "monte-carlo").counter().count());
+		assertEquals(40000, registry.get("poker.evaluations").counter().count());
+		assertEquals(1, registry.get("poker.equity").tag("street", "flop").tag("cache", "hit").timer().count());
+		assertEquals(1, registry.get("poker.simulation").tag("mode", "monte-carlo").timer().count());
+		assertEquals(1.0, registry.get("poker.scheduler.completed").functionCounter().count());
+	}
+}
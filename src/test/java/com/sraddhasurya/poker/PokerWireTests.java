@@ -0,0 +1,85 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+class PokerWireTests {
+
+	private static long set(String... codes) {
+		return CardParser.parseSet(List.of(codes));
+	}
+
+	@Test
+	void requestFramesRoundTrip() {
+		PokerRequest request = new PokerRequest();
+		request.setNumPlayers(6);
+		request.setPotSize(150);
+		request.setCallAmount(30);
+		request.setRaiseAmount(90);
+		request.setSeed(42L);
+		request.setTargetStandardError(0.002);
+
+		ByteBuffer buffer = ByteBuffer.allocate(2 * PokerWire.REQUEST_BYTES);
+		PokerWire.writeRequest(buffer, PokerWire.REQUEST_BYTES, set("10H", "JH"), set("2C", "7D", "QS", "AH"), request);
+		PokerWire.Spot spot = PokerWire.readRequest(buffer, PokerWire.REQUEST_BYTES);
+
+		assertEquals(set("10H", "JH"), spot.holeCards());
+		assertEquals(set("2C", "7D", "QS", "AH"), spot.communityCards());
+		PokerRequest decoded = spot.request();
+		assertEquals(6, decoded.getNumPlayers());
+		assertEquals(150, decoded.getPotSize());
+		assertEquals(30, decoded.getCallAmount());
+		assertEquals(90, decoded.getRaiseAmount());
+		assertEquals(42L, decoded.getSeed());
+		assertEquals(0.002, decoded.getTargetStandardError());
+		assertNull(decoded.getDeadlineMillis());
+		assertNull(decoded.getTimeBudgetMillis());
+	}
+
+	@Test
+	void resultFramesCarryTheSpot() {
+		Map<String, Double> probabilities = new LinkedHashMap<>();
+		for (String key : HandDistribution.CATEGORY_KEYS) probabilities.put(key, 0.0);
+		probabilities.put("Pair", 0.5);
+		SpotResult spot = new SpotResult(probabilities, new PokerEVResult(0.61, 0.02, 37.5, PokerEVResult.EXACT, 1081, 0), true);
+
+		ByteBuffer buffer = ByteBuffer.allocate(PokerWire.RESULT_BYTES);
+		PokerWire.writeResult(buffer, 0, spot);
+
+		assertEquals(PokerWire.OK, PokerWire.status(buffer, 0));
+		assertEquals(PokerEVResult.EXACT, PokerWire.mode(buffer, 0));
+		assertEquals(1, buffer.get(2));
+		assertEquals(1081, buffer.getLong(8));
+		assertEquals(0.61, PokerWire.winProbability(buffer, 0));
+		assertEquals(37.5, PokerWire.expectedValue(buffer, 0));
+		assertEquals(0.5f, buffer.getFloat(48 + 4));
+
+		PokerWire.writeError(buffer, 0, PokerWire.TOO_MANY_REQUESTS, 3);
+		assertEquals(PokerWire.TOO_MANY_REQUESTS, PokerWire.status(buffer, 0));
+		assertEquals(3, buffer.getInt(4));
+		assertEquals(0.0, PokerWire.winProbability(buffer, 0));
+	}
+
+	@Test
+	void rejectsBadFrames() {
+		PokerRequest request = new PokerRequest();
+		request.setNumPlayers(2);
+		ByteBuffer buffer = ByteBuffer.allocate(PokerWire.REQUEST_BYTES);
+
+		PokerWire.writeRequest(buffer, 0, set("AH"), 0L, request);
+		assertThrows(IllegalArgumentException.class, () -> PokerWire.readRequest(buffer, 0));
+
+		PokerWire.writeRequest(buffer, 0, set("AH", "KH"), set("2C", "7D", "QS"), request);
+		buffer.put(8, (byte) 60);
+		assertThrows(IllegalArgumentException.class, () -> PokerWire.readRequest(buffer, 0));
+		buffer.put(8, (byte) CardParser.parseIndex("AH"));
+		assertThrows(IllegalArgumentException.class, () -> PokerWire.readRequest(buffer, 0));
+
+		buffer.put(0, (byte) 9);
+		assertThrows(IllegalArgumentException.class, () -> PokerWire.readRequest(buffer, 0));
+	}
+}
@@ -0,0 +1,46 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+class PreflopEquityTableTests {
+
+	private final PreflopEquityTable table = new PreflopEquityTable();
+
+	@Test
+	void everyStartingHandMapsToOneOf169Classes() {
+		Map<Integer, Integer> combos = new HashMap<>();
+		for (int a = 0; a < 52; a++)
+			for (int b = a + 1; b < 52; b++)
+				combos.merge(PreflopEquityTable.handClass(CardSet.of(a, b)), 1, Integer::sum);
+
+		assertEquals(169, combos.size());
+		assertEquals(6, combos.get(PreflopEquityTable.handClass(CardParser.parseSet(List.of("AH", "AD")))));
+		assertEquals(4, combos.get(PreflopEquityTable.handClass(CardParser.parseSet(List.of("AS", "KS")))));
+		assertEquals(12, combos.get(PreflopEquityTable.handClass(CardParser.parseSet(List.of("AS", "KD")))));
+	}
+
+	@Test
+	void matchesSimulationForKnownSpots() {
+		long aces = CardParser.parseSet(List.of("AC", "AS"));
+		assertEquals(0.852, table.winProbability(aces, 2) + table.tieProbability(aces, 2) / 2, 0.005);
+
+		long sevenDeuce = CardParser.parseSet(List.of("7C", "2S"));
+		PokerEVResult simulated = PokerEVSimulator.simulateEV(sevenDeuce, 0L, 100, 20, 0, 200000, 4, 9L);
+		PokerEVResult looked = table.lookup(sevenDeuce, 4, 100, 20, 0);
+		assertEquals(PokerEVResult.PRECOMPUTED, looked.getMode());
+		assertEquals(simulated.getWinProbability(), looked.getWinProbability(), 0.005);
+		assertEquals(simulated.getExpectedValue(), looked.getExpectedValue(), 1.0);
+	}
+
+	@Test
+	void categoryDistributionIsTheExactWalk() {
+		for (String hand : List.of("AC AS", "9D 8D", "7C 2S")) {
+			long holeCards = CardParser.parseSet(List.of(hand.split(" ")));
+			assertArrayEquals(HandDistribution.distribution(holeCards, 0L), table.distribution(holeCards));
+		}
+	}
+}
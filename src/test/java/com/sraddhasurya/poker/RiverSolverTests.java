@@ -0,0 +1,138 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RiverSolverTests {
+
+	// No straight or flush is possible, so top set is the nuts
+	private static final long BOARD = CardParser.parseSet(List.of("KH", "QD", "7C", "4S", "2H"));
+
+	private static int node(RiverSolution solution, String... path) {
+		for (int n = 0; n < solution.nodeCount(); n++) {
+			if (solution.nodePath(n).equals(List.of(path))) return n;
+		}
+		throw new AssertionError("No node " + List.of(path));
+	}
+
+	// Weighted chance a player's hands matching a rank take an action at a node
+	private static double frequency(RiverSolution solution, int player, int node, int action, int rank) {
+		double taken = 0;
+		double total = 0;
+		for (int h = 0; h < solution.handCount(player); h++) {
+			if (CardSet.rank(CardSet.first(solution.hand(player, h))) != rank
+					&& CardSet.rank(CardSet.first(solution.hand(player, h) & (solution.hand(player, h) - 1))) != rank) continue;
+			taken += solution.weight(player, h) * solution.strategy(node, h, action);
+			total += solution.weight(player, h);
+		}
+		return taken / total;
+	}
+
+	@Test
+	void bluffsAndCallsAtTheIndifferenceFrequencies() {
+		// A bluff catcher against 3 combos of the nuts and 4 of air, one pot-sized bet
+		RiverTree tree = RiverTree.build(100, 100, new double[] {1.0}, new double[0], 0, false, 100);
+		RiverSolution solution = RiverSolver.solve(BOARD, tree, 100, HandRange.parse("33"), HandRange.parse("KK, 65s"), 0.05, 5000);
+
+		assertTrue(solution.getExploitability() <= 0.05);
+		// Air bets half as often as the nuts can back it, the bluff catcher calls half the time
+		int facingCheck = node(solution, "check");
+		assertEquals(1.0, frequency(solution, 1, facingCheck, 1, 13), 0.01);
+		assertEquals(0.375, frequency(solution, 1, facingCheck, 1, 6), 0.02);
+		assertEquals(0.5, frequency(solution, 0, node(solution, "check", "bet 100"), 1, 3), 0.05);
+		// Betting the bluff catcher only gets called by the nuts
+		assertEquals(0.0, frequency(solution, 0, 0, 1, 3), 0.01);
+		// It takes the pot whenever the air checks behind: 2.5 of 7 combos
+		assertEquals(100 * 2.5 / 7, solution.expectedValue(0), 0.2);
+		assertEquals(100.0, solution.expectedValue(0) + solution.expectedValue(1), 1e-6);
+	}
+
+	@Test
+	void showdownValuesMatchComparingEveryPair() {
+		// Without bets every hand checks down, so a hand wins its share of the pot against every hand it doesn't block
+		RiverTree tree = RiverTree.build(60, 100, new double[0], new double[0], 0, false, 100);
+		HandRange oop = HandRange.parse("22+, A2s+, KTo+, 65s, 7h5h");
+		HandRange ip = HandRange.parse("QQ-44, AK, KQs, JTs:0.5, 98s-65s");
+		RiverSolution solution = RiverSolver.solve(BOARD, tree, 60, oop, ip, 0.0, 1);
+
+		for (int h = 0; h < solution.handCount(0); h++) {
+			long hand = solution.hand(0, h);
+			int strength = SevenCardEvaluator.evaluate(BOARD | hand);
+			double share = 0;
+			double weight = 0;
+			for (int o = 0; o < ip.size(); o++) {
+				long other = ip.combo(o);
+				if ((other & (hand | BOARD)) != 0) continue;
+				int otherStrength = SevenCardEvaluator.evaluate(BOARD | other);
+				share += ip.weight(o) * (strength > otherStrength ? 1.0 : strength == otherStrength ? 0.5 : 0.0);
+				weight += ip.weight(o);
+			}
+			assertEquals(60 * share / weight, solution.handExpectedValue(0, h), 1e-9);
+		}
+	}
+
+	@Test
+	void solvesToTheTargetExploitability() {
+		RiverTree tree = RiverTree.build(100, 400, new double[] {0.5, 1.0}, new double[] {1.0}, 2, true, 1000);
+		HandRange oop = HandRange.parse("22+, A2s+, K9s+, QTs+, JTs, ATo+, KJo+, 98s, 87s, 65s");
+		HandRange ip = HandRange.parse("55+, A5s+, KTs+, QTs+, JTs, T9s, AJo+, KQo");
+		RiverSolution solution = RiverSolver.solve(BOARD, tree, 100, oop, ip, 0.5, 2000);
+
+		assertTrue(solution.getExploitability() <= 0.5, "exploitability " + solution.getExploitability());
+		assertTrue(solution.getIterations() < 2000);
+		assertEquals(100.0, solution.expectedValue(0) + solution.expectedValue(1), 1e-6);
+		for (int n = 0; n < solution.nodeCount(); n++) {
+			if (solution.nodePlayer(n) < 0) continue;
+			for (int h = 0; h < solution.handCount(solution.nodePlayer(n)); h++) {
+				double sum = 0;
+				for (int a = 0; a < solution.nodeActions(n).size(); a++) sum += solution.strategy(n, h, a);
+				assertEquals(1.0, sum, 1e-9);
+			}
+		}
+	}
+
+	@Test
+	void deadlineReturnsTheAverageStrategySoFar() {
+		RiverTree tree = RiverTree.build(100, 400, new double[] {0.5, 1.0}, new double[] {1.0}, 2, true, 1000);
+		HandRange oop = HandRange.parse("22+, A2s+, K9s+, QTs+, JTs, ATo+, KJo+, 98s, 87s, 65s");
+		HandRange ip = HandRange.parse("55+, A5s+, KTs+, QTs+, JTs, T9s, AJo+, KQo");
+		RiverSolution solution = RiverSolver.solve(BOARD, tree, 100, oop, ip, 0.0, 2000, System.nanoTime());
+
+		assertTrue(solution.isDeadlineExceeded());
+		assertEquals(1, solution.getIterations());
+		assertTrue(solution.getExploitability() > 0 && solution.getExploitability() < 100);
+		assertEquals(100.0, solution.expectedValue(0) + solution.expectedValue(1), 1e-6);
+	}
+
+	@Test
+	void serviceCapsTheWorkOfASolve() {
+		RiverSolverService service = new RiverSolverService(new SimulationScheduler(1, 0), 10000, 1000, 1_000_000, Duration.ofSeconds(5));
+		RiverSolveRequest request = new RiverSolveRequest();
+		request.setCommunityCards(List.of("KH", "QD", "7C", "4S", "2H"));
+		request.setPotSize(100);
+		request.setStackSize(400);
+		request.setOopRange("22+, A2s+");
+		request.setIpRange("55+, A5s+");
+		assertThrows(IllegalArgumentException.class, () -> service.solve(request));
+
+		request.setMaxIterations(10);
+		RiverSolution solution = service.solve(request);
+		assertEquals(10, solution.getIterations());
+		assertFalse(solution.isDeadlineExceeded());
+	}
+
+	@Test
+	void capsBetsAtTheStack() {
+		RiverTree tree = RiverTree.build(100, 80, new double[] {0.5, 1.0, 2.0}, new double[] {1.0}, 2, true, 100);
+
+		assertEquals(List.of("check", "bet 50", "bet 80"), List.of(tree.actions[0]));
+		int facingBet = tree.children[0][1];
+		assertEquals(List.of("fold", "call", "raise 80"), List.of(tree.actions[facingBet]));
+		assertThrows(IllegalArgumentException.class,
+				() -> RiverTree.build(100, 10_000, new double[] {0.25, 0.5, 1.0}, new double[] {0.5, 1.0}, 4, true, 50));
+	}
+}
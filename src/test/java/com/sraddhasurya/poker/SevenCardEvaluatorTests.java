@@ -0,0 +1,82 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+class SevenCardEvaluatorTests {
+
+	private static int eval(String... codes) {
+		return SevenCardEvaluator.evaluate(CardParser.parseList(List.of(codes)));
+	}
+
+	@Test
+	void fiveCardHandsHaveKnownCategoryCountsAndDistinctValues() {
+		long[] counts = new long[9];
+		Set<Integer> distinct = new HashSet<>();
+		for (int a = 0; a < 52; a++)
+			for (int b = a + 1; b < 52; b++)
+				for (int c = b + 1; c < 52; c++)
+					for (int d = c + 1; d < 52; d++)
+						for (int e = d + 1; e < 52; e++) {
+							int value = SevenCardEvaluator.evaluate((1L << a) | (1L << b) | (1L << c) | (1L << d) | (1L << e));
+							counts[SevenCardEvaluator.category(value)]++;
+							distinct.add(value);
+						}
+
+		assertArrayEquals(new long[] {1302540, 1098240, 123552, 54912, 10200, 5108, 3744, 624, 40}, counts);
+		assertEquals(7462, distinct.size());
+	}
+
+	@Test
+	void sevenCardHandsHaveKnownCategoryCounts() {
+		long[] counts = new long[9];
+		for (int a = 0; a < 52; a++)
+			for (int b = a + 1; b < 52; b++)
+				for (int c = b + 1; c < 52; c++)
+					for (int d = c + 1; d < 52; d++)
+						for (int e = d + 1; e < 52; e++)
+							for (int f = e + 1; f < 52; f++)
+								for (int g = f + 1; g < 52; g++) {
+									long hand = (1L << a) | (1L << b) | (1L << c) | (1L << d) | (1L << e) | (1L << f) | (1L << g);
+									counts[SevenCardEvaluator.category(SevenCardEvaluator.evaluate(hand))]++;
+								}
+
+		assertArrayEquals(new long[] {23294460, 58627800, 31433400, 6461620, 6180020, 4047644, 3473184, 224848, 41584}, counts);
+	}
+
+	@Test
+	void kickersBreakTiesOnPairedBoard() {
+		int ak = eval("AH", "KD", "7S", "7C", "2H", "9D", "4C");
+		int aq = eval("AS", "QD", "7S", "7C", "2H", "9D", "4C");
+		assertTrue(ak > aq);
+		assertEquals(SevenCardEvaluator.ONE_PAIR, SevenCardEvaluator.category(ak));
+	}
+
+	@Test
+	void boardPlaysIsASplit() {
+		int first = eval("2H", "3D", "AS", "KS", "QS", "JS", "10S");
+		int second = eval("4H", "5D", "AS", "KS", "QS", "JS", "10S");
+		assertEquals(first, second);
+		assertEquals("Straight Flush", SevenCardEvaluator.categoryName(first));
+	}
+
+	@Test
+	void wheelIsTheLowestStraight() {
+		int wheel = eval("AH", "2D", "3S", "4C", "5H", "KD", "9C");
+		int sixHigh = eval("6H", "2D", "3S", "4C", "5H", "KD", "9C");
+		assertEquals(SevenCardEvaluator.STRAIGHT, SevenCardEvaluator.category(wheel));
+		assertTrue(sixHigh > wheel);
+	}
+
+	@Test
+	void bestOfReturnsTheFiveCardsThatMakeTheHand() {
+		List<Card> seven = CardParser.parseList(List.of("AH", "KD", "7S", "7C", "2H", "9D", "4C"));
+		List<Card> best = BestFiveCards.bestOf(seven);
+		assertEquals(5, best.size());
+		assertEquals(SevenCardEvaluator.evaluate(seven), SevenCardEvaluator.evaluate(best));
+		assertEquals("One Pair", PokerHandEvaluator.classifyHand(best));
+	}
+}
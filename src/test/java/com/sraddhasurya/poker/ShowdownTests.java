@@ -0,0 +1,79 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+class ShowdownTests {
+
+	private static long set(String... codes) {
+		return CardParser.parseSet(List.of(codes));
+	}
+
+	@Test
+	void rankMatchesFullEvaluationForRandomDeals() {
+		SplittableRandom random = new SplittableRandom(7);
+		Showdown reused = new Showdown(0L);
+		for (int i = 0; i < 200_000; i++) {
+			Deck deck = new Deck(0L);
+			int boardSize = 3 + i % 3;
+			long board = 0L;
+			for (int k = 0; k < boardSize; k++) board |= CardSet.bit(deck.draw(random));
+			long hole = CardSet.bit(deck.draw(random)) | CardSet.bit(deck.draw(random));
+
+			assertEquals(SevenCardEvaluator.evaluate(hole | board), new Showdown(board).rank(hole));
+			reused.reset(board);
+			assertEquals(SevenCardEvaluator.evaluate(hole | board), reused.rank(hole));
+		}
+	}
+
+	@Test
+	void kickersDecideAndEqualHandsSplit() {
+		long board = set("KH", "KD", "7C", "4S", "2H");
+		long[] players = {
+			set("AS", "3D"),	// kings, ace kicker
+			set("QC", "JD"),	// kings, queen kicker
+			set("AC", "3H"),	// kings, ace kicker: splits with player 0
+			set("7H", "8D")		// kings and sevens
+		};
+		ShowdownResult result = Showdown.rank(board, players);
+
+		assertArrayEquals(new int[] {3, 0, 2, 1}, result.getOrder());
+		assertEquals(List.of(List.of(3), List.of(0, 2), List.of(1)), result.getGroups());
+		assertEquals(List.of(3), result.getWinners());
+		assertEquals(result.getRanks()[0], result.getRanks()[2]);
+		assertTrue(result.getRanks()[0] > result.getRanks()[1]);
+	}
+
+	@Test
+	void boardPlayingForEveryoneSplitsThePot() {
+		long board = set("10H", "JD", "QC", "KS", "AH");
+		ShowdownResult result = Showdown.rank(board, new long[] {set("2C", "3D"), set("4C", "5D"), set("6C", "7D")});
+
+		assertEquals(List.of(0, 1, 2), result.getWinners());
+		assertEquals(1, result.getGroups().size());
+		assertEquals(board, result.getBestFive()[1]);
+	}
+
+	@Test
+	void bestFiveCardsMakeTheHand() {
+		long board = set("2H", "7H", "9H", "KD");
+		ShowdownResult result = Showdown.rank(board, new long[] {set("AH", "4H"), set("KC", "KS")});
+
+		assertEquals(set("AH", "4H", "2H", "7H", "9H"), result.getBestFive()[0]);
+		assertEquals(set("KC", "KS", "KD", "9H", "7H"), result.getBestFive()[1]);
+		assertEquals(List.of(0), result.getWinners());
+	}
+
+	@Test
+	void rejectsInvalidDeals() {
+		long board = set("2H", "7H", "9H");
+		assertThrows(IllegalArgumentException.class, () -> Showdown.rank(set("2H", "7H"), new long[] {set("AS", "AD")}));
+		assertThrows(IllegalArgumentException.class, () -> Showdown.rank(board, new long[] {set("AS")}));
+		assertThrows(IllegalArgumentException.class, () -> Showdown.rank(board, new long[] {set("AS", "AD"), set("AS", "KD")}));
+		assertThrows(IllegalArgumentException.class, () -> Showdown.rank(board, new long[] {set("9H", "AD")}));
+		assertThrows(IllegalArgumentException.class, () -> Showdown.rank(board, new long[0]));
+	}
+}
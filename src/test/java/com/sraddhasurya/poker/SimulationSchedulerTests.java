@@ -0,0 +1,174 @@
+package com.sraddhasurya.poker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SimulationSchedulerTests {
+
+	@Test
+	void rejectsOnceTheQueueIsFull() throws Exception {
+		SimulationScheduler scheduler = new SimulationScheduler(1, 1);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			CompletableFuture<Integer> running = CompletableFuture.supplyAsync(() -> scheduler.run(() -> {
+				started.countDown();
+				awaitQuietly(release);
+				return 1;
+			}));
+			started.await();
+			CompletableFuture<Integer> queued = CompletableFuture.supplyAsync(() -> scheduler.run(() -> 2));
+			while (scheduler.getQueueDepth() == 0) {
+				Thread.onSpinWait();
+			}
+
+			SimulationRejectedException rejected = assertThrows(SimulationRejectedException.class, () -> scheduler.run(() -> 3));
+			assertTrue(rejected.getRetryAfterSeconds() >= 1);
+			assertEquals(1, scheduler.getRejected());
+			assertEquals(1, scheduler.getRunning());
+
+			release.countDown();
+			assertEquals(1, running.get());
+			assertEquals(2, queued.get());
+			assertEquals(0, scheduler.getQueueDepth());
+		} finally {
+			release.countDown();
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	void rejectedMissIsNotCachedAndConcurrentMissesShareOneComputation() throws Exception {
+		SimulationScheduler scheduler = new SimulationScheduler(1, 0);
+		EquityService service = new EquityService(new PreflopEquityTable(), scheduler,
+				new PokerMetrics(new SimpleMeterRegistry(), scheduler), 0, Duration.ofSeconds(30), 100, Duration.ofMinutes(1));
+		PokerRequest request = new PokerRequest();
+		request.setHoleCards(List.of("AH", "KH"));
+		request.setCommunityCards(List.of("2H", "7S", "9D"));
+		request.setNumPlayers(3);
+		request.setSeed(4L);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			CompletableFuture<Integer> busy = CompletableFuture.supplyAsync(() -> scheduler.run(() -> {
+				started.countDown();
+				awaitQuietly(release);
+				return 1;
+			}));
+			started.await();
+
+			// The only thread is busy and there is no queue: the miss is rejected at once, not parked on the cache
+			assertThrows(SimulationRejectedException.class, () -> service.calculate(request));
+			assertEquals(0L, service.cacheStats().get("size"));
+			release.countDown();
+			busy.get();
+
+			List<CompletableFuture<SpotResult>> lookups = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				lookups.add(CompletableFuture.supplyAsync(() -> service.calculateWhenQueued(request)));
+			}
+			SpotResult first = lookups.get(0).get();
+			for (CompletableFuture<SpotResult> lookup : lookups) {
+				assertEquals(first.getEvResult().getWinProbability(), lookup.get().getEvResult().getWinProbability());
+			}
+			assertEquals(2L, service.cacheStats().get("misses"));
+			assertEquals(3L, service.cacheStats().get("hits"));
+		} finally {
+			release.countDown();
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	void rejectedMissLeavesNoEntryAndLogsNothing() throws Exception {
+		SimulationScheduler scheduler = new SimulationScheduler(1, 0);
+		EquityService service = new EquityService(new PreflopEquityTable(), scheduler,
+				new PokerMetrics(new SimpleMeterRegistry(), scheduler), 0, Duration.ofSeconds(30), 100, Duration.ofMinutes(1));
+		PokerRequest request = new PokerRequest();
+		request.setHoleCards(List.of("AH", "KH"));
+		request.setCommunityCards(List.of("2H", "7S", "9D"));
+		request.setNumPlayers(3);
+		// Caffeine logs failed loads through System.Logger, which goes to java.util.logging here
+		List<LogRecord> records = Collections.synchronizedList(new ArrayList<>());
+		Handler handler = new Handler() {
+			@Override
+			public void publish(LogRecord record) {
+				records.add(record);
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		Logger caffeine = Logger.getLogger("com.github.benmanes.caffeine");
+		caffeine.addHandler(handler);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			CompletableFuture<Integer> busy = CompletableFuture.supplyAsync(() -> scheduler.run(() -> {
+				started.countDown();
+				awaitQuietly(release);
+				return 1;
+			}));
+			started.await();
+
+			assertThrows(SimulationRejectedException.class, () -> service.calculate(request));
+			assertEquals(0L, service.cacheStats().get("size"));
+			assertEquals(List.of(), records.stream().map(LogRecord::getMessage).toList());
+			release.countDown();
+			busy.get();
+
+			// The spot is computed normally once the thread is free
+			assertFalse(service.calculate(request).isDeadlineExceeded());
+			assertEquals(1L, service.cacheStats().get("size"));
+		} finally {
+			caffeine.removeHandler(handler);
+			release.countDown();
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	void deadlineReturnsTheEstimateSoFar() {
+		SimulationScheduler scheduler = new SimulationScheduler(1, 4);
+		EquityService service = new EquityService(new PreflopEquityTable(), scheduler,
+				new PokerMetrics(new SimpleMeterRegistry(), scheduler), 0, Duration.ofSeconds(30), 100, Duration.ofMinutes(1));
+		PokerRequest request = new PokerRequest();
+		request.setHoleCards(List.of("AH", "KH"));
+		request.setCommunityCards(List.of("2H", "7S", "9D"));
+		request.setNumPlayers(9);
+		request.setTargetStandardError(0.0);
+		request.setDeadlineMillis(50L);
+
+		SpotResult result = service.calculate(request);
+
+		assertTrue(result.isDeadlineExceeded());
+		assertTrue(result.getEvResult().getTrials() > 0);
+		assertEquals(1, scheduler.getDeadlinesExceeded());
+		assertEquals(0L, service.cacheStats().get("size"));
+		scheduler.shutdown();
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}